@@ -0,0 +1,29 @@
+import java.lang.reflect.InvocationTargetException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Training run of the fast-startup build (see the fast-startup Maven profile): starts the
+ * application against H2 without putting H2 on the application class path. H2 is loaded by
+ * a class loader of its own, so its JAR is not part of the class path recorded in the CDS
+ * archive and is not deployed in lib/. Run in source-file mode:
+ * java -cp <application JAR> CdsTrainingRun.java <H2 JAR> <application arguments>
+ */
+public class CdsTrainingRun {
+
+    public static void main(String[] args) throws Throwable {
+        URLClassLoader h2 = new URLClassLoader(new URL[] {Path.of(args[0]).toUri().toURL()},
+                ClassLoader.getSystemClassLoader());
+        // Spring Boot and Hikari load the JDBC driver through the context class loader
+        Thread.currentThread().setContextClassLoader(h2);
+        try {
+            Class.forName("com.anup.shopapi.ShopApiApplication")
+                    .getMethod("main", String[].class)
+                    .invoke(null, (Object) Arrays.copyOfRange(args, 1, args.length));
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.anup.shopapi.benchmark;
+
+import com.anup.shopapi.ShopApiApplication;
+import com.anup.shopapi.config.ShopIdGeneratorAligner;
+import com.anup.shopapi.entity.Shop;
+import com.anup.shopapi.index.ShopCounter;
+import com.anup.shopapi.index.ShopIndexMaintainer;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts the application against an in-memory H2 database in MySQL mode,
+ * and fills it with generated shops.
+ */
+final class BenchmarkApplication {
+
+    private static final int INSERT_BATCH_SIZE = 10_000;
+
+    private static final String H2_URL = "h2:mem:shopdb;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    // Same tables Hibernate creates for the servlet stack; the reactive stack does not generate DDL
+    private static final String[] SCHEMA_SQL = {
+            "CREATE TABLE shops (id BIGINT NOT NULL, name VARCHAR(100) NOT NULL, address VARCHAR(255) NOT NULL, " +
+            "phone VARCHAR(20), email VARCHAR(100), latitude DOUBLE, longitude DOUBLE, " +
+            "created_date TIMESTAMP(6) NOT NULL, updated_date TIMESTAMP(6), " +
+            "version BIGINT DEFAULT 0 NOT NULL, PRIMARY KEY (id), " +
+            "CONSTRAINT uk_shops_email UNIQUE (email), CONSTRAINT uk_shops_phone UNIQUE (phone))",
+            "CREATE TABLE shop_tombstones (shop_id BIGINT NOT NULL, deleted_date TIMESTAMP(6) NOT NULL, PRIMARY KEY (shop_id))",
+            "CREATE INDEX idx_shop_tombstones_deleted_date_shop_id ON shop_tombstones (deleted_date, shop_id)",
+            "CREATE INDEX idx_shops_updated_date_id ON shops (updated_date, id)",
+            "CREATE INDEX idx_shops_latitude_longitude ON shops (latitude, longitude)",
+            "CREATE TABLE id_sequences (sequence_name VARCHAR(255) NOT NULL, next_val BIGINT, PRIMARY KEY (sequence_name))"
+    };
+
+    private static final String INSERT_SQL =
+            "INSERT INTO shops (id, name, address, phone, email, created_date, updated_date) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private BenchmarkApplication() {
+    }
+
+    /**
+     * @return Running application context with an empty shops table
+     */
+    static ConfigurableApplicationContext start() {
+        return run(WebApplicationType.NONE);
+    }
+
+    /**
+     * @param arguments Extra {@code --name=value} properties
+     * @return Running application context with an embedded web server and an empty shops table
+     */
+    static ConfigurableApplicationContext startWebServer(String... arguments) {
+        return run(WebApplicationType.SERVLET, arguments);
+    }
+
+    /**
+     * Create and fill the shops table, then start the reactive (WebFlux + R2DBC) stack on it
+     * @param shops Number of shops to insert
+     * @param arguments Extra {@code --name=value} properties
+     * @return Running reactive application context
+     */
+    static ConfigurableApplicationContext startReactiveWebServer(int shops, String... arguments) {
+        createDatabase("jdbc:" + H2_URL, shops);
+
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.profiles.active=reactive",
+                "--spring.r2dbc.url=r2dbc:" + H2_URL.replace("mem:", "mem:///"),
+                "--spring.r2dbc.username=sa",
+                "--spring.r2dbc.password=",
+                "--logging.level.root=WARN",
+                "--logging.level.com.anup.shopapi=WARN",
+                "--logging.level.org.springframework.web=WARN"));
+        args.addAll(List.of(arguments));
+        return new SpringApplicationBuilder(ShopApiApplication.class)
+                .logStartupInfo(false)
+                .run(args.toArray(new String[0]));
+    }
+
+    /**
+     * Create the tables in an H2 database and fill them, without starting the application
+     * @param jdbcUrl H2 JDBC URL, user {@code sa} with an empty password
+     * @param shops Number of shops to insert
+     */
+    static void createDatabase(String jdbcUrl, int shops) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SimpleDriverDataSource(new org.h2.Driver(), jdbcUrl, "sa", ""));
+        jdbcTemplate.batchUpdate(SCHEMA_SQL);
+        insertShops(jdbcTemplate, shops);
+    }
+
+    private static ConfigurableApplicationContext run(WebApplicationType webApplicationType, String... arguments) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:" + H2_URL,
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--spring.sql.init.mode=never",
+                // Writes geocode their address as in a configured deployment, without network calls
+                "--shop.geocoder.type=offline",
+                "--logging.level.root=WARN",
+                "--logging.level.com.anup.shopapi=WARN",
+                "--logging.level.org.springframework.web=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"));
+        args.addAll(List.of(arguments));
+        return new SpringApplicationBuilder(ShopApiApplication.class)
+                .web(webApplicationType)
+                .logStartupInfo(false)
+                // Command-line arguments, so they override application.properties
+                .run(args.toArray(new String[0]));
+    }
+
+    /**
+     * Insert shops with IDs 1..count, then bring the ID generator, indexes and counter up to date
+     * @param context Context from {@link #start()}
+     * @param count Number of shops to insert
+     */
+    static void populate(ConfigurableApplicationContext context, int count) {
+        insertShops(context.getBean(JdbcTemplate.class), count);
+
+        context.getBean(ShopIdGeneratorAligner.class).align();
+        context.getBean(ShopIndexMaintainer.class).rebuild();
+        context.getBean(ShopCounter.class).reconcile();
+    }
+
+    private static void insertShops(JdbcTemplate jdbcTemplate, int count) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (long id = 1; id <= count; id++) {
+            Shop shop = shop(id);
+            batch.add(new Object[] {id, shop.getName(), shop.getAddress(), shop.getPhone(), shop.getEmail(), now, now});
+            if (batch.size() == INSERT_BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+        }
+    }
+
+    /**
+     * @param id Sequence number used to make every field unique
+     * @return Unsaved shop with generated details
+     */
+    static Shop shop(long id) {
+        return new Shop(
+                String.format("Shop %07d", id),
+                id + " Benchmark Street, District " + (id % 100) + ", City",
+                String.format("+1-555-%07d", id),
+                "shop" + id + "@benchmark.com");
+    }
+}
@@ -0,0 +1,95 @@
+package com.anup.shopapi.benchmark;
+
+import com.anup.shopapi.service.ShopCursor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Before/after comparison of platform and virtual request threads.
+ * <p>
+ * {@link #CLIENTS} concurrent clients page through GET /api/shops with the
+ * response cache off, so every request runs a query that takes at least
+ * {@code dbLatencyMs}. The connection pool is sized to the client count, which
+ * leaves Tomcat's 200 platform threads as the limit unless virtual threads are on.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(ConcurrencyBenchmark.CLIENTS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ConcurrencyBenchmark {
+
+    static final int CLIENTS = 400;
+
+    private static final int TABLE_SIZE = 10_000;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    @Param({"5"})
+    public int dbLatencyMs;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void startServer() {
+        System.setProperty(SimulatedLatencyInspector.LATENCY_PROPERTY, String.valueOf(dbLatencyMs));
+        context = BenchmarkApplication.startWebServer(
+                "--server.port=0",
+                "--server.tomcat.threads.max=200",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--spring.datasource.hikari.maximum-pool-size=" + CLIENTS,
+                "--shop.response-cache.enabled=false",
+                // Measure how many requests each threading model sustains, not how many are shed
+                "--shop.admission.enabled=false",
+                "--spring.jpa.properties.hibernate.session_factory.statement_inspector=" + SimulatedLatencyInspector.class.getName());
+        BenchmarkApplication.populate(context, TABLE_SIZE);
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port + "/api/shops?limit=" + PAGE_SIZE + "&after=";
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopServer() {
+        context.close();
+        System.clearProperty(SimulatedLatencyInspector.LATENCY_PROPERTY);
+    }
+
+    @Benchmark
+    public int getShopsPage() throws IOException, InterruptedException {
+        String cursor = ShopCursor.encode(ThreadLocalRandom.current().nextLong(TABLE_SIZE - PAGE_SIZE));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + cursor)).GET().build();
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode());
+        }
+        return response.body().length;
+    }
+}
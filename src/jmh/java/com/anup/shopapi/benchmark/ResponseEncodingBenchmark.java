@@ -0,0 +1,197 @@
+package com.anup.shopapi.benchmark;
+
+import com.anup.shopapi.entity.Shop;
+import com.anup.shopapi.format.ResponseFormat;
+import com.anup.shopapi.format.ShopResponseEncoder;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.WireFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoding and decoding of the list envelope with {@code listSize} shops in each
+ * {@link ResponseFormat}, optionally gzip-compressed as the response cache stores it.
+ * Decoding stands in for the client: Jackson binds JSON, CBOR and Smile to plain
+ * records, and Protobuf is read field by field from the wire format of shop.proto.
+ * The encoded sizes are printed during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ResponseEncodingBenchmark {
+
+    @Param({"JSON", "CBOR", "SMILE", "PROTOBUF"})
+    public ResponseFormat format;
+
+    @Param({"false", "true"})
+    public boolean compressed;
+
+    @Param({"10000"})
+    public int listSize;
+
+    private ShopResponseEncoder encoder;
+    private ObjectMapper decoder;
+    private Map<String, Object> listResponse;
+    private byte[] encoded;
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record ShopView(Long id, String name, String address, String phone, String email,
+                    Double latitude, Double longitude, String createdDate, String updatedDate, Long version) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record ListView(boolean success, String message, List<ShopView> data, Integer count,
+                    Integer limit, String nextCursor) {
+    }
+
+    @Setup(Level.Trial)
+    public void buildResponse() throws IOException {
+        // Same configuration Spring Boot applies to the application's ObjectMapper
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        encoder = new ShopResponseEncoder(objectMapper, Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+        decoder = switch (format) {
+            case JSON -> new ObjectMapper();
+            case CBOR -> new ObjectMapper(new CBORFactory());
+            case SMILE -> new ObjectMapper(new SmileFactory());
+            case PROTOBUF -> null;
+        };
+        if (decoder != null) {
+            decoder.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Shop> shops = new ArrayList<>(listSize);
+        for (long id = 1; id <= listSize; id++) {
+            Shop shop = BenchmarkApplication.shop(id);
+            shop.setId(id);
+            shop.setLatitude(51.5 + id % 1000 / 10_000.0);
+            shop.setLongitude(-0.12 + id % 997 / 10_000.0);
+            shop.setCreatedDate(now);
+            shop.setUpdatedDate(now);
+            shops.add(shop);
+        }
+
+        listResponse = new HashMap<>();
+        listResponse.put("success", true);
+        listResponse.put("message", "Shops retrieved successfully");
+        listResponse.put("data", shops);
+        listResponse.put("count", shops.size());
+        listResponse.put("limit", shops.size());
+        listResponse.put("nextCursor", null);
+
+        byte[] identity = encoder.encode(listResponse, format);
+        byte[] gzipped = gzip(identity);
+        encoded = compressed ? gzipped : identity;
+        System.out.printf("%n%s list of %d shops: %d bytes, %d bytes gzipped%n",
+                format, listSize, identity.length, gzipped.length);
+    }
+
+    @Benchmark
+    public byte[] encodeShopList() throws IOException {
+        byte[] body = encoder.encode(listResponse, format);
+        return compressed ? gzip(body) : body;
+    }
+
+    @Benchmark
+    public int decodeShopList() throws IOException {
+        byte[] body = compressed ? gunzip(encoded) : encoded;
+        if (format == ResponseFormat.PROTOBUF) {
+            return decodeProtobuf(body).size();
+        }
+        return decoder.readValue(body, ListView.class).data().size();
+    }
+
+    // ShopListResponse: repeated Shop data = 3; other envelope fields are skipped
+    private static List<ShopView> decodeProtobuf(byte[] body) throws IOException {
+        CodedInputStream input = CodedInputStream.newInstance(body);
+        List<ShopView> shops = new ArrayList<>();
+        for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+            if (WireFormat.getTagFieldNumber(tag) != 3) {
+                input.skipField(tag);
+                continue;
+            }
+            int oldLimit = input.pushLimit(input.readRawVarint32());
+            shops.add(decodeProtobufShop(input));
+            input.popLimit(oldLimit);
+        }
+        return shops;
+    }
+
+    private static ShopView decodeProtobufShop(CodedInputStream input) throws IOException {
+        Long id = null;
+        Long version = null;
+        String name = null;
+        String address = null;
+        String phone = null;
+        String email = null;
+        String createdDate = null;
+        String updatedDate = null;
+        Double latitude = null;
+        Double longitude = null;
+        for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case 1 -> id = input.readInt64();
+                case 2 -> name = input.readString();
+                case 3 -> address = input.readString();
+                case 4 -> phone = input.readString();
+                case 5 -> email = input.readString();
+                case 6 -> latitude = input.readDouble();
+                case 7 -> longitude = input.readDouble();
+                case 8 -> createdDate = input.readString();
+                case 9 -> updatedDate = input.readString();
+                case 10 -> version = input.readInt64();
+                default -> input.skipField(tag);
+            }
+        }
+        return new ShopView(id, name, address, phone, email, latitude, longitude, createdDate, updatedDate, version);
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(body);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] body) throws IOException {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return gzip.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.anup.shopapi.benchmark;
+
+import com.anup.shopapi.entity.Shop;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the ShopController response envelopes, with
+ * {@code listSize} shops in the list envelope. No database involved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ResponseSerializationBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int listSize;
+
+    private ObjectMapper objectMapper;
+    private Map<String, Object> listResponse;
+    private Map<String, Object> shopResponse;
+
+    @Setup(Level.Trial)
+    public void buildResponses() {
+        // Same configuration Spring Boot applies to the application's ObjectMapper
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Shop> shops = new ArrayList<>(listSize);
+        for (long id = 1; id <= listSize; id++) {
+            Shop shop = BenchmarkApplication.shop(id);
+            shop.setId(id);
+            shop.setCreatedDate(now);
+            shop.setUpdatedDate(now);
+            shops.add(shop);
+        }
+
+        listResponse = new HashMap<>();
+        listResponse.put("success", true);
+        listResponse.put("message", "Shops retrieved successfully");
+        listResponse.put("data", shops);
+        listResponse.put("count", shops.size());
+        listResponse.put("limit", shops.size());
+        listResponse.put("nextCursor", null);
+
+        shopResponse = new HashMap<>();
+        shopResponse.put("success", true);
+        shopResponse.put("message", "Shop found successfully");
+        shopResponse.put("data", shops.get(0));
+    }
+
+    @Benchmark
+    public byte[] serializeShopList() throws Exception {
+        return objectMapper.writeValueAsBytes(listResponse);
+    }
+
+    @Benchmark
+    public byte[] serializeShop() throws Exception {
+        return objectMapper.writeValueAsBytes(shopResponse);
+    }
+}
@@ -0,0 +1,83 @@
+package com.anup.shopapi.benchmark;
+
+import com.anup.shopapi.entity.Shop;
+import com.anup.shopapi.service.ShopService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ShopService hot paths through the real JPA, cache and index stack,
+ * against an H2 table of {@code tableSize} shops.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ShopServiceBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int tableSize;
+
+    private ConfigurableApplicationContext context;
+    private ShopService shopService;
+    // Continues the generated sequence so created shops never collide with existing ones
+    private AtomicLong nextShop;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.populate(context, tableSize);
+        shopService = context.getBean(ShopService.class);
+        nextShop = new AtomicLong(tableSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Shop> getAllShops() {
+        return shopService.getAllShops();
+    }
+
+    @Benchmark
+    public Optional<Shop> getShopById() {
+        return shopService.getShopById(randomId());
+    }
+
+    @Benchmark
+    public List<Shop> searchShops() {
+        // Zero-padded number: matches exactly one shop name
+        return shopService.searchShops(String.format("%07d", randomId()));
+    }
+
+    @Benchmark
+    public Shop createShop() {
+        return shopService.createShop(BenchmarkApplication.shop(nextShop.incrementAndGet()));
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, tableSize + 1);
+    }
+}
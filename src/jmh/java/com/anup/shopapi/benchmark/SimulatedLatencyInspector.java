@@ -0,0 +1,27 @@
+package com.anup.shopapi.benchmark;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Sleeps before every SQL statement to stand in for the network round trip to
+ * MySQL, which an in-memory H2 database does not have. The calling thread
+ * blocks while holding its connection, as it would waiting on a real server.
+ */
+public class SimulatedLatencyInspector implements StatementInspector {
+
+    static final String LATENCY_PROPERTY = "benchmark.db.latency-ms";
+
+    private final long latencyMillis = Long.getLong(LATENCY_PROPERTY, 0);
+
+    @Override
+    public String inspect(String sql) {
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,104 @@
+package com.anup.shopapi.benchmark;
+
+import com.anup.shopapi.service.ShopCursor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of the same endpoints on the servlet/JPA stack (platform or virtual
+ * request threads) and on the reactive WebFlux/R2DBC stack, both on an embedded
+ * H2 database. {@link #CLIENTS} concurrent clients fetch a shop by ID and a page
+ * of shops; the servlet response cache is off so both stacks query the database,
+ * and admission control is off so neither stack sheds requests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(StackComparisonBenchmark.CLIENTS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class StackComparisonBenchmark {
+
+    static final int CLIENTS = 400;
+
+    private static final int TABLE_SIZE = 10_000;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"servlet", "servlet-virtual", "reactive"})
+    public String stack;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void startServer() {
+        switch (stack) {
+            case "servlet", "servlet-virtual" -> {
+                context = BenchmarkApplication.startWebServer(
+                        "--server.port=0",
+                        "--spring.threads.virtual.enabled=" + stack.equals("servlet-virtual"),
+                        "--shop.response-cache.enabled=false",
+                        "--shop.admission.enabled=false");
+                BenchmarkApplication.populate(context, TABLE_SIZE);
+            }
+            // r2dbc-h2 runs queries synchronously on the calling thread, so pooling its in-memory
+            // sessions funnels every request through one event loop; connect per request instead
+            case "reactive" -> context = BenchmarkApplication.startReactiveWebServer(TABLE_SIZE,
+                    "--server.port=0",
+                    "--spring.r2dbc.pool.enabled=false");
+            default -> throw new IllegalArgumentException("Unknown stack: " + stack);
+        }
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port + "/api/shops";
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopServer() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getShopById() throws IOException, InterruptedException {
+        return get(baseUrl + "/" + ThreadLocalRandom.current().nextLong(1, TABLE_SIZE + 1));
+    }
+
+    @Benchmark
+    public int getShopsPage() throws IOException, InterruptedException {
+        String cursor = ShopCursor.encode(ThreadLocalRandom.current().nextLong(TABLE_SIZE - PAGE_SIZE));
+        return get(baseUrl + "?limit=" + PAGE_SIZE + "&after=" + cursor);
+    }
+
+    private int get(String url) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).GET().build();
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode() + " from " + url);
+        }
+        return response.body().length;
+    }
+}
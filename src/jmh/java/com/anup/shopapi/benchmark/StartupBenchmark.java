@@ -0,0 +1,165 @@
+package com.anup.shopapi.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time from launching the application JVM to its first successful request
+ * ({@code GET /api/shops/1}), on an H2 database file with {@code tableSize} shops.
+ * Each {@code mode} adds one step to the previous one:
+ * <ul>
+ *   <li>{@code default} - default profile</li>
+ *   <li>{@code profile} - fast-startup profile (schema validation, no springdoc, quieter logging)</li>
+ *   <li>{@code aot} - plus the AOT-processed application context</li>
+ *   <li>{@code aot-cds} - plus the AppCDS archive from the build's training run</li>
+ * </ul>
+ * Every mode runs the JAR built by {@code mvn -Pfast-startup package}, so build that first.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Fork(1)
+public class StartupBenchmark {
+
+    private static final Path FAST_STARTUP_DIRECTORY = Path.of("target", "fast-startup");
+    private static final String CDS_ARCHIVE = "shop-api.jsa";
+    // H2 is not deployed with the application; the build copies it here for its training run
+    private static final String H2_JAR = Path.of("..", "fast-startup-training", "h2.jar").toString();
+
+    private static final long POLL_INTERVAL_MS = 5;
+    private static final long STARTUP_TIMEOUT_MS = 120_000;
+
+    @Param({"default", "profile", "aot", "aot-cds"})
+    public String mode;
+
+    @Param({"10000"})
+    public int tableSize;
+
+    private Path databaseDirectory;
+    private List<String> command;
+    private HttpClient client;
+    private URI firstRequest;
+    private Process process;
+
+    @Setup(Level.Trial)
+    public void prepare() throws IOException {
+        String jar;
+        try (var files = Files.list(FAST_STARTUP_DIRECTORY)) {
+            jar = files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith("-fast-startup.jar"))
+                    .findFirst()
+                    .orElseThrow();
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalStateException("No application JAR in " + FAST_STARTUP_DIRECTORY.toAbsolutePath()
+                    + ", build it with mvn -Pfast-startup package", e);
+        }
+
+        databaseDirectory = Files.createTempDirectory("shop-api-startup");
+        String databaseUrl = "jdbc:h2:file:" + databaseDirectory.resolve("shopdb") + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE";
+        BenchmarkApplication.createDatabase(databaseUrl, tableSize);
+
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+
+        // Same JVM as the benchmark; a CDS archive only loads on the JDK that recorded it
+        command = new ArrayList<>(List.of(ProcessHandle.current().info().command().orElse("java")));
+        if (mode.equals("aot-cds")) {
+            // Fail instead of silently starting without the archive
+            command.add("-XX:SharedArchiveFile=" + CDS_ARCHIVE);
+            command.add("-Xshare:on");
+        }
+        if (mode.startsWith("aot")) {
+            command.add("-Dspring.aot.enabled=true");
+        }
+        // H2 goes after the application: the archive only needs its class path to be a prefix
+        command.addAll(List.of("-cp", jar + File.pathSeparator + H2_JAR, "com.anup.shopapi.ShopApiApplication"));
+        if (!mode.equals("default")) {
+            command.add("--spring.profiles.active=fast-startup");
+        }
+        command.addAll(List.of(
+                "--server.port=" + port,
+                "--spring.datasource.url=" + databaseUrl,
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.sql.init.mode=never"));
+
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        firstRequest = URI.create("http://localhost:" + port + "/api/shops/1");
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteDatabase() throws IOException {
+        try (var files = Files.walk(databaseDirectory)) {
+            for (Path path : files.sorted((a, b) -> b.compareTo(a)).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public int startUntilFirstRequest() throws IOException, InterruptedException {
+        process = new ProcessBuilder(command)
+                .directory(FAST_STARTUP_DIRECTORY.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        HttpRequest request = HttpRequest.newBuilder(firstRequest).GET().build();
+        long deadline = System.currentTimeMillis() + STARTUP_TIMEOUT_MS;
+        while (System.currentTimeMillis() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with status " + process.exitValue()
+                        + ": " + String.join(" ", command));
+            }
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    return response.statusCode();
+                }
+            } catch (ConnectException e) {
+                // Not listening yet
+            }
+            Thread.sleep(POLL_INTERVAL_MS);
+        }
+        throw new IllegalStateException("No successful response within " + STARTUP_TIMEOUT_MS + " ms");
+    }
+
+    // Stop gracefully, so the H2 database file is closed before the next start
+    @TearDown(Level.Invocation)
+    public void stop() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+}
@@ -5,8 +5,10 @@ import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class ShopApiApplication {
     
     private static final Logger logger = LoggerFactory.getLogger(ShopApiApplication.class);
@@ -22,6 +24,9 @@ public class ShopApiApplication {
             logger.info("API Base URL: http://localhost:{}/api/shops", 
                 context.getEnvironment().getProperty("server.port", "8080"));
                 
+        } catch (SpringApplication.AbandonedRunException e) {
+            // Build-time AOT processing stops the run once the bean definitions are known
+            throw e;
         } catch (Exception e) {
             logger.error("Failed to start Shop API Application: {}", e.getMessage(), e);
             System.exit(1);
@@ -0,0 +1,77 @@
+package com.anup.shopapi.admission;
+
+/**
+ * Concurrency limit of one endpoint class, adjusted from the latency of its requests
+ * with a gradient: the ratio of the long-term average latency to the recent one.
+ * While recent latency stays within {@code tolerance} times the long-term average the
+ * limit grows by a fifth of its square root per sample; beyond that it shrinks in
+ * proportion to the slowdown, by up to a tenth per sample. The long-term average spans
+ * thousands of requests, so a slowdown keeps the limit down for a while before it becomes
+ * the new normal; the average drops back quickly once latency recovers. Only a busy class adjusts
+ * its limit: with fewer than half of its permits in use the latency says nothing about
+ * how much concurrency it can take.
+ * <p>
+ * Not thread-safe; {@link AdmissionLimiter} guards it with its lock.
+ */
+final class AdaptiveLimit {
+
+    // Weight of a new sample in the recent (about 10 requests) and long-term (about 5000) latency
+    private static final double SHORT_RTT_WEIGHT = 0.1;
+    private static final double LONG_RTT_WEIGHT = 0.0002;
+    // Weight of each new estimate in the limit
+    private static final double SMOOTHING = 0.2;
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final double minLimit;
+    private final double maxLimit;
+    private final double tolerance;
+
+    private double limit;
+    private double shortRtt;
+    private double longRtt;
+
+    AdaptiveLimit(int initialLimit, int minLimit, int maxLimit, double tolerance) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Admission limits must satisfy 1 <= min <= initial <= max");
+        }
+        if (tolerance < 1) {
+            throw new IllegalArgumentException("Admission latency tolerance must be at least 1");
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * @return Number of requests allowed in flight
+     */
+    int get() {
+        return (int) limit;
+    }
+
+    /**
+     * @param latencyNanos Time the completed request held its permit
+     * @param inflight Requests in flight when it completed, itself included
+     */
+    void onSample(long latencyNanos, int inflight) {
+        if (shortRtt == 0) {
+            shortRtt = latencyNanos;
+            longRtt = latencyNanos;
+            return;
+        }
+        shortRtt += (latencyNanos - shortRtt) * SHORT_RTT_WEIGHT;
+        longRtt += (latencyNanos - longRtt) * LONG_RTT_WEIGHT;
+        // Latency has dropped well below the long-term average (e.g. the database recovered): catch up faster
+        if (longRtt > 2 * shortRtt) {
+            longRtt *= 0.95;
+        }
+        // Too little traffic to tell whether more concurrency would help or hurt
+        if (inflight < limit / 2) {
+            return;
+        }
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, tolerance * longRtt / shortRtt));
+        double estimate = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + estimate * SMOOTHING));
+    }
+}
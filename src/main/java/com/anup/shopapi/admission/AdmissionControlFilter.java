@@ -0,0 +1,88 @@
+package com.anup.shopapi.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Passes each /api/shops request through the {@link AdmissionLimiter} before it reaches
+ * ShopController, and answers rejected ones with 503 and {@code Retry-After} without
+ * touching the database. The permit is held until the response is complete.
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "shop.admission.enabled", matchIfMissing = true)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionControlFilter.class);
+
+    private final AdmissionLimiter admissionLimiter;
+    private final ObjectMapper objectMapper;
+    private final String retryAfterSeconds;
+
+    @Autowired
+    public AdmissionControlFilter(AdmissionLimiter admissionLimiter,
+                                  ObjectMapper objectMapper,
+                                  @Value("${shop.admission.retry-after:PT1S}") Duration retryAfter) {
+        this.admissionLimiter = admissionLimiter;
+        this.objectMapper = objectMapper;
+        this.retryAfterSeconds = String.valueOf(Math.max(1, retryAfter.toSeconds()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        EndpointClass endpointClass = EndpointClass.classify(request.getMethod(), path);
+        if (endpointClass == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        AdmissionLimiter.Permit permit;
+        try {
+            permit = admissionLimiter.acquire(endpointClass);
+        } catch (AdmissionRejectedException e) {
+            logger.debug("Rejected {} {}: {}", request.getMethod(), path, e.getMessage());
+            reject(response, e.getMessage());
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reject(response, "Server is shutting down");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permit.release();
+        }
+    }
+
+    private void reject(HttpServletResponse response, String message) throws IOException {
+        Map<String, Object> body = new HashMap<>();
+        body.put("success", false);
+        body.put("message", message);
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
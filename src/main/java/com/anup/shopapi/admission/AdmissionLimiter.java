@@ -0,0 +1,236 @@
+package com.anup.shopapi.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Admission control for /api/shops: each {@link EndpointClass} has its own concurrency
+ * limit, adapted to its observed latency ({@link AdaptiveLimit}), so slow searches cannot
+ * take every database connection from point reads and writes.
+ * <p>
+ * A request over its class limit waits in a queue shared by all classes, bounded to
+ * {@code shop.admission.queue-size}, for at most {@code shop.admission.max-wait}
+ * ({@code low-priority-max-wait} for list and search). When the queue is full, a high-priority
+ * request displaces the most recently queued low-priority one; otherwise it is rejected.
+ * Waiting requests of a class are admitted in arrival order as its permits are released.
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "shop.admission.enabled", matchIfMissing = true)
+public class AdmissionLimiter {
+
+    private enum Status { WAITING, ADMITTED, DISPLACED }
+
+    private static final class Waiter {
+        private final Condition signal;
+        private final long enqueuedNanos = System.nanoTime();
+        private Status status = Status.WAITING;
+
+        Waiter(Condition signal) {
+            this.signal = signal;
+        }
+    }
+
+    private static final class ClassState {
+        private final EndpointClass endpointClass;
+        private final AdaptiveLimit limit;
+        private final ArrayDeque<Waiter> waiters = new ArrayDeque<>();
+        private final Map<AdmissionRejectedException.Reason, Counter> rejections =
+                new EnumMap<>(AdmissionRejectedException.Reason.class);
+        private int inflight;
+
+        ClassState(EndpointClass endpointClass, AdaptiveLimit limit) {
+            this.endpointClass = endpointClass;
+            this.limit = limit;
+        }
+    }
+
+    /**
+     * Admission of one request; release it exactly once when the request completes
+     */
+    public final class Permit {
+        private final ClassState state;
+        private final long startNanos = System.nanoTime();
+        private boolean released;
+
+        private Permit(ClassState state) {
+            this.state = state;
+        }
+
+        public void release() {
+            long latencyNanos = System.nanoTime() - startNanos;
+            lock.lock();
+            try {
+                if (released) {
+                    return;
+                }
+                released = true;
+                state.limit.onSample(latencyNanos, state.inflight);
+                state.inflight--;
+                admitWaiters(state);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<EndpointClass, ClassState> classes = new EnumMap<>(EndpointClass.class);
+    private final int queueSize;
+    private final long maxWaitNanos;
+    private final long lowPriorityMaxWaitNanos;
+    private int queued;
+
+    @Autowired
+    public AdmissionLimiter(MeterRegistry meterRegistry,
+                               @Value("${shop.admission.initial-limit:20}") int initialLimit,
+                               @Value("${shop.admission.min-limit:2}") int minLimit,
+                               @Value("${shop.admission.max-limit:200}") int maxLimit,
+                               @Value("${shop.admission.tolerance:1.5}") double tolerance,
+                               @Value("${shop.admission.queue-size:100}") int queueSize,
+                               @Value("${shop.admission.max-wait:PT1S}") Duration maxWait,
+                               @Value("${shop.admission.low-priority-max-wait:PT0.2S}") Duration lowPriorityMaxWait) {
+        this.queueSize = queueSize;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.lowPriorityMaxWaitNanos = lowPriorityMaxWait.toNanos();
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            ClassState state = new ClassState(endpointClass,
+                    new AdaptiveLimit(initialLimit, minLimit, maxLimit, tolerance));
+            classes.put(endpointClass, state);
+            Gauge.builder("shop.admission.limit", state, locked(s -> s.limit.get()))
+                    .description("Concurrency limit of the endpoint class")
+                    .tag("class", endpointClass.getTag())
+                    .register(meterRegistry);
+            Gauge.builder("shop.admission.inflight", state, locked(s -> s.inflight))
+                    .description("Admitted requests of the endpoint class still in progress")
+                    .tag("class", endpointClass.getTag())
+                    .register(meterRegistry);
+            Gauge.builder("shop.admission.queued", state, locked(s -> s.waiters.size()))
+                    .description("Requests of the endpoint class waiting to be admitted")
+                    .tag("class", endpointClass.getTag())
+                    .register(meterRegistry);
+            for (AdmissionRejectedException.Reason reason : AdmissionRejectedException.Reason.values()) {
+                state.rejections.put(reason, Counter.builder("shop.admission.rejections")
+                        .description("Requests answered with 503 instead of being admitted")
+                        .tag("class", endpointClass.getTag())
+                        .tag("reason", reason.getTag())
+                        .register(meterRegistry));
+            }
+        }
+    }
+
+    /**
+     * Admit a request, waiting for a permit if its class is at its limit
+     * @param endpointClass Class of the request
+     * @return Permit to release when the request completes
+     * @throws AdmissionRejectedException if the queue is full, the wait times out or the
+     *         request is displaced by a higher-priority one
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Permit acquire(EndpointClass endpointClass) throws InterruptedException {
+        ClassState state = classes.get(endpointClass);
+        lock.lock();
+        try {
+            if (state.waiters.isEmpty() && state.inflight < state.limit.get()) {
+                state.inflight++;
+                return new Permit(state);
+            }
+            if (queued >= queueSize && !(endpointClass.isHighPriority() && displaceLowPriorityWaiter())) {
+                throw reject(state, AdmissionRejectedException.Reason.QUEUE_FULL);
+            }
+            Waiter waiter = new Waiter(lock.newCondition());
+            state.waiters.addLast(waiter);
+            queued++;
+            long remainingNanos = endpointClass.isHighPriority() ? maxWaitNanos : lowPriorityMaxWaitNanos;
+            try {
+                while (waiter.status == Status.WAITING && remainingNanos > 0) {
+                    remainingNanos = waiter.signal.awaitNanos(remainingNanos);
+                }
+            } catch (InterruptedException e) {
+                if (waiter.status == Status.ADMITTED) {
+                    // Admitted just as the wait was interrupted: hand the permit on
+                    state.inflight--;
+                    admitWaiters(state);
+                } else if (waiter.status == Status.WAITING) {
+                    state.waiters.remove(waiter);
+                    queued--;
+                }
+                throw e;
+            }
+            switch (waiter.status) {
+                case ADMITTED -> {
+                    return new Permit(state);
+                }
+                case DISPLACED -> throw reject(state, AdmissionRejectedException.Reason.DISPLACED);
+                default -> {
+                    state.waiters.remove(waiter);
+                    queued--;
+                    throw reject(state, AdmissionRejectedException.Reason.TIMEOUT);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Admit waiting requests of the class while it has permits left; caller holds the lock
+    private void admitWaiters(ClassState state) {
+        while (!state.waiters.isEmpty() && state.inflight < state.limit.get()) {
+            Waiter waiter = state.waiters.pollFirst();
+            queued--;
+            state.inflight++;
+            waiter.status = Status.ADMITTED;
+            waiter.signal.signal();
+        }
+    }
+
+    // Drop the most recently queued list or search request to make room; caller holds the lock
+    private boolean displaceLowPriorityWaiter() {
+        ClassState newest = null;
+        for (ClassState state : classes.values()) {
+            if (!state.endpointClass.isHighPriority() && !state.waiters.isEmpty()
+                    && (newest == null || state.waiters.peekLast().enqueuedNanos - newest.waiters.peekLast().enqueuedNanos > 0)) {
+                newest = state;
+            }
+        }
+        if (newest == null) {
+            return false;
+        }
+        Waiter waiter = newest.waiters.pollLast();
+        queued--;
+        waiter.status = Status.DISPLACED;
+        waiter.signal.signal();
+        return true;
+    }
+
+    private AdmissionRejectedException reject(ClassState state, AdmissionRejectedException.Reason reason) {
+        state.rejections.get(reason).increment();
+        return new AdmissionRejectedException(state.endpointClass, reason);
+    }
+
+    // Gauge value read under the lock, which guards all class state
+    private ToDoubleFunction<ClassState> locked(ToDoubleFunction<ClassState> value) {
+        return state -> {
+            lock.lock();
+            try {
+                return value.applyAsDouble(state);
+            } finally {
+                lock.unlock();
+            }
+        };
+    }
+}
@@ -0,0 +1,43 @@
+package com.anup.shopapi.admission;
+
+/**
+ * Thrown when a request is not admitted and should be answered with 503
+ */
+public class AdmissionRejectedException extends RuntimeException {
+
+    /**
+     * Why a request was rejected, as tagged on the rejection counter
+     */
+    public enum Reason {
+        QUEUE_FULL("queue-full"),
+        TIMEOUT("timeout"),
+        DISPLACED("displaced");
+
+        private final String tag;
+
+        Reason(String tag) {
+            this.tag = tag;
+        }
+
+        public String getTag() {
+            return tag;
+        }
+    }
+
+    private final EndpointClass endpointClass;
+    private final Reason reason;
+
+    public AdmissionRejectedException(EndpointClass endpointClass, Reason reason) {
+        super("Server is busy, " + endpointClass.getTag() + " request not admitted (" + reason.getTag() + ")");
+        this.endpointClass = endpointClass;
+        this.reason = reason;
+    }
+
+    public EndpointClass getEndpointClass() {
+        return endpointClass;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,71 @@
+package com.anup.shopapi.admission;
+
+/**
+ * Classes of /api/shops requests that get their own concurrency limit.
+ * Point reads, suggestions and writes are high priority: when the wait queue is
+ * full they displace waiting list and search requests, which also wait less long.
+ * Suggestions are answered from memory in microseconds, so they are kept apart from
+ * searches: a slow search lowering its own limit must not throttle type-ahead.
+ */
+public enum EndpointClass {
+    POINT_READ("point-read", true),
+    SUGGEST("suggest", true),
+    WRITE("write", true),
+    LIST("list", false),
+    SEARCH("search", false);
+
+    private static final String BASE_PATH = "/api/shops";
+
+    private final String tag;
+    private final boolean highPriority;
+
+    EndpointClass(String tag, boolean highPriority) {
+        this.tag = tag;
+        this.highPriority = highPriority;
+    }
+
+    /**
+     * @return Value of the class tag on the admission metrics
+     */
+    public String getTag() {
+        return tag;
+    }
+
+    public boolean isHighPriority() {
+        return highPriority;
+    }
+
+    /**
+     * @param method HTTP method
+     * @param path Request path without the context path
+     * @return Class of the request, or null if it is not admission-controlled: paths outside
+     *         /api/shops, the count (served from memory) and the long-lived export and event streams
+     */
+    public static EndpointClass classify(String method, String path) {
+        if (!path.startsWith(BASE_PATH)) {
+            return null;
+        }
+        String subPath = path.substring(BASE_PATH.length());
+        if (!subPath.isEmpty() && !subPath.startsWith("/")) {
+            return null;
+        }
+        switch (method) {
+            case "GET", "HEAD" -> {
+                return switch (subPath) {
+                    case "", "/", "/changes", "/nearby" -> LIST;
+                    case "/search" -> SEARCH;
+                    case "/suggest" -> SUGGEST;
+                    case "/count", "/export", "/stream" -> null;
+                    // /{id}, /by-email, /by-phone
+                    default -> POINT_READ;
+                };
+            }
+            case "POST", "PUT", "PATCH", "DELETE" -> {
+                return WRITE;
+            }
+            default -> {
+                return null;
+            }
+        }
+    }
+}
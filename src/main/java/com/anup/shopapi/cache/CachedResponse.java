@@ -0,0 +1,86 @@
+package com.anup.shopapi.cache;
+
+/**
+ * A fully serialized JSON response body with its strong ETag and,
+ * for bodies large enough to be worth it, a gzip-encoded copy.
+ */
+public class CachedResponse {
+
+    private static final String GZIP_SUFFIX = "-gzip";
+
+    private final String etag;
+    private final byte[] body;
+    private final byte[] gzipBody;
+
+    /**
+     * @param etag Quoted strong entity tag for the identity-encoded body
+     * @param body Serialized JSON
+     * @param gzipBody Gzip-encoded body, or null if the body is not compressed
+     */
+    public CachedResponse(String etag, byte[] body, byte[] gzipBody) {
+        this.etag = etag;
+        this.body = body;
+        this.gzipBody = gzipBody;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    /**
+     * Content codings must not share a strong ETag, so the gzip variant gets its own
+     */
+    public String getGzipEtag() {
+        return etag.substring(0, etag.length() - 1) + GZIP_SUFFIX + "\"";
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public byte[] getGzipBody() {
+        return gzipBody;
+    }
+
+    public boolean hasGzipBody() {
+        return gzipBody != null;
+    }
+
+    /**
+     * @return Bytes held by this entry
+     */
+    public long size() {
+        return body.length + (gzipBody == null ? 0 : gzipBody.length);
+    }
+
+    /**
+     * @param ifNoneMatch Value of the If-None-Match request header, may be null
+     * @return true if the header lists either variant of this entry's ETag, or is "*"
+     */
+    public boolean matches(String ifNoneMatch) {
+        return matches(ifNoneMatch, etag);
+    }
+
+    /**
+     * @param ifNoneMatch Value of the If-None-Match request header, may be null
+     * @param etag Quoted identity ETag; its gzip variant also matches
+     * @return true if the header lists either variant of the ETag, or is "*"
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String gzipEtag = etag.substring(0, etag.length() - 1) + GZIP_SUFFIX + "\"";
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            // If-None-Match uses weak comparison
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag) || tag.equals(gzipEtag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,294 @@
+package com.anup.shopapi.cache;
+
+import com.anup.shopapi.datasource.ReplicaRoutingDataSource;
+import com.anup.shopapi.entity.Shop;
+import com.anup.shopapi.event.ShopChangedEvent;
+import com.anup.shopapi.service.ShopChangePage;
+import com.anup.shopapi.service.ShopChange;
+import com.anup.shopapi.service.ShopChangesExpiredException;
+import com.anup.shopapi.service.ShopCursor;
+import com.anup.shopapi.service.ShopService;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Byte-bounded LRU cache of serialized GET responses, plus the catalog version
+ * that list ETags are derived from.
+ * <p>
+ * The version is derived from the position of the last change read from the
+ * change feed, so every instance that has read the feed up to the same point
+ * hands out the same list ETags. Writes committed elsewhere (other instances, the
+ * reactive stack, SQL that sets updated_date) send no event here. They are read
+ * from the feed on the primary every {@code shop.response-cache.check-interval},
+ * which moves the version and drops the changed shops' entries and all list
+ * entries, together with the shops' second-level cache entries and cached queries,
+ * which responses are built from.
+ * <p>
+ * A write committed by this instance drops its entries at once and moves the
+ * version ahead of the feed, by the number of such writes the feed has not
+ * returned yet. Once the feed has passed them, the version is the feed's again
+ * and the entries are dropped once more. A response is only stored if the version
+ * did not move while it was being built, so an entry can never hold data older
+ * than the last invalidation.
+ */
+@Component
+@Profile("!reactive")
+public class ShopResponseCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShopResponseCache.class);
+
+    private static final String SHOP_KEY_PREFIX = "shop:";
+    private static final String LIST_KEY_PREFIX = "list:";
+    // Largest page the change feed returns
+    private static final int CHANGES_PAGE_SIZE = 500;
+
+    private final ShopService shopService;
+    private final Cache secondLevelCache;
+    private final boolean enabled;
+    private final long maxBytes;
+    private final int gzipMinSize;
+
+    private final Lock lock = new ReentrantLock();
+    private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+    private volatile long version;
+    // Change feed position the next check starts from
+    private volatile String changesCursor;
+    // Last change read from the feed, which the version is derived from
+    private ShopCursor.ChangePosition lastChange;
+    // Writes committed here since the feed was last read past them, and when the latest one committed
+    private long localWrites;
+    private LocalDateTime lastLocalWrite;
+
+    public ShopResponseCache(ShopService shopService,
+                             EntityManagerFactory entityManagerFactory,
+                             @Value("${shop.response-cache.enabled:true}") boolean enabled,
+                             @Value("${shop.response-cache.max-size:64MB}") DataSize maxSize,
+                             @Value("${shop.response-cache.gzip-min-size:1024}") int gzipMinSize) {
+        this.shopService = shopService;
+        this.secondLevelCache = entityManagerFactory.getCache();
+        this.changesCursor = shopService.getChangesCursor(LocalDateTime.now());
+        this.lastChange = shopService.getLastChangeBefore(changesCursor);
+        this.version = versionOf(lastChange);
+        this.enabled = enabled;
+        this.maxBytes = maxSize.toBytes();
+        this.gzipMinSize = gzipMinSize;
+    }
+
+    public static String shopKey(Long id) {
+        return SHOP_KEY_PREFIX + id;
+    }
+
+    public static String listKey(long version, String... parameters) {
+        return LIST_KEY_PREFIX + version + ":" + String.join(":", parameters);
+    }
+
+    /**
+     * @return Version of the whole catalog; changes after every committed write, and
+     *         is the same on every instance once they have read the change feed as far
+     */
+    public long currentVersion() {
+        return version;
+    }
+
+    /**
+     * @param key Cache key
+     * @return Cached response, or null
+     */
+    public CachedResponse get(String key) {
+        if (!enabled) {
+            return null;
+        }
+        lock.lock();
+        try {
+            return entries.get(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Build a cached response from a serialized body and store it, unless a write
+     * has committed since versionAtStart (the body may then be stale).
+     * @param key Cache key
+     * @param etag Quoted strong ETag for the body
+     * @param body Serialized JSON
+     * @param versionAtStart {@link #currentVersion()} read before the data was loaded
+     * @return The response, whether or not it was stored
+     */
+    public CachedResponse store(String key, String etag, byte[] body, long versionAtStart) {
+        CachedResponse response = new CachedResponse(etag, body, body.length >= gzipMinSize ? gzip(body) : null);
+        if (!enabled || response.size() > maxBytes) {
+            return response;
+        }
+        lock.lock();
+        try {
+            if (version != versionAtStart) {
+                return response;
+            }
+            CachedResponse previous = entries.put(key, response);
+            if (previous != null) {
+                totalBytes -= previous.size();
+            }
+            totalBytes += response.size();
+            evictToBudget();
+        } finally {
+            lock.unlock();
+        }
+        return response;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onShopChanged(ShopChangedEvent event) {
+        lock.lock();
+        try {
+            localWrites++;
+            lastLocalWrite = LocalDateTime.now();
+            version = versionOf(lastChange) + localWrites;
+            invalidate(Set.of(event.getShopId()));
+        } finally {
+            lock.unlock();
+        }
+        logger.debug("Response cache invalidated for {}", event);
+    }
+
+    /**
+     * Invalidate shops changed in the database since the last check, including by writes
+     * this instance did not make. Runs on a fixed delay, configured by
+     * {@code shop.response-cache.check-interval}.
+     */
+    @Scheduled(initialDelayString = "${shop.response-cache.check-interval:PT10S}",
+               fixedDelayString = "${shop.response-cache.check-interval:PT10S}")
+    public void checkForChanges() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Set<Long> changed = new HashSet<>();
+            ShopCursor.ChangePosition last = null;
+            String cursor = changesCursor;
+            ShopChangePage page;
+            do {
+                String since = cursor;
+                // Read on the primary: a lagging replica would hide the change
+                page = ReplicaRoutingDataSource.onPrimary(() -> shopService.getChanges(since, CHANGES_PAGE_SIZE));
+                for (ShopChange change : page.getChanges()) {
+                    changed.add(change.getId());
+                    last = new ShopCursor.ChangePosition(change.getChangedAt(), change.getId());
+                }
+                cursor = page.getNextCursor();
+            } while (page.hasMore());
+            if (!changed.isEmpty()) {
+                // Before the version moves, so responses built after it read the shops afresh
+                changed.forEach(id -> secondLevelCache.evict(Shop.class, id));
+                secondLevelCache.unwrap(org.hibernate.Cache.class).evictQueryRegions();
+            }
+            // Caught up, so the cursor is at the horizon: every write committed before it has been read
+            LocalDateTime horizon = ShopCursor.decodeChange(cursor).changedAt();
+            lock.lock();
+            try {
+                if (last != null) {
+                    lastChange = last;
+                }
+                if (lastLocalWrite != null && !lastLocalWrite.isAfter(horizon)) {
+                    localWrites = 0;
+                    lastLocalWrite = null;
+                }
+                long previous = version;
+                version = versionOf(lastChange) + localWrites;
+                if (!changed.isEmpty() || version != previous) {
+                    invalidate(changed);
+                    logger.debug("Response cache invalidated for {} shops changed in the database", changed.size());
+                }
+            } finally {
+                lock.unlock();
+            }
+            changesCursor = cursor;
+        } catch (ShopChangesExpiredException e) {
+            logger.warn("Response cache fell behind the change feed retention, dropping it");
+            secondLevelCache.evict(Shop.class);
+            secondLevelCache.unwrap(org.hibernate.Cache.class).evictQueryRegions();
+            changesCursor = shopService.getChangesCursor(LocalDateTime.now());
+            ShopCursor.ChangePosition last = shopService.getLastChangeBefore(changesCursor);
+            lock.lock();
+            try {
+                lastChange = last;
+                version = versionOf(lastChange) + localWrites;
+                entries.clear();
+                totalBytes = 0;
+            } finally {
+                lock.unlock();
+            }
+        } catch (Exception e) {
+            logger.error("Failed to check the database for shop changes: {}", e.getMessage(), e);
+        }
+    }
+
+    // Called with the lock held, after the version has moved
+    private void invalidate(Set<Long> shopIds) {
+        shopIds.forEach(id -> remove(shopKey(id)));
+        Iterator<Map.Entry<String, CachedResponse>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, CachedResponse> entry = iterator.next();
+            if (entry.getKey().startsWith(LIST_KEY_PREFIX)) {
+                totalBytes -= entry.getValue().size();
+                iterator.remove();
+            }
+        }
+    }
+
+    // Same position, same version, whichever instance read it
+    private static long versionOf(ShopCursor.ChangePosition position) {
+        LocalDateTime changedAt = position.changedAt();
+        long nanos = changedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + changedAt.getNano();
+        return 31 * nanos + position.id();
+    }
+
+    private void remove(String key) {
+        CachedResponse previous = entries.remove(key);
+        if (previous != null) {
+            totalBytes -= previous.size();
+        }
+    }
+
+    private void evictToBudget() {
+        Iterator<CachedResponse> eldest = entries.values().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            totalBytes -= eldest.next().size();
+            eldest.remove();
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to gzip response body", e);
+        }
+        return out.toByteArray();
+    }
+}
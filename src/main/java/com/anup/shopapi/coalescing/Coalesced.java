@@ -0,0 +1,18 @@
+package com.anup.shopapi.coalescing;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a read-only bean method whose concurrent calls with equal arguments share one
+ * execution (see {@link RequestCoalescer}). Every caller gets the same result object,
+ * so callers must not modify it. Arguments must implement equals and hashCode.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Coalesced {
+}
@@ -0,0 +1,131 @@
+package com.anup.shopapi.coalescing;
+
+import com.anup.shopapi.event.ShopChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Single-flight execution of {@link Coalesced} methods: while a call is in progress, callers
+ * with equal arguments wait for it and share its result, or its exception, instead of running
+ * the same query again. Nothing is kept once the call completes, so the next caller runs it
+ * afresh. A caller waits at most {@code shop.coalescing.max-wait}, then runs the call itself.
+ * <p>
+ * Runs outside the transaction advice, so waiting callers hold no database connection, and
+ * the shared result is detached once the leader's transaction has ended (open-in-view is off).
+ * Calls made inside a caller's transaction are not coalesced: their result would stay managed
+ * by that caller's persistence context.
+ * After a shop change commits, calls already in progress only serve the callers that joined
+ * them, so no request that starts after a write sees data read before it.
+ * <p>
+ * Every call is counted as shop.coalescing.calls{method, role}: {@code leader} (ran the method),
+ * {@code follower} (shared a leader's result) or {@code timeout} (gave up waiting and ran it).
+ */
+@Aspect
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "shop.coalescing.enabled", matchIfMissing = true)
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestCoalescer {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestCoalescer.class);
+
+    private record CallKey(Method method, List<Object> arguments) {
+    }
+
+    private final ConcurrentMap<CallKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final long maxWaitNanos;
+
+    @Autowired
+    public RequestCoalescer(MeterRegistry meterRegistry,
+                            @Value("${shop.coalescing.max-wait:PT2S}") Duration maxWait) {
+        this.meterRegistry = meterRegistry;
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+    @Around("@annotation(com.anup.shopapi.coalescing.Coalesced)")
+    public Object coalesce(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        CallKey key = new CallKey(method, Arrays.asList(joinPoint.getArgs()));
+        CompletableFuture<Object> call = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(key, call);
+
+        if (leader == null) {
+            count(method, "leader");
+            try {
+                Object result = joinPoint.proceed();
+                inFlight.remove(key, call);
+                call.complete(result);
+                return result;
+            } catch (Throwable e) {
+                // Failures are shared with the callers already waiting, never with later ones
+                inFlight.remove(key, call);
+                call.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        try {
+            Object result = leader.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+            count(method, "follower");
+            return result;
+        } catch (ExecutionException e) {
+            count(method, "follower");
+            throw e.getCause();
+        } catch (TimeoutException e) {
+            logger.debug("Gave up waiting for in-flight {}{}, running it directly", method.getName(), key.arguments());
+            count(method, "timeout");
+            return joinPoint.proceed();
+        }
+    }
+
+    /**
+     * Detach the calls in progress, which may have read the shop before the change. Runs before
+     * the other after-commit listeners, so callers that see their effects (e.g. the response cache
+     * version) cannot join a call that started before the change.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onShopChanged(ShopChangedEvent event) {
+        inFlight.clear();
+    }
+
+    private void count(Method method, String role) {
+        Counter.builder("shop.coalescing.calls")
+                .description("Calls of coalesced methods by whether they ran, shared or gave up waiting")
+                .tag("method", method.getName())
+                .tag("role", role)
+                .register(meterRegistry)
+                .increment();
+    }
+}
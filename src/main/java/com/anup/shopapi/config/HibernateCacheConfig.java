@@ -0,0 +1,89 @@
+package com.anup.shopapi.config;
+
+import com.anup.shopapi.entity.Shop;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level cache on JCache, backed by Caffeine.
+ * <p>
+ * Regions are created here rather than in a provider config file so their size
+ * and time-to-live come from application properties. Hibernate keeps the entity
+ * region and the query cache consistent with writes made through JPA: entity
+ * updates and deletes replace or evict the cached entry, and any write to the
+ * shops table invalidates cached query results via the update-timestamps region.
+ */
+@Configuration
+@Profile("!reactive")
+public class HibernateCacheConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(HibernateCacheConfig.class);
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${shop.cache.entity.max-size:10000}") long entityMaxSize,
+            @Value("${shop.cache.entity.ttl:10m}") Duration entityTtl,
+            @Value("${shop.cache.query.max-size:1000}") long queryMaxSize,
+            @Value("${shop.cache.query.ttl:5m}") Duration queryTtl) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        // A manager of its own rather than the provider's default one, which is shared by
+        // every application context in the JVM (tests start several) and would already hold the regions
+        URI uri = URI.create(provider.getDefaultURI() + "#" + UUID.randomUUID());
+        CacheManager cacheManager = provider.getCacheManager(uri, getClass().getClassLoader());
+
+        cacheManager.createCache(Shop.CACHE_REGION, region(entityMaxSize, entityTtl));
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, region(queryMaxSize, queryTtl));
+        // Update timestamps must never be evicted or expired, or stale query results could be served
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, region(null, null));
+
+        logger.info("Second-level cache regions created: entity max {} / ttl {}, query max {} / ttl {}",
+                entityMaxSize, entityTtl, queryMaxSize, queryTtl);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(
+            CacheManager hibernateCacheManager,
+            @Value("${shop.cache.statistics.enabled:true}") boolean statisticsEnabled) {
+        return properties -> {
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            // Every region is created above; fail fast on a typo instead of creating an unbounded one
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            properties.put(AvailableSettings.GENERATE_STATISTICS, statisticsEnabled);
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(Long maxSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setTypes(Object.class, Object.class);
+        // Hibernate already stores disassembled entries, so skip JCache's copy-on-read/write
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        configuration.setManagementEnabled(true);
+        if (maxSize != null) {
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+        }
+        if (ttl != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        }
+        return configuration;
+    }
+}
@@ -0,0 +1,88 @@
+package com.anup.shopapi.config;
+
+import com.anup.shopapi.datasource.ReplicaRoutingDataSource;
+import com.anup.shopapi.datasource.ReplicaSelection;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read/write splitting between the primary database and read replicas, enabled by
+ * setting {@code shop.datasource.replica.urls}.
+ * <p>
+ * Replaces the auto-configured DataSource with a {@link ReplicaRoutingDataSource}:
+ * read-only transactions run on a replica, everything else on the primary. Replica
+ * pools take the same {@code spring.datasource.hikari} settings as the primary and
+ * open read-only connections, so a write routed to a replica by mistake fails
+ * instead of diverging from the primary.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty("shop.datasource.replica.urls")
+public class ReadReplicaConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadReplicaConfig.class);
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            DataSourceProperties properties,
+            Environment environment,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${shop.datasource.replica.urls}") String[] urls,
+            @Value("${shop.datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${shop.datasource.replica.password:${spring.datasource.password:}}") String password,
+            @Value("${shop.datasource.replica.selection:round-robin}") ReplicaSelection selection,
+            @Value("${shop.datasource.replica.max-lag:PT5S}") Duration maxLag) {
+        List<HikariDataSource> replicas = new ArrayList<>(urls.length);
+        for (int i = 0; i < urls.length; i++) {
+            HikariDataSource replica = properties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(urls[i].strip())
+                    .username(username)
+                    .password(password)
+                    .build();
+            Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(replica));
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setReadOnly(true);
+            meterRegistry.ifAvailable(registry -> replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            replicas.add(replica);
+        }
+        logger.info("Routing read-only transactions to {} replicas ({}, max lag {})", replicas.size(), selection, maxLag);
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, selection, maxLag);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,64 @@
+package com.anup.shopapi.config;
+
+import com.anup.shopapi.entity.Shop;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves the pooled Shop ID generator past every existing shop ID on startup.
+ * <p>
+ * Shop IDs used to come from AUTO_INCREMENT, and rows may still be inserted
+ * outside the application (e.g. data.sql). The pooled optimizer hands out the
+ * block ending at the stored value, so the stored value must be at least
+ * MAX(id) + allocation size + 1. The update only ever raises the value, so it
+ * is a no-op once the generator is ahead and is safe to run on every instance.
+ * Runs after the EntityManagerFactory has applied schema updates and before
+ * the web server accepts requests.
+ */
+@Component
+@Profile("!reactive")
+public class ShopIdGeneratorAligner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShopIdGeneratorAligner.class);
+
+    private static final String ALIGN_SQL =
+            "UPDATE " + Shop.ID_GENERATOR_TABLE + " SET next_val = GREATEST(next_val, " +
+            "(SELECT COALESCE(MAX(id), 0) + ? FROM shops)) WHERE sequence_name = ?";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO " + Shop.ID_GENERATOR_TABLE + " (sequence_name, next_val) " +
+            "SELECT ?, COALESCE(MAX(id), 0) + ? FROM shops";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ShopIdGeneratorAligner(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        // The EntityManagerFactory is only a dependency so the schema exists before we run
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void align() {
+        int headroom = Shop.ID_ALLOCATION_SIZE + 1;
+        int updated = jdbcTemplate.update(ALIGN_SQL, headroom, Shop.ID_GENERATOR_ROW);
+        if (updated == 0) {
+            try {
+                jdbcTemplate.update(INSERT_SQL, Shop.ID_GENERATOR_ROW, headroom);
+            } catch (DuplicateKeyException e) {
+                // Another instance created the row first; make sure it is ahead
+                jdbcTemplate.update(ALIGN_SQL, headroom, Shop.ID_GENERATOR_ROW);
+            }
+        }
+        Long nextValue = jdbcTemplate.queryForObject(
+                "SELECT next_val FROM " + Shop.ID_GENERATOR_TABLE + " WHERE sequence_name = ?",
+                Long.class, Shop.ID_GENERATOR_ROW);
+        logger.info("Shop ID generator aligned, next block ends at {}", nextValue);
+    }
+}
@@ -1,7 +1,26 @@
 package com.anup.shopapi.controller;
 
+import com.anup.shopapi.cache.CachedResponse;
+import com.anup.shopapi.cache.ShopResponseCache;
 import com.anup.shopapi.entity.Shop;
+import com.anup.shopapi.format.ResponseFormat;
+import com.anup.shopapi.format.ShopResponseEncoder;
+import com.anup.shopapi.groupcommit.GroupCommitQueueFullException;
+import com.anup.shopapi.groupcommit.ShopGroupCommitter;
+import com.anup.shopapi.index.ShopSuggestion;
+import com.anup.shopapi.repository.ShopField;
+import com.anup.shopapi.service.NearbyShop;
+import com.anup.shopapi.service.ShopBatchResult;
+import com.anup.shopapi.service.ShopChangePage;
+import com.anup.shopapi.service.ShopChangesExpiredException;
+import com.anup.shopapi.service.ShopDuplicateException;
+import com.anup.shopapi.service.ShopPage;
+import com.anup.shopapi.service.ShopPatch;
 import com.anup.shopapi.service.ShopService;
+import com.anup.shopapi.service.ShopVersionConflictException;
+import com.anup.shopapi.stream.ShopEventStream;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,17 +32,30 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/shops")
 @CrossOrigin(origins = "*")
 @Tag(name = "Shop Management", description = "APIs for managing shops with full CRUD operations")
@@ -31,46 +63,96 @@ public class ShopController {
     
     private static final Logger logger = LoggerFactory.getLogger(ShopController.class);
     
+    private static final String NDJSON_VALUE = "application/x-ndjson";
+    private static final int EXPORT_FLUSH_INTERVAL = 500;
+    private static final String SHOP_ETAG_PREFIX = "shop-";
+    private static final String SHOP_ETAG_VERSION = "-v";
+    // The list body depends on both the format and the content coding
+    private static final String[] LIST_VARY = {HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING};
+    // The group-commit queue drains within milliseconds once the database keeps up
+    private static final String GROUP_COMMIT_RETRY_AFTER_SECONDS = "1";
+    
     private final ShopService shopService;
+    private final ObjectMapper objectMapper;
+    private final ShopResponseCache responseCache;
+    private final ShopEventStream eventStream;
+    private final ShopResponseEncoder responseEncoder;
+    // Null unless shop.group-commit.enabled
+    private final ShopGroupCommitter groupCommitter;
     
     @Autowired
-    public ShopController(ShopService shopService) {
+    public ShopController(ShopService shopService, ObjectMapper objectMapper, ShopResponseCache responseCache,
+                          ShopEventStream eventStream, ShopResponseEncoder responseEncoder,
+                          ObjectProvider<ShopGroupCommitter> groupCommitter) {
         this.shopService = shopService;
+        this.objectMapper = objectMapper;
+        this.responseCache = responseCache;
+        this.eventStream = eventStream;
+        this.responseEncoder = responseEncoder;
+        this.groupCommitter = groupCommitter.getIfAvailable();
     }
     
     /**
-     * GET /api/shops - Retrieve all shops
-     * @return ResponseEntity with list of all shops
+     * GET /api/shops?after={cursor}&limit={n} - Retrieve shops one page at a time
+     * @param after Opaque cursor from the previous page
+     * @param limit Maximum number of shops to return
+     * @param fields Comma-separated fields to return, or null for whole shops
+     * @return ResponseEntity with one page of shops and the next cursor
      */
     @Operation(
             summary = "Get all shops",
-            description = "Retrieve a list of all shops from the database with their complete details including ID, name, address, phone, email, and timestamps."
+            description = "Retrieve shops ordered by ID, one page at a time. Pass the returned nextCursor as 'after' to fetch the next page; nextCursor is null on the last page. The page size is capped by the server. Pass 'fields' (e.g. id,name) to return only those fields; the ID is always included. Responses carry an ETag; send it back in If-None-Match to get 304 Not Modified while no shop has changed. Send Accept: application/cbor, application/x-jackson-smile or application/x-protobuf for a binary encoding of the same response."
     )
     @ApiResponses(value = {
             @ApiResponse(
                     responseCode = "200",
                     description = "Successfully retrieved all shops",
+                    content = {
+                            @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = Map.class),
+                                    examples = @ExampleObject(
+                                            name = "Successful Response",
+                                            value = """
+                                                    {
+                                                      "success": true,
+                                                      "message": "Shops retrieved successfully",
+                                                      "data": [
+                                                        {
+                                                          "id": 1,
+                                                          "name": "Tech World Electronics",
+                                                          "address": "123 Main Street, Downtown, City",
+                                                          "phone": "+1-555-0101",
+                                                          "email": "info@techworld.com",
+                                                          "createdDate": "2025-06-13T21:46:19",
+                                                          "updatedDate": "2025-06-13T21:46:19"
+                                                        }
+                                                      ],
+                                                      "count": 1,
+                                                      "limit": 50,
+                                                      "nextCursor": "aWQ6MQ"
+                                                    }
+                                                    """
+                                    )
+                            ),
+                            @Content(mediaType = "application/cbor"),
+                            @Content(mediaType = "application/x-jackson-smile"),
+                            @Content(mediaType = "application/x-protobuf", schema = @Schema(description = "ShopListResponse from shop.proto"))
+                    }
+            ),
+            @ApiResponse(responseCode = "406", description = "None of the accepted media types is supported"),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid cursor, limit or field",
                     content = @Content(
                             mediaType = "application/json",
-                            schema = @Schema(implementation = Map.class),
                             examples = @ExampleObject(
-                                    name = "Successful Response",
+                                    name = "Invalid Cursor",
                                     value = """
                                             {
-                                              "success": true,
-                                              "message": "Shops retrieved successfully",
-                                              "data": [
-                                                {
-                                                  "id": 1,
-                                                  "name": "Tech World Electronics",
-                                                  "address": "123 Main Street, Downtown, City",
-                                                  "phone": "+1-555-0101",
-                                                  "email": "info@techworld.com",
-                                                  "createdDate": "2025-06-13T21:46:19",
-                                                  "updatedDate": "2025-06-13T21:46:19"
-                                                }
-                                              ],
-                                              "count": 10
+                                              "success": false,
+                                              "message": "Invalid cursor: abc",
+                                              "data": null
                                             }
                                             """
                             )
@@ -95,19 +177,65 @@ public class ShopController {
             )
     })
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getAllShops() {
+    public ResponseEntity<?> getAllShops(
+            @Parameter(description = "Opaque cursor returned as nextCursor by the previous page")
+            @RequestParam(value = "after", required = false) String after,
+            @Parameter(description = "Maximum number of shops to return", example = "50")
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @Parameter(description = "Comma-separated fields to return (id, name, address, phone, email, latitude, longitude, createdDate, updatedDate)", example = "id,name")
+            @RequestParam(value = "fields", required = false) String fields,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ResponseFormat format = ResponseFormat.JSON;
         try {
-            logger.info("Received request to get all shops");
-            List<Shop> shops = shopService.getAllShops();
+            logger.info("Received request to get shops page after: {}, limit: {}, fields: {}", after, limit, fields);
+            ResponseFormat negotiated = ResponseFormat.negotiate(accept);
+            if (negotiated == null) {
+                return notAcceptable(accept);
+            }
+            format = negotiated;
+            Set<ShopField> selectedFields = ShopField.parse(fields);
+            // The list ETag depends only on the catalog version, so revalidation needs no DB work
+            long version = responseCache.currentVersion();
+            String key = ShopResponseCache.listKey(version, format.name(), Objects.toString(after, ""), Objects.toString(limit, ""),
+                    selectedFields == null ? "" : ShopField.join(selectedFields));
+            String etag = "\"shops-" + Long.toHexString(version) + "-" + Integer.toHexString(key.hashCode()) + "\"";
+            if (CachedResponse.matches(ifNoneMatch, etag)) {
+                logger.info("Shops page not modified");
+                return notModified(etag, LIST_VARY);
+            }
             
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "Shops retrieved successfully");
-            response.put("data", shops);
-            response.put("count", shops.size());
+            CachedResponse cached = responseCache.get(key);
+            if (cached == null) {
+                ShopPage<?> page = selectedFields == null
+                        ? shopService.getShopsPage(after, limit)
+                        : shopService.getShopFieldsPage(after, limit, selectedFields);
+                List<?> shops = page.getShops();
+                
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("message", "Shops retrieved successfully");
+                response.put("data", shops);
+                response.put("count", shops.size());
+                response.put("limit", page.getLimit());
+                response.put("nextCursor", page.getNextCursor());
+                
+                cached = responseCache.store(key, etag, responseEncoder.encode(response, format), version);
+                logger.info("Successfully retrieved {} shops", shops.size());
+            } else {
+                logger.info("Serving shops page from response cache");
+            }
+            return cachedBody(cached, format, acceptEncoding, LIST_VARY);
             
-            logger.info("Successfully retrieved {} shops", shops.size());
-            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid pagination request: {}", e.getMessage());
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("data", null);
+            
+            return encoded(HttpStatus.BAD_REQUEST, errorResponse, format);
             
         } catch (Exception e) {
             logger.error("Error retrieving shops: {}", e.getMessage(), e);
@@ -116,9 +244,218 @@ public class ShopController {
             errorResponse.put("message", "Error retrieving shops: " + e.getMessage());
             errorResponse.put("data", null);
             
+            return encoded(HttpStatus.INTERNAL_SERVER_ERROR, errorResponse, format);
+        }
+    }
+    
+    /**
+     * GET /api/shops/changes?since={cursor}&limit={n} - Shops changed or deleted after a cursor
+     * @param since Cursor from the previous response, omitted to start with every shop
+     * @param limit Maximum number of changes to return
+     * @return ResponseEntity with the changes in order and the cursor to continue from
+     */
+    @Operation(
+            summary = "Get shop changes",
+            description = "Incremental change feed for mirrors. Returns shops created or updated (CHANGED, with the shop) and deleted (DELETED) after the cursor, ordered by change time then ID. Start without a cursor to receive every shop, then keep calling with nextCursor; while hasMore is true more changes are already available. Changes from the last few seconds are held back until concurrent writes have committed."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Changes retrieved successfully",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    name = "Shop Changes",
+                                    value = """
+                                            {
+                                              "success": true,
+                                              "message": "Changes retrieved successfully",
+                                              "data": [
+                                                {
+                                                  "type": "CHANGED",
+                                                  "id": 1,
+                                                  "changedAt": "2025-06-14T09:12:03.512204",
+                                                  "shop": {
+                                                    "id": 1,
+                                                    "name": "Tech World Electronics",
+                                                    "address": "123 Main Street, Downtown, City",
+                                                    "phone": "+1-555-0199",
+                                                    "email": "info@techworld.com",
+                                                    "createdDate": "2025-06-13T21:46:19",
+                                                    "updatedDate": "2025-06-14T09:12:03.512204",
+                                                    "version": 4
+                                                  }
+                                                },
+                                                { "type": "DELETED", "id": 7, "changedAt": "2025-06-14T09:15:41.031977", "shop": null }
+                                              ],
+                                              "count": 2,
+                                              "limit": 50,
+                                              "nextCursor": "Y2hhbmdlZDoyMDI1LTA2LTE0VDA5OjE1OjQxLjAzMTk3Ny83",
+                                              "hasMore": false
+                                            }
+                                            """
+                            )
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Malformed cursor or limit below 1"),
+            @ApiResponse(responseCode = "410", description = "Cursor is older than the change feed retention; reload all shops and restart without a cursor")
+    })
+    @GetMapping("/changes")
+    public ResponseEntity<Map<String, Object>> getShopChanges(
+            @Parameter(description = "Cursor from the previous response's nextCursor; omit to start with every shop")
+            @RequestParam(value = "since", required = false) String since,
+            @Parameter(description = "Maximum number of changes to return (capped by the server)", example = "50")
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        try {
+            logger.info("Received request to get shop changes since: {}, limit: {}", since, limit);
+            ShopChangePage page = shopService.getChanges(since, limit);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Changes retrieved successfully");
+            response.put("data", page.getChanges());
+            response.put("count", page.getChanges().size());
+            response.put("limit", page.getLimit());
+            response.put("nextCursor", page.getNextCursor());
+            response.put("hasMore", page.hasMore());
+
+            logger.info("Successfully retrieved {} shop changes", page.getChanges().size());
+            return ResponseEntity.ok(response);
+
+        } catch (ShopChangesExpiredException e) {
+            logger.warn("Expired change feed cursor: {}", e.getMessage());
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("data", null);
+
+            return ResponseEntity.status(HttpStatus.GONE).body(errorResponse);
+
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid change feed request: {}", e.getMessage());
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("data", null);
+
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+
+        } catch (Exception e) {
+            logger.error("Error retrieving shop changes: {}", e.getMessage(), e);
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "Error retrieving shop changes: " + e.getMessage());
+            errorResponse.put("data", null);
+
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
         }
     }
+
+    /**
+     * GET /api/shops/export - Stream every shop as newline-delimited JSON
+     * @return Streaming response with one shop JSON object per line
+     */
+    @Operation(
+            summary = "Export all shops",
+            description = "Stream every shop ordered by ID as newline-delimited JSON (one shop object per line). Rows are written as they are read from the database, so the response starts immediately and memory use does not grow with table size."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Export stream started",
+                    content = @Content(
+                            mediaType = NDJSON_VALUE,
+                            examples = @ExampleObject(
+                                    name = "Export Stream",
+                                    value = """
+                                            {"id":1,"name":"Tech World Electronics","address":"123 Main Street, Downtown, City","phone":"+1-555-0101","email":"info@techworld.com","createdDate":"2025-06-13T21:46:19","updatedDate":"2025-06-13T21:46:19"}
+                                            {"id":2,"name":"Green Garden Nursery","address":"456 Oak Avenue, Suburb, City","phone":"+1-555-0102","email":"contact@greengarden.com","createdDate":"2025-06-13T21:46:19","updatedDate":"2025-06-13T21:46:19"}
+                                            """
+                            )
+                    )
+            )
+    })
+    @GetMapping(value = "/export", produces = NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportShops() {
+        logger.info("Received request to export all shops");
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                // Lines are terminated explicitly below instead of space-separated
+                generator.setRootValueSeparator(null);
+                long[] written = {0};
+                long exported = shopService.exportShops(shop -> {
+                    generator.writeObject(shop);
+                    generator.writeRaw('\n');
+                    // Push the first row out immediately, then flush in batches
+                    if (written[0]++ % EXPORT_FLUSH_INTERVAL == 0) {
+                        generator.flush();
+                    }
+                });
+                generator.flush();
+                logger.info("Successfully exported {} shops", exported);
+            } catch (Exception e) {
+                // Headers are already committed, so the client sees a truncated stream
+                logger.error("Error exporting shops: {}", e.getMessage(), e);
+                throw e;
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON_VALUE))
+                .body(body);
+    }
+
+    /**
+     * GET /api/shops/stream - Server-Sent Events stream of shop changes
+     * @return Event stream that stays open and receives each committed change
+     */
+    @Operation(
+            summary = "Stream shop changes",
+            description = "Server-Sent Events stream of committed shop changes, replacing polling of the list and count. Events are named created, updated and deleted; each carries the shop ID, the shop (null when deleted) and the current shop count. Repeated changes to a shop not yet sent are merged into one event with its latest state. Clients that fall too far behind are disconnected and should reconnect and resync. A heartbeat comment is sent every few seconds."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Stream opened",
+                    content = @Content(
+                            mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                            examples = @ExampleObject(
+                                    name = "Event Stream",
+                                    value = """
+                                            event:connected
+                                            retry:3000
+                                            data:{"count":12}
+
+                                            event:updated
+                                            data:{"type":"UPDATED","id":1,"shop":{"id":1,"name":"Tech World Electronics","address":"123 Main Street, Downtown, City","phone":"+1-555-0199","email":"info@techworld.com","createdDate":"2025-06-13T21:46:19","updatedDate":"2025-06-14T09:12:03","version":4},"count":12}
+
+                                            event:deleted
+                                            data:{"type":"DELETED","id":7,"shop":null,"count":11}
+
+                                            :heartbeat
+                                            """
+                            )
+                    )
+            ),
+            @ApiResponse(responseCode = "503", description = "Too many open streams; retry later")
+    })
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamShopChanges() {
+        try {
+            logger.info("Received request to stream shop changes");
+            return ResponseEntity.ok(eventStream.subscribe());
+
+        } catch (IllegalStateException e) {
+            logger.warn("Rejected shop event subscriber: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .build();
+
+        } catch (Exception e) {
+            logger.error("Error opening shop event stream: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
     
     /**
      * GET /api/shops/{id} - Retrieve a specific shop by ID
@@ -127,7 +464,7 @@ public class ShopController {
      */
     @Operation(
             summary = "Get shop by ID",
-            description = "Retrieve a specific shop by its unique identifier."
+            description = "Retrieve a specific shop by its unique identifier. Responses carry an ETag; send it back in If-None-Match to get 304 Not Modified while the shop is unchanged, or in If-Match to update only this version."
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -174,11 +511,21 @@ public class ShopController {
             )
     })
     @GetMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> getShopById(
+    public ResponseEntity<?> getShopById(
             @Parameter(description = "Unique identifier of the shop", example = "1")
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         try {
             logger.info("Received request to get shop with ID: {}", id);
+            String key = ShopResponseCache.shopKey(id);
+            CachedResponse cached = responseCache.get(key);
+            if (cached != null) {
+                logger.info("Serving shop with ID {} from response cache", id);
+                return cached.matches(ifNoneMatch) ? notModified(cached.getEtag(), HttpHeaders.ACCEPT_ENCODING) : cachedJson(cached, acceptEncoding);
+            }
+            
+            long version = responseCache.currentVersion();
             Optional<Shop> shop = shopService.getShopById(id);
             
             Map<String, Object> response = new HashMap<>();
@@ -187,8 +534,9 @@ public class ShopController {
                 response.put("success", true);
                 response.put("message", "Shop found successfully");
                 response.put("data", shop.get());
+                cached = responseCache.store(key, shopEtag(shop.get()), objectMapper.writeValueAsBytes(response), version);
                 logger.info("Successfully retrieved shop with ID: {}", id);
-                return ResponseEntity.ok(response);
+                return cached.matches(ifNoneMatch) ? notModified(cached.getEtag(), HttpHeaders.ACCEPT_ENCODING) : cachedJson(cached, acceptEncoding);
             } else {
                 response.put("success", false);
                 response.put("message", "Shop not found with ID: " + id);
@@ -208,6 +556,90 @@ public class ShopController {
         }
     }
     
+    /**
+     * GET /api/shops/by-email?email={email} - Find the shop with an email
+     * @param email Email address
+     * @return ResponseEntity with the shop, or 404 if no shop has the email
+     */
+    @Operation(
+            summary = "Get shop by email",
+            description = "Find the shop with the given email. Emails no shop has are usually answered from an in-memory Bloom filter without querying the database."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Shop found"),
+            @ApiResponse(responseCode = "400", description = "Email missing"),
+            @ApiResponse(responseCode = "404", description = "No shop has the email")
+    })
+    @GetMapping("/by-email")
+    public ResponseEntity<Map<String, Object>> getShopByEmail(
+            @Parameter(description = "Email address", example = "info@techworld.com", required = true)
+            @RequestParam("email") String email) {
+        logger.info("Received request to get shop with email: {}", email);
+        return contactLookup("email", email, () -> shopService.getShopByEmail(email));
+    }
+
+    /**
+     * GET /api/shops/by-phone?phone={phone} - Find the shop with a phone number
+     * @param phone Phone number
+     * @return ResponseEntity with the shop, or 404 if no shop has the phone number
+     */
+    @Operation(
+            summary = "Get shop by phone",
+            description = "Find the shop with the given phone number. Phone numbers no shop has are usually answered from an in-memory Bloom filter without querying the database."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Shop found"),
+            @ApiResponse(responseCode = "400", description = "Phone missing"),
+            @ApiResponse(responseCode = "404", description = "No shop has the phone number")
+    })
+    @GetMapping("/by-phone")
+    public ResponseEntity<Map<String, Object>> getShopByPhone(
+            @Parameter(description = "Phone number", example = "+1-555-0101", required = true)
+            @RequestParam("phone") String phone) {
+        logger.info("Received request to get shop with phone: {}", phone);
+        return contactLookup("phone", phone, () -> shopService.getShopByPhone(phone));
+    }
+
+    private static ResponseEntity<Map<String, Object>> contactLookup(String field, String value, Supplier<Optional<Shop>> lookup) {
+        try {
+            Optional<Shop> shop = lookup.get();
+
+            Map<String, Object> response = new HashMap<>();
+
+            if (shop.isPresent()) {
+                response.put("success", true);
+                response.put("message", "Shop found successfully");
+                response.put("data", shop.get());
+                logger.info("Successfully retrieved shop with {}: {}", field, value);
+                return ResponseEntity.ok(response);
+            } else {
+                response.put("success", false);
+                response.put("message", "Shop not found with " + field + ": " + value);
+                response.put("data", null);
+                logger.info("Shop not found with {}: {}", field, value);
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            }
+
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid lookup request: {}", e.getMessage());
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("data", null);
+
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+
+        } catch (Exception e) {
+            logger.error("Error retrieving shop with {} {}: {}", field, value, e.getMessage(), e);
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "Error retrieving shop: " + e.getMessage());
+            errorResponse.put("data", null);
+
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+    
     /**
      * POST /api/shops - Create a new shop
      * @param shop Shop details
@@ -243,6 +675,25 @@ public class ShopController {
                             )
                     )
             ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Another shop has the same email or phone",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    name = "Duplicate Email",
+                                    value = """
+                                            {
+                                              "success": false,
+                                              "message": "Shop with email info@techworld.com already exists with ID: 1",
+                                              "data": null,
+                                              "field": "email",
+                                              "existingId": 1
+                                            }
+                                            """
+                            )
+                    )
+            ),
             @ApiResponse(
                     responseCode = "400",
                     description = "Invalid input data",
@@ -259,6 +710,12 @@ public class ShopController {
                                             """
                             )
                     )
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Group commit is enabled and its queue is full; retry after the Retry-After delay. "
+                            + "Without Retry-After, the request was interrupted while waiting and the shop may still be created",
+                    content = @Content(mediaType = "application/json")
             )
     })
     @PostMapping
@@ -267,7 +724,7 @@ public class ShopController {
             @Valid @RequestBody Shop shop) {
         try {
             logger.info("Received request to create new shop: {}", shop.getName());
-            Shop createdShop = shopService.createShop(shop);
+            Shop createdShop = groupCommitter != null ? groupCommitter.create(shop) : shopService.createShop(shop);
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -277,6 +734,31 @@ public class ShopController {
             logger.info("Successfully created shop with ID: {}", createdShop.getId());
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
 
+        } catch (ShopDuplicateException e) {
+            return duplicate(e);
+
+        } catch (GroupCommitQueueFullException e) {
+            logger.warn("Shop not queued for creation: {}", e.getMessage());
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("data", null);
+
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, GROUP_COMMIT_RETRY_AFTER_SECONDS)
+                    .body(errorResponse);
+
+        } catch (InterruptedException e) {
+            // The shop stays queued, so whether it gets created is unknown
+            Thread.currentThread().interrupt();
+            logger.warn("Interrupted while waiting for shop {} to be created", shop.getName());
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "Interrupted while waiting for the shop to be created; it may still be created, look it up by email or phone before retrying");
+            errorResponse.put("data", null);
+
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
+
         } catch (Exception e) {
             logger.error("Error creating shop: {}", e.getMessage(), e);
             Map<String, Object> errorResponse = new HashMap<>();
@@ -288,6 +770,87 @@ public class ShopController {
         }
     }
 
+    /**
+     * POST /api/shops/batch - Create many shops in one request
+     * @param shops Shops to create
+     * @return ResponseEntity with one result per submitted shop
+     */
+    @Operation(
+            summary = "Create shops in bulk",
+            description = "Create many shops in one request. Each shop is validated on its own and valid shops are inserted in chunks using JDBC batch inserts. The response has one result per submitted shop, in order; invalid or failed items do not prevent the others from being created."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "201",
+                    description = "All shops created"
+            ),
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Some shops were not created; see the per-item results",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    name = "Partial Success",
+                                    value = """
+                                            {
+                                              "success": false,
+                                              "message": "Created 1 of 2 shops",
+                                              "data": [
+                                                { "index": 0, "status": "CREATED", "id": 13, "errors": [] },
+                                                { "index": 1, "status": "INVALID", "id": null, "errors": ["name: Shop name is required"] }
+                                              ],
+                                              "created": 1,
+                                              "count": 2
+                                            }
+                                            """
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Batch too large"
+            )
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<Map<String, Object>> createShops(
+            @Parameter(description = "Shops to create", required = true)
+            @RequestBody List<Shop> shops) {
+        try {
+            logger.info("Received request to create {} shops in batch", shops.size());
+            List<ShopBatchResult> results = shopService.createShops(shops);
+            long created = results.stream().filter(result -> result.getStatus() == ShopBatchResult.Status.CREATED).count();
+            boolean allCreated = created == results.size();
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", allCreated);
+            response.put("message", "Created " + created + " of " + results.size() + " shops");
+            response.put("data", results);
+            response.put("created", created);
+            response.put("count", results.size());
+
+            logger.info("Batch request created {} of {} shops", created, results.size());
+            return ResponseEntity.status(allCreated ? HttpStatus.CREATED : HttpStatus.OK).body(response);
+
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid batch request: {}", e.getMessage());
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("data", null);
+
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+
+        } catch (Exception e) {
+            logger.error("Error creating shops in batch: {}", e.getMessage(), e);
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "Error creating shops: " + e.getMessage());
+            errorResponse.put("data", null);
+
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
     /**
      * PUT /api/shops/{id} - Update an existing shop
      * @param id Shop ID
@@ -316,6 +879,12 @@ public class ShopController {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
             }
 
+        } catch (ShopVersionConflictException e) {
+            return versionConflict(e);
+
+        } catch (ShopDuplicateException e) {
+            return duplicate(e);
+
         } catch (Exception e) {
             logger.error("Error updating shop with ID {}: {}", id, e.getMessage(), e);
             Map<String, Object> errorResponse = new HashMap<>();
@@ -328,25 +897,166 @@ public class ShopController {
     }
 
     /**
-     * DELETE /api/shops/{id} - Delete a shop
+     * PATCH /api/shops/{id} - Change some fields of a shop
      * @param id Shop ID
-     * @return ResponseEntity with deletion status
+     * @param changes Fields to change and their new values
+     * @param ifMatch ETag or version the changes are based on
+     * @return ResponseEntity with the patched shop
      */
-    @DeleteMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> deleteShop(@PathVariable Long id) {
-        try {
-            logger.info("Received request to delete shop with ID: {}", id);
-            boolean deleted = shopService.deleteShop(id);
-
-            Map<String, Object> response = new HashMap<>();
-
-            if (deleted) {
-                response.put("success", true);
-                response.put("message", "Shop deleted successfully");
-                response.put("data", null);
-                logger.info("Successfully deleted shop with ID: {}", id);
-                return ResponseEntity.ok(response);
-            } else {
+    @Operation(
+            summary = "Patch shop",
+            description = "Change only the fields present in the body (name, address, phone, email); null clears phone or email. Send the shop's ETag or version in If-Match to apply the change only if nobody has updated the shop since. The update writes only the changed columns in a single conditional statement."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Shop patched successfully; the ETag header carries the new version",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    name = "Shop Patched",
+                                    value = """
+                                            {
+                                              "success": true,
+                                              "message": "Shop patched successfully",
+                                              "data": {
+                                                "id": 1,
+                                                "name": "Tech World Electronics",
+                                                "address": "123 Main Street, Downtown, City",
+                                                "phone": "+1-555-0199",
+                                                "email": "info@techworld.com",
+                                                "createdDate": "2025-06-13T21:46:19",
+                                                "updatedDate": "2025-06-14T09:12:03",
+                                                "version": 4
+                                              }
+                                            }
+                                            """
+                            )
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Unknown or invalid field, or malformed If-Match"),
+            @ApiResponse(responseCode = "404", description = "Shop not found"),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Shop was modified since the If-Match version, or concurrently; or another shop has the new email or phone",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    name = "Version Conflict",
+                                    value = """
+                                            {
+                                              "success": false,
+                                              "message": "Shop 1 has been modified, current version is 4",
+                                              "data": null,
+                                              "currentVersion": 4
+                                            }
+                                            """
+                            )
+                    )
+            )
+    })
+    @PatchMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> patchShop(
+            @Parameter(description = "Unique identifier of the shop", example = "1")
+            @PathVariable Long id,
+            @Parameter(description = "Fields to change", required = true)
+            @RequestBody Map<String, Object> changes,
+            @Parameter(description = "ETag or version of the shop the changes are based on", example = "3")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        try {
+            logger.info("Received request to patch shop with ID: {}", id);
+            Long expectedVersion = ifMatchVersion(ifMatch, id);
+            Optional<Shop> patchedShop = shopService.patchShop(id, ShopPatch.from(changes), expectedVersion);
+
+            Map<String, Object> response = new HashMap<>();
+
+            if (patchedShop.isPresent()) {
+                response.put("success", true);
+                response.put("message", "Shop patched successfully");
+                response.put("data", patchedShop.get());
+                logger.info("Successfully patched shop with ID: {}", id);
+                return ResponseEntity.ok().eTag(shopEtag(patchedShop.get())).body(response);
+            } else {
+                response.put("success", false);
+                response.put("message", "Shop not found with ID: " + id);
+                response.put("data", null);
+                logger.warn("Shop not found for patch with ID: {}", id);
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            }
+
+        } catch (ShopVersionConflictException e) {
+            return versionConflict(e);
+
+        } catch (ShopDuplicateException e) {
+            return duplicate(e);
+
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid patch request: {}", e.getMessage());
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("data", null);
+
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+
+        } catch (Exception e) {
+            logger.error("Error patching shop with ID {}: {}", id, e.getMessage(), e);
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "Error patching shop: " + e.getMessage());
+            errorResponse.put("data", null);
+
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    private static ResponseEntity<Map<String, Object>> versionConflict(ShopVersionConflictException e) {
+        logger.warn("Version conflict: {}", e.getMessage());
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("message", e.getMessage());
+        errorResponse.put("data", null);
+        errorResponse.put("currentVersion", e.getCurrentVersion());
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+    }
+
+    private static ResponseEntity<Map<String, Object>> duplicate(ShopDuplicateException e) {
+        logger.warn("Duplicate shop contact: {}", e.getMessage());
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("message", e.getMessage());
+        errorResponse.put("data", null);
+        errorResponse.put("field", e.getField());
+        errorResponse.put("existingId", e.getExistingShopId());
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+    }
+
+    /**
+     * DELETE /api/shops/{id} - Delete a shop
+     * @param id Shop ID
+     * @return ResponseEntity with deletion status
+     */
+    @Operation(
+            summary = "Delete shop",
+            description = "Delete a shop by ID with a single DELETE statement."
+    )
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> deleteShop(@PathVariable Long id) {
+        try {
+            logger.info("Received request to delete shop with ID: {}", id);
+            boolean deleted = shopService.deleteShop(id);
+
+            Map<String, Object> response = new HashMap<>();
+
+            if (deleted) {
+                response.put("success", true);
+                response.put("message", "Shop deleted successfully");
+                response.put("data", null);
+                logger.info("Successfully deleted shop with ID: {}", id);
+                return ResponseEntity.ok(response);
+            } else {
                 response.put("success", false);
                 response.put("message", "Shop not found with ID: " + id);
                 response.put("data", null);
@@ -365,69 +1075,374 @@ public class ShopController {
         }
     }
 
+    /**
+     * DELETE /api/shops?ids={id},{id},... - Delete many shops in one request
+     * @param ids Shop IDs to delete
+     * @return ResponseEntity with one result per submitted ID
+     */
+    @Operation(
+            summary = "Delete shops in bulk",
+            description = "Delete many shops in one request. IDs are deleted in chunks, each chunk with one IN-list DELETE in its own transaction. The response has one result per submitted ID, in order: DELETED, NOT_FOUND, or FAILED if its chunk could not be deleted."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Batch processed; see the per-ID results",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    name = "Bulk Delete",
+                                    value = """
+                                            {
+                                              "success": false,
+                                              "message": "Deleted 1 of 2 shops",
+                                              "data": [
+                                                { "index": 0, "status": "DELETED", "id": 3, "errors": [] },
+                                                { "index": 1, "status": "NOT_FOUND", "id": 999, "errors": [] }
+                                              ],
+                                              "deleted": 1,
+                                              "count": 2
+                                            }
+                                            """
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Batch too large"
+            )
+    })
+    @DeleteMapping
+    public ResponseEntity<Map<String, Object>> deleteShops(
+            @Parameter(description = "Comma-separated shop IDs to delete", example = "3,999", required = true)
+            @RequestParam("ids") List<Long> ids) {
+        try {
+            logger.info("Received request to delete {} shops in batch", ids.size());
+            List<ShopBatchResult> results = shopService.deleteShops(ids);
+            long deleted = results.stream().filter(result -> result.getStatus() == ShopBatchResult.Status.DELETED).count();
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", deleted == results.size());
+            response.put("message", "Deleted " + deleted + " of " + results.size() + " shops");
+            response.put("data", results);
+            response.put("deleted", deleted);
+            response.put("count", results.size());
+
+            logger.info("Batch request deleted {} of {} shops", deleted, results.size());
+            return ResponseEntity.ok(response);
+
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid batch delete request: {}", e.getMessage());
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("data", null);
+
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+
+        } catch (Exception e) {
+            logger.error("Error deleting shops in batch: {}", e.getMessage(), e);
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "Error deleting shops: " + e.getMessage());
+            errorResponse.put("data", null);
+
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
     /**
      * GET /api/shops/search?q={searchTerm} - Search shops by name or address
      * @param searchTerm Search term
+     * @param fields Comma-separated fields to return, or null for whole shops
      * @return ResponseEntity with matching shops
      */
     @Operation(
             summary = "Search shops",
-            description = "Search for shops by name or address using a case-insensitive partial match."
+            description = "Search for shops by name or address using a case-insensitive partial match. Pass 'fields' (e.g. id,name) to return only those fields; the ID is always included. Send Accept: application/cbor, application/x-jackson-smile or application/x-protobuf for a binary encoding of the same response."
     )
     @ApiResponses(value = {
             @ApiResponse(
                     responseCode = "200",
                     description = "Search completed successfully",
+                    content = {
+                            @Content(
+                                    mediaType = "application/json",
+                                    examples = @ExampleObject(
+                                            name = "Search Results",
+                                            value = """
+                                                    {
+                                                      "success": true,
+                                                      "message": "Search completed successfully",
+                                                      "data": [
+                                                        {
+                                                          "id": 7,
+                                                          "name": "Cozy Coffee Corner",
+                                                          "address": "147 Cafe Street, Arts District, City",
+                                                          "phone": "+1-555-0107",
+                                                          "email": "hello@cozycoffee.com",
+                                                          "createdDate": "2025-06-13T21:46:19",
+                                                          "updatedDate": "2025-06-13T21:46:19"
+                                                        }
+                                                      ],
+                                                      "count": 1,
+                                                      "searchTerm": "coffee"
+                                                    }
+                                                    """
+                                    )
+                            ),
+                            @Content(mediaType = "application/cbor"),
+                            @Content(mediaType = "application/x-jackson-smile"),
+                            @Content(mediaType = "application/x-protobuf", schema = @Schema(description = "ShopListResponse from shop.proto"))
+                    }
+            ),
+            @ApiResponse(responseCode = "406", description = "None of the accepted media types is supported")
+    })
+    @GetMapping("/search")
+    public ResponseEntity<?> searchShops(
+            @Parameter(description = "Search term to find shops by name or address", example = "coffee", required = true)
+            @RequestParam("q") String searchTerm,
+            @Parameter(description = "Comma-separated fields to return (id, name, address, phone, email, latitude, longitude, createdDate, updatedDate)", example = "id,name")
+            @RequestParam(value = "fields", required = false) String fields,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        ResponseFormat format = ResponseFormat.JSON;
+        try {
+            logger.info("Received request to search shops with term: {}, fields: {}", searchTerm, fields);
+            ResponseFormat negotiated = ResponseFormat.negotiate(accept);
+            if (negotiated == null) {
+                return notAcceptable(accept);
+            }
+            format = negotiated;
+            Set<ShopField> selectedFields = ShopField.parse(fields);
+            List<?> shops = selectedFields == null
+                    ? shopService.searchShops(searchTerm)
+                    : shopService.searchShopFields(searchTerm, selectedFields);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Search completed successfully");
+            response.put("data", shops);
+            response.put("count", shops.size());
+            response.put("searchTerm", searchTerm);
+
+            logger.info("Successfully found {} shops matching search term", shops.size());
+            return encoded(HttpStatus.OK, response, format);
+
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid search request: {}", e.getMessage());
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("data", null);
+
+            return encoded(HttpStatus.BAD_REQUEST, errorResponse, format);
+
+        } catch (Exception e) {
+            logger.error("Error searching shops: {}", e.getMessage(), e);
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "Error searching shops: " + e.getMessage());
+            errorResponse.put("data", null);
+
+            return encoded(HttpStatus.INTERNAL_SERVER_ERROR, errorResponse, format);
+        }
+    }
+
+    /**
+     * GET /api/shops/suggest?prefix={prefix}&limit={n} - Type-ahead suggestions by shop name
+     * @param prefix Prefix typed so far
+     * @param limit Maximum number of suggestions
+     * @return ResponseEntity with matching shop IDs and names
+     */
+    @Operation(
+            summary = "Suggest shops by name prefix",
+            description = "Type-ahead suggestions: shops with a word in their name starting with the prefix (case-insensitive). Matches on the start of the name come first. Served from memory, so it is safe to call on every keystroke."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Suggestions retrieved successfully",
                     content = @Content(
                             mediaType = "application/json",
                             examples = @ExampleObject(
-                                    name = "Search Results",
+                                    name = "Suggestions",
                                     value = """
                                             {
                                               "success": true,
-                                              "message": "Search completed successfully",
+                                              "message": "Suggestions retrieved successfully",
                                               "data": [
                                                 {
                                                   "id": 7,
-                                                  "name": "Cozy Coffee Corner",
-                                                  "address": "147 Cafe Street, Arts District, City",
-                                                  "phone": "+1-555-0107",
-                                                  "email": "hello@cozycoffee.com",
-                                                  "createdDate": "2025-06-13T21:46:19",
-                                                  "updatedDate": "2025-06-13T21:46:19"
+                                                  "name": "Cozy Coffee Corner"
                                                 }
                                               ],
                                               "count": 1,
-                                              "searchTerm": "coffee"
+                                              "prefix": "cof"
+                                            }
+                                            """
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Missing prefix or invalid limit",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    name = "Missing Prefix",
+                                    value = """
+                                            {
+                                              "success": false,
+                                              "message": "Prefix is required",
+                                              "data": null
                                             }
                                             """
                             )
                     )
             )
     })
-    @GetMapping("/search")
-    public ResponseEntity<Map<String, Object>> searchShops(
-            @Parameter(description = "Search term to find shops by name or address", example = "coffee", required = true)
-            @RequestParam("q") String searchTerm) {
+    @GetMapping("/suggest")
+    public ResponseEntity<Map<String, Object>> suggestShops(
+            @Parameter(description = "Prefix typed so far", example = "cof", required = true)
+            @RequestParam("prefix") String prefix,
+            @Parameter(description = "Maximum number of suggestions", example = "10")
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
         try {
-            logger.info("Received request to search shops with term: {}", searchTerm);
-            List<Shop> shops = shopService.searchShops(searchTerm);
+            logger.debug("Received request to suggest shops for prefix: {}", prefix);
+            List<ShopSuggestion> suggestions = shopService.suggestShops(prefix, limit);
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("message", "Search completed successfully");
+            response.put("message", "Suggestions retrieved successfully");
+            response.put("data", suggestions);
+            response.put("count", suggestions.size());
+            response.put("prefix", prefix);
+
+            return ResponseEntity.ok(response);
+
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid suggest request: {}", e.getMessage());
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("data", null);
+
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+
+        } catch (Exception e) {
+            logger.error("Error suggesting shops: {}", e.getMessage(), e);
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "Error suggesting shops: " + e.getMessage());
+            errorResponse.put("data", null);
+
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    /**
+     * GET /api/shops/nearby?lat={lat}&lon={lon}&radiusKm={km}&limit={n} - Shops near a position
+     * @param latitude Latitude of the search centre
+     * @param longitude Longitude of the search centre
+     * @param radiusKm Search radius in kilometres
+     * @param limit Maximum number of shops
+     * @return ResponseEntity with shops within the radius, nearest first
+     */
+    @Operation(
+            summary = "Find shops near a position",
+            description = "Shops within radiusKm of the position, nearest first, each with its great-circle distance. Shops are located by geocoding their address when it is written. Served from an in-memory spatial index, not a table scan."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Nearby shops retrieved successfully",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    name = "Nearby Shops",
+                                    value = """
+                                            {
+                                              "success": true,
+                                              "message": "Nearby shops retrieved successfully",
+                                              "data": [
+                                                {
+                                                  "distanceKm": 1.284,
+                                                  "shop": {
+                                                    "id": 1,
+                                                    "name": "Tech World Electronics",
+                                                    "address": "123 Main Street, Downtown, City",
+                                                    "phone": "+1-555-0101",
+                                                    "email": "info@techworld.com",
+                                                    "latitude": 40.7411,
+                                                    "longitude": -73.9897,
+                                                    "createdDate": "2025-06-13T21:46:19",
+                                                    "updatedDate": "2025-06-13T21:46:19",
+                                                    "version": 0
+                                                  }
+                                                }
+                                              ],
+                                              "count": 1,
+                                              "radiusKm": 5.0
+                                            }
+                                            """
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid position, radius or limit",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    name = "Invalid Radius",
+                                    value = """
+                                            {
+                                              "success": false,
+                                              "message": "Radius must be greater than 0 and at most 100.0 km",
+                                              "data": null
+                                            }
+                                            """
+                            )
+                    )
+            )
+    })
+    @GetMapping("/nearby")
+    public ResponseEntity<Map<String, Object>> getNearbyShops(
+            @Parameter(description = "Latitude of the search centre", example = "40.7128", required = true)
+            @RequestParam("lat") double latitude,
+            @Parameter(description = "Longitude of the search centre", example = "-74.0060", required = true)
+            @RequestParam("lon") double longitude,
+            @Parameter(description = "Search radius in kilometres", example = "5")
+            @RequestParam(value = "radiusKm", defaultValue = "5") double radiusKm,
+            @Parameter(description = "Maximum number of shops", example = "20")
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        try {
+            logger.debug("Received request to find shops within {} km of {},{}", radiusKm, latitude, longitude);
+            List<NearbyShop> shops = shopService.findNearbyShops(latitude, longitude, radiusKm, limit);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Nearby shops retrieved successfully");
             response.put("data", shops);
             response.put("count", shops.size());
-            response.put("searchTerm", searchTerm);
+            response.put("radiusKm", radiusKm);
 
-            logger.info("Successfully found {} shops matching search term", shops.size());
             return ResponseEntity.ok(response);
 
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid nearby request: {}", e.getMessage());
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("data", null);
+
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+
         } catch (Exception e) {
-            logger.error("Error searching shops: {}", e.getMessage(), e);
+            logger.error("Error finding nearby shops: {}", e.getMessage(), e);
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("success", false);
-            errorResponse.put("message", "Error searching shops: " + e.getMessage());
+            errorResponse.put("message", "Error finding nearby shops: " + e.getMessage());
             errorResponse.put("data", null);
 
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
@@ -440,7 +1455,7 @@ public class ShopController {
      */
     @Operation(
             summary = "Get shop count",
-            description = "Get the total number of shops in the database."
+            description = "Get the total number of shops. Served from an in-memory counter that is updated on every create/delete and periodically reconciled with the database, so it does not query the database per request."
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -485,4 +1500,113 @@ public class ShopController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
         }
     }
+
+    /**
+     * Strong ETag for a single shop, derived from its ID and version
+     */
+    private static String shopEtag(Shop shop) {
+        return "\"" + SHOP_ETAG_PREFIX + shop.getId() + SHOP_ETAG_VERSION + shop.getVersion() + "\"";
+    }
+
+    /**
+     * Version expected by an If-Match header holding the shop's ETag (either encoding) or a bare version
+     * @return Expected version, or null when the header is absent or "*"
+     */
+    private static Long ifMatchVersion(String ifMatch, Long id) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        String prefix = SHOP_ETAG_PREFIX + id + SHOP_ETAG_VERSION;
+        if (tag.startsWith(prefix)) {
+            tag = tag.substring(prefix.length());
+            // The gzip variant of the ETag names the same version
+            if (tag.endsWith("-gzip")) {
+                tag = tag.substring(0, tag.length() - "-gzip".length());
+            }
+        }
+        try {
+            return Long.parseLong(tag);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("If-Match must be the shop's ETag or version: " + ifMatch);
+        }
+    }
+
+    /**
+     * 200 response with pre-serialized JSON, gzip-encoded when the client accepts it
+     */
+    private static ResponseEntity<byte[]> cachedJson(CachedResponse cached, String acceptEncoding) {
+        return cachedBody(cached, ResponseFormat.JSON, acceptEncoding, HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    /**
+     * 200 response with a pre-serialized body, gzip-encoded when the client accepts it
+     */
+    private static ResponseEntity<byte[]> cachedBody(CachedResponse cached, ResponseFormat format, String acceptEncoding,
+                                                     String... vary) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .cacheControl(CacheControl.noCache())
+                .varyBy(vary);
+        if (cached.hasGzipBody() && acceptsGzip(acceptEncoding)) {
+            return builder.eTag(cached.getGzipEtag())
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(cached.getGzipBody());
+        }
+        return builder.eTag(cached.getEtag()).body(cached.getBody());
+    }
+
+    private static ResponseEntity<byte[]> notModified(String etag, String... vary) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(vary)
+                .build();
+    }
+
+    /**
+     * Response with a list envelope in the negotiated format. JSON is left to the message
+     * converter; if a binary encoding fails, the envelope is sent as JSON instead.
+     */
+    private ResponseEntity<?> encoded(HttpStatus status, Map<String, Object> body, ResponseFormat format) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(status).varyBy(HttpHeaders.ACCEPT);
+        if (format != ResponseFormat.JSON) {
+            try {
+                return builder.contentType(format.getMediaType()).body(responseEncoder.encode(body, format));
+            } catch (IOException | RuntimeException e) {
+                logger.error("Error encoding response as {}: {}", format, e.getMessage(), e);
+            }
+        }
+        return builder.contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    private static ResponseEntity<Map<String, Object>> notAcceptable(String accept) {
+        logger.warn("No supported response format in Accept: {}", accept);
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("message", "Supported response formats: application/json, application/cbor, "
+                + "application/x-jackson-smile, application/x-protobuf");
+        errorResponse.put("data", null);
+
+        return ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(errorResponse);
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equals("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
 }
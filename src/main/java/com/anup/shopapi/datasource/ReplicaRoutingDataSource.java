@@ -0,0 +1,241 @@
+package com.anup.shopapi.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * DataSource that hands out replica connections for read-only transactions and
+ * primary connections for everything else.
+ * <p>
+ * Spring marks a transaction read-only only after the transaction manager has
+ * asked for its connection, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy},
+ * which defers the choice to the first statement.
+ * <p>
+ * Rows read from a replica may be behind the primary, so reads whose results are
+ * cached (second-level, query or response cache) either run on the primary, with
+ * {@link #readOnPrimary}, or do not store what they read.
+ * <p>
+ * Replicas are health-checked on a fixed delay. A replica that cannot be reached,
+ * has stopped replicating or lags by more than the configured limit is skipped
+ * until a later check finds it healthy again; with no healthy replica, reads go
+ * to the primary.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final ThreadLocal<Boolean> forcePrimary = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final ReplicaSelection selection;
+    private final Duration maxLag;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicas,
+                                    ReplicaSelection selection, Duration maxLag) {
+        this.primary = primary;
+        this.replicas = new ArrayList<>(replicas.size());
+        for (HikariDataSource replica : replicas) {
+            this.replicas.add(new Replica(replica));
+        }
+        this.selection = selection;
+        this.maxLag = maxLag;
+    }
+
+    /**
+     * Run an action with every connection taken from the primary, including those of
+     * read-only transactions. For reads that seed state kept in step with committed
+     * writes, which must not see replication lag.
+     * @param action Action to run
+     * @return Result of the action
+     * @throws Exception if the action fails
+     */
+    public static <T> T onPrimary(Callable<T> action) throws Exception {
+        if (forcePrimary.get() != null) {
+            return action.call();
+        }
+        forcePrimary.set(Boolean.TRUE);
+        try {
+            return action.call();
+        } finally {
+            forcePrimary.remove();
+        }
+    }
+
+    /**
+     * Like {@link #onPrimary(Callable)}, for reads that throw no checked exceptions. Can also be
+     * used inside a read-only transaction that has not run a statement yet, since its
+     * connection is only chosen at the first statement.
+     * @param read Read to run
+     * @return Result of the read
+     */
+    public static <T> T readOnPrimary(Supplier<T> read) {
+        if (forcePrimary.get() != null) {
+            return read.get();
+        }
+        forcePrimary.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            forcePrimary.remove();
+        }
+    }
+
+    /**
+     * @return Whether statements of the current transaction are sent to a replica when
+     *         replicas are configured and one is healthy
+     */
+    public static boolean isReplicaReadAllowed() {
+        return forcePrimary.get() == null && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!isReplicaReadAllowed()) {
+            return primary.getConnection();
+        }
+        Replica replica = selectReplica();
+        if (replica == null) {
+            return primary.getConnection();
+        }
+        try {
+            return replica.dataSource.getConnection();
+        } catch (SQLException e) {
+            replica.markDown("connection failed: " + e.getMessage());
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    private Replica selectReplica() {
+        int size = replicas.size();
+        if (selection == ReplicaSelection.LEAST_CONNECTIONS) {
+            Replica best = null;
+            int fewest = Integer.MAX_VALUE;
+            for (Replica replica : replicas) {
+                if (!replica.healthy) {
+                    continue;
+                }
+                int active = replica.activeConnections();
+                if (active < fewest) {
+                    best = replica;
+                    fewest = active;
+                }
+            }
+            return best;
+        }
+        int start = Math.floorMod(nextReplica.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Check that each replica is reachable and within the allowed lag.
+     * Runs on a fixed delay, configured by {@code shop.datasource.replica.health-check-interval}.
+     * Replicas start out unhealthy, so reads stay on the primary until the first check.
+     */
+    @Scheduled(fixedDelayString = "${shop.datasource.replica.health-check-interval:PT10S}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                Duration lag = replicationLag(connection);
+                if (lag == null) {
+                    replica.markDown("replication is not running");
+                } else if (lag.compareTo(maxLag) > 0) {
+                    replica.markDown("lagging by " + lag.toSeconds() + "s");
+                } else {
+                    replica.markUp();
+                }
+            } catch (SQLException e) {
+                replica.markDown("health check failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Seconds_Behind_Source from SHOW REPLICA STATUS on MySQL, or null while replication
+     * is stopped. A server with no replication configured, or a database other than
+     * MySQL (e.g. an embedded one standing in for a replica), reports no lag.
+     */
+    private static Duration replicationLag(Connection connection) throws SQLException {
+        if (!"MySQL".equals(connection.getMetaData().getDatabaseProductName())) {
+            return Duration.ZERO;
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet status = statement.executeQuery("SHOW REPLICA STATUS")) {
+            if (!status.next()) {
+                return Duration.ZERO;
+            }
+            long seconds = status.getLong("Seconds_Behind_Source");
+            return status.wasNull() ? null : Duration.ofSeconds(seconds);
+        }
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    private static class Replica {
+
+        private final HikariDataSource dataSource;
+        private volatile boolean healthy;
+        // Only affects logging: the first failed check is reported even though the replica was never up
+        private volatile boolean checked;
+
+        Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        int activeConnections() {
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            return pool == null ? 0 : pool.getActiveConnections();
+        }
+
+        void markUp() {
+            checked = true;
+            if (!healthy) {
+                healthy = true;
+                logger.info("Replica {} is healthy, routing reads to it", dataSource.getPoolName());
+            }
+        }
+
+        void markDown(String reason) {
+            if (healthy || !checked) {
+                healthy = false;
+                checked = true;
+                logger.warn("Replica {} is unavailable ({}), routing its reads elsewhere", dataSource.getPoolName(), reason);
+            } else {
+                logger.debug("Replica {} is still unavailable: {}", dataSource.getPoolName(), reason);
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.anup.shopapi.datasource;
+
+/**
+ * How {@link ReplicaRoutingDataSource} picks a replica for a read-only transaction
+ */
+public enum ReplicaSelection {
+
+    /**
+     * Each healthy replica in turn
+     */
+    ROUND_ROBIN,
+
+    /**
+     * The healthy replica with the fewest connections in use
+     */
+    LEAST_CONNECTIONS
+}
@@ -1,19 +1,54 @@
 package com.anup.shopapi.entity;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "shops")
+// Unique indexes back lookups by email and phone, and reject duplicates (several shops may leave them null)
+@Table(name = "shops", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_shops_email", columnNames = "email"),
+        @UniqueConstraint(name = "uk_shops_phone", columnNames = "phone")
+}, indexes = {
+        // Change feed order: updated date, then ID
+        @Index(name = "idx_shops_updated_date_id", columnList = "updated_date, id"),
+        // Bounding-box reads for nearby search while the in-memory geo index is being built
+        @Index(name = "idx_shops_latitude_longitude", columnList = "latitude, longitude")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Shop.CACHE_REGION)
+// Updates write only the changed columns
+@DynamicUpdate
 @Schema(description = "Shop entity representing a business establishment")
 public class Shop {
     
+    // Second-level cache region holding Shop entities, configured in HibernateCacheConfig
+    public static final String CACHE_REGION = "shop";
+    
+    // Pooled table-backed ID generator: one row update hands out a block of IDs,
+    // and unlike IDENTITY it lets Hibernate batch inserts. See ShopIdGeneratorAligner.
+    public static final String ID_GENERATOR_TABLE = "id_sequences";
+    public static final String ID_GENERATOR_ROW = "shops";
+    public static final int ID_ALLOCATION_SIZE = 50;
+    
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "shop_id")
+    @TableGenerator(
+            name = "shop_id",
+            table = ID_GENERATOR_TABLE,
+            pkColumnName = "sequence_name",
+            valueColumnName = "next_val",
+            pkColumnValue = ID_GENERATOR_ROW,
+            allocationSize = ID_ALLOCATION_SIZE
+    )
     @Schema(description = "Unique identifier of the shop", example = "1", accessMode = Schema.AccessMode.READ_ONLY)
     private Long id;
 
@@ -47,6 +82,26 @@ public class Shop {
     @Column(name = "updated_date")
     @Schema(description = "Timestamp when the shop was last updated", example = "2025-06-13T21:46:19", accessMode = Schema.AccessMode.READ_ONLY)
     private LocalDateTime updatedDate;
+
+    // Geocoded from the address on every write that changes it; null until geocoded or if the address could not be found
+    @Column(name = "latitude")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Schema(description = "Latitude geocoded from the address, or null if it could not be located", example = "40.7411", accessMode = Schema.AccessMode.READ_ONLY)
+    private Double latitude;
+
+    @Column(name = "longitude")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Schema(description = "Longitude geocoded from the address, or null if it could not be located", example = "-73.9897", accessMode = Schema.AccessMode.READ_ONLY)
+    private Double longitude;
+
+    // Optimistic lock: every UPDATE is conditioned on this value and increments it.
+    // The column default covers rows inserted with plain SQL (e.g. data.sql).
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Schema(description = "Incremented on every update; send it in If-Match to update only this version", example = "0", accessMode = Schema.AccessMode.READ_ONLY)
+    private Long version;
     
     // Constructors
     public Shop() {
@@ -128,6 +183,30 @@ public class Shop {
         this.updatedDate = updatedDate;
     }
     
+    public Double getLatitude() {
+        return latitude;
+    }
+    
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+    
+    public Double getLongitude() {
+        return longitude;
+    }
+    
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     @Override
     public String toString() {
         return "Shop{" +
@@ -136,8 +215,11 @@ public class Shop {
                 ", address='" + address + '\'' +
                 ", phone='" + phone + '\'' +
                 ", email='" + email + '\'' +
+                ", latitude=" + latitude +
+                ", longitude=" + longitude +
                 ", createdDate=" + createdDate +
                 ", updatedDate=" + updatedDate +
+                ", version=" + version +
                 '}';
     }
 }
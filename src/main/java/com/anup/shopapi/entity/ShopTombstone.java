@@ -0,0 +1,63 @@
+package com.anup.shopapi.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Record of a deleted shop, so the change feed can report deletions.
+ * Written in the same transaction as the delete and purged after the
+ * change feed retention period.
+ */
+@Entity
+@Table(name = "shop_tombstones", indexes = {
+        // Change feed order: deleted date, then shop ID
+        @Index(name = "idx_shop_tombstones_deleted_date_shop_id", columnList = "deleted_date, shop_id")
+})
+public class ShopTombstone {
+
+    @Id
+    @Column(name = "shop_id")
+    private Long shopId;
+
+    @Column(name = "deleted_date", nullable = false)
+    private LocalDateTime deletedDate;
+
+    // Constructors
+    public ShopTombstone() {
+    }
+
+    public ShopTombstone(Long shopId, LocalDateTime deletedDate) {
+        this.shopId = shopId;
+        this.deletedDate = deletedDate;
+    }
+
+    // Getters and Setters
+    public Long getShopId() {
+        return shopId;
+    }
+
+    public void setShopId(Long shopId) {
+        this.shopId = shopId;
+    }
+
+    public LocalDateTime getDeletedDate() {
+        return deletedDate;
+    }
+
+    public void setDeletedDate(LocalDateTime deletedDate) {
+        this.deletedDate = deletedDate;
+    }
+
+    @Override
+    public String toString() {
+        return "ShopTombstone{" +
+                "shopId=" + shopId +
+                ", deletedDate=" + deletedDate +
+                '}';
+    }
+}
@@ -0,0 +1,62 @@
+package com.anup.shopapi.event;
+
+import com.anup.shopapi.entity.Shop;
+
+/**
+ * Published by ShopService whenever a shop is created, updated or deleted.
+ * Listeners that keep derived state in memory should use
+ * {@code @TransactionalEventListener} so they only see committed changes.
+ */
+public class ShopChangedEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Type type;
+    private final Long shopId;
+    private final Shop shop;
+
+    private ShopChangedEvent(Type type, Long shopId, Shop shop) {
+        this.type = type;
+        this.shopId = shopId;
+        this.shop = shop;
+    }
+
+    public static ShopChangedEvent created(Shop shop) {
+        return new ShopChangedEvent(Type.CREATED, shop.getId(), shop);
+    }
+
+    public static ShopChangedEvent updated(Shop shop) {
+        return new ShopChangedEvent(Type.UPDATED, shop.getId(), shop);
+    }
+
+    public static ShopChangedEvent deleted(Long shopId) {
+        return new ShopChangedEvent(Type.DELETED, shopId, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getShopId() {
+        return shopId;
+    }
+
+    /**
+     * @return The shop as written, or null for deletions
+     */
+    public Shop getShop() {
+        return shop;
+    }
+
+    @Override
+    public String toString() {
+        return "ShopChangedEvent{" +
+                "type=" + type +
+                ", shopId=" + shopId +
+                '}';
+    }
+}
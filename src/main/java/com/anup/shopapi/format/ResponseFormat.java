@@ -0,0 +1,56 @@
+package com.anup.shopapi.format;
+
+import org.springframework.http.MediaType;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Encodings the shop list endpoints can respond with, chosen from the Accept header.
+ */
+public enum ResponseFormat {
+    JSON(MediaType.APPLICATION_JSON),
+    CBOR(MediaType.parseMediaType("application/cbor")),
+    SMILE(MediaType.parseMediaType("application/x-jackson-smile")),
+    PROTOBUF(MediaType.parseMediaType("application/x-protobuf"));
+
+    // Highest quality first, then concrete types before wildcards
+    private static final Comparator<MediaType> PREFERENCE = Comparator
+            .comparingDouble(MediaType::getQualityValue).reversed()
+            .thenComparing(MediaType::isWildcardType)
+            .thenComparing(MediaType::isWildcardSubtype);
+
+    private final MediaType mediaType;
+
+    ResponseFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Pick the format the client prefers. A missing header, or a wildcard, means JSON.
+     * @param accept Value of the Accept request header, may be null
+     * @return Preferred supported format, or null if the client accepts none of them
+     * @throws IllegalArgumentException if the header cannot be parsed
+     */
+    public static ResponseFormat negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return JSON;
+        }
+        List<MediaType> acceptable = MediaType.parseMediaTypes(accept).stream()
+                .filter(mediaType -> mediaType.getQualityValue() > 0)
+                .sorted(PREFERENCE)
+                .toList();
+        for (MediaType mediaType : acceptable) {
+            for (ResponseFormat format : values()) {
+                if (mediaType.includes(format.mediaType)) {
+                    return format;
+                }
+            }
+        }
+        return null;
+    }
+}
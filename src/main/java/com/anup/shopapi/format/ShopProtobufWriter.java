@@ -0,0 +1,152 @@
+package com.anup.shopapi.format;
+
+import com.anup.shopapi.entity.Shop;
+import com.anup.shopapi.repository.ShopField;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes shop list envelopes in the Protobuf wire format of {@code ShopListResponse}
+ * (src/main/proto/shop.proto), straight from the envelope map and the Shop entities
+ * or field rows in it, without building intermediate message objects.
+ */
+final class ShopProtobufWriter {
+
+    // ShopListResponse field numbers
+    private static final int SUCCESS = 1;
+    private static final int MESSAGE = 2;
+    private static final int DATA = 3;
+    private static final int COUNT = 4;
+    private static final int LIMIT = 5;
+    private static final int NEXT_CURSOR = 6;
+    private static final int SEARCH_TERM = 7;
+
+    private static final int OUTPUT_BUFFER_SIZE = 8192;
+
+    // Shop message field numbers, by ShopField ordinal
+    private static final int[] SHOP_FIELD_NUMBERS = new int[ShopField.values().length];
+
+    static {
+        for (ShopField field : ShopField.values()) {
+            SHOP_FIELD_NUMBERS[field.ordinal()] = switch (field) {
+                case ID -> 1;
+                case NAME -> 2;
+                case ADDRESS -> 3;
+                case PHONE -> 4;
+                case EMAIL -> 5;
+                case LATITUDE -> 6;
+                case LONGITUDE -> 7;
+                case CREATED_DATE -> 8;
+                case UPDATED_DATE -> 9;
+                case VERSION -> 10;
+            };
+        }
+    }
+
+    private ShopProtobufWriter() {
+    }
+
+    /**
+     * @param envelope Response envelope of the list or search endpoint
+     * @return Encoded ShopListResponse
+     * @throws IllegalArgumentException if the envelope has a property ShopListResponse does not define
+     */
+    static byte[] write(Map<String, Object> envelope) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(OUTPUT_BUFFER_SIZE);
+        CodedOutputStream output = CodedOutputStream.newInstance(bytes, OUTPUT_BUFFER_SIZE);
+        for (Map.Entry<String, Object> entry : envelope.entrySet()) {
+            Object value = entry.getValue();
+            if (value == null) {
+                continue;
+            }
+            switch (entry.getKey()) {
+                case "success" -> output.writeBool(SUCCESS, (Boolean) value);
+                case "message" -> output.writeString(MESSAGE, (String) value);
+                case "data" -> writeShops(output, (List<?>) value);
+                case "count" -> output.writeInt32(COUNT, ((Number) value).intValue());
+                case "limit" -> output.writeInt32(LIMIT, ((Number) value).intValue());
+                case "nextCursor" -> output.writeString(NEXT_CURSOR, (String) value);
+                case "searchTerm" -> output.writeString(SEARCH_TERM, (String) value);
+                default -> throw new IllegalArgumentException("ShopListResponse has no field for " + entry.getKey());
+            }
+        }
+        output.flush();
+        return bytes.toByteArray();
+    }
+
+    // Each shop is an embedded message, so its size is written before its fields
+    private static void writeShops(CodedOutputStream output, List<?> shops) throws IOException {
+        Object[] fields = new Object[SHOP_FIELD_NUMBERS.length];
+        for (Object shop : shops) {
+            collectFields(shop, fields);
+            int size = 0;
+            for (int i = 0; i < fields.length; i++) {
+                if (fields[i] != null) {
+                    size += fieldSize(SHOP_FIELD_NUMBERS[i], fields[i]);
+                }
+            }
+            output.writeTag(DATA, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            output.writeUInt32NoTag(size);
+            for (int i = 0; i < fields.length; i++) {
+                if (fields[i] != null) {
+                    writeField(output, SHOP_FIELD_NUMBERS[i], fields[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Fill fields, indexed by ShopField ordinal, from a Shop entity or a field row from a
+     * fields= query. Absent fields are null; dates are formatted as in the JSON responses.
+     */
+    @SuppressWarnings("unchecked")
+    private static void collectFields(Object shop, Object[] fields) {
+        if (shop instanceof Shop entity) {
+            fields[ShopField.ID.ordinal()] = entity.getId();
+            fields[ShopField.NAME.ordinal()] = entity.getName();
+            fields[ShopField.ADDRESS.ordinal()] = entity.getAddress();
+            fields[ShopField.PHONE.ordinal()] = entity.getPhone();
+            fields[ShopField.EMAIL.ordinal()] = entity.getEmail();
+            fields[ShopField.LATITUDE.ordinal()] = entity.getLatitude();
+            fields[ShopField.LONGITUDE.ordinal()] = entity.getLongitude();
+            fields[ShopField.CREATED_DATE.ordinal()] = entity.getCreatedDate();
+            fields[ShopField.UPDATED_DATE.ordinal()] = entity.getUpdatedDate();
+            fields[ShopField.VERSION.ordinal()] = entity.getVersion();
+        } else {
+            Map<String, Object> row = (Map<String, Object>) shop;
+            for (ShopField field : ShopField.values()) {
+                fields[field.ordinal()] = row.get(field.getName());
+            }
+        }
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i] instanceof LocalDateTime dateTime) {
+                fields[i] = DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(dateTime);
+            }
+        }
+    }
+
+    private static void writeField(CodedOutputStream output, int number, Object value) throws IOException {
+        switch (value) {
+            case Long longValue -> output.writeInt64(number, longValue);
+            case Double doubleValue -> output.writeDouble(number, doubleValue);
+            case String string -> output.writeString(number, string);
+            default -> throw new IllegalArgumentException("Unsupported Shop field value: " + value.getClass());
+        }
+    }
+
+    private static int fieldSize(int number, Object value) {
+        return switch (value) {
+            case Long longValue -> CodedOutputStream.computeInt64Size(number, longValue);
+            case Double doubleValue -> CodedOutputStream.computeDoubleSize(number, doubleValue);
+            case String string -> CodedOutputStream.computeStringSize(number, string);
+            default -> throw new IllegalArgumentException("Unsupported Shop field value: " + value.getClass());
+        };
+    }
+}
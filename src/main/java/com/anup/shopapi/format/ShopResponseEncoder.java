@@ -0,0 +1,48 @@
+package com.anup.shopapi.format;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Serializes the shop list envelopes in every {@link ResponseFormat}.
+ * CBOR and Smile use the same Jackson configuration as JSON, so they carry the
+ * same properties and values; Protobuf follows src/main/proto/shop.proto.
+ */
+@Component
+@Profile("!reactive")
+public class ShopResponseEncoder {
+
+    private final Map<ResponseFormat, ObjectMapper> jacksonMappers = new EnumMap<>(ResponseFormat.class);
+
+    /**
+     * @param objectMapper Application's JSON mapper
+     * @param mapperBuilder Builder with the application's Jackson configuration
+     */
+    @Autowired
+    public ShopResponseEncoder(ObjectMapper objectMapper, Jackson2ObjectMapperBuilder mapperBuilder) {
+        jacksonMappers.put(ResponseFormat.JSON, objectMapper);
+        jacksonMappers.put(ResponseFormat.CBOR, mapperBuilder.factory(new CBORFactory()).build());
+        jacksonMappers.put(ResponseFormat.SMILE, mapperBuilder.factory(new SmileFactory()).build());
+    }
+
+    /**
+     * @param envelope Response envelope of the list or search endpoint, success or error
+     * @param format Format to encode in
+     * @return Encoded body
+     */
+    public byte[] encode(Map<String, Object> envelope, ResponseFormat format) throws IOException {
+        if (format == ResponseFormat.PROTOBUF) {
+            return ShopProtobufWriter.write(envelope);
+        }
+        return jacksonMappers.get(format).writeValueAsBytes(envelope);
+    }
+}
@@ -0,0 +1,51 @@
+package com.anup.shopapi.geo;
+
+/**
+ * Latitude/longitude box enclosing every position within a distance of a centre.
+ * When the box crosses the antimeridian, {@code minLongitude} is greater than
+ * {@code maxLongitude}; when the circle reaches a pole, the box spans all longitudes.
+ * @param minLatitude Southern edge
+ * @param maxLatitude Northern edge
+ * @param minLongitude Western edge
+ * @param maxLongitude Eastern edge
+ */
+public record GeoBounds(double minLatitude, double maxLatitude, double minLongitude, double maxLongitude) {
+
+    /**
+     * Smallest box around a circle on the sphere (J. P. Matuschek, "Finding Points Within a Distance
+     * of a Latitude/Longitude Using Bounding Coordinates")
+     * @param center Centre of the circle
+     * @param radiusKm Radius of the circle
+     * @return Enclosing box
+     */
+    public static GeoBounds around(GeoPoint center, double radiusKm) {
+        double angularRadius = radiusKm / GeoPoint.EARTH_RADIUS_KM;
+        double latitudeDelta = Math.toDegrees(angularRadius);
+        double minLatitude = center.latitude() - latitudeDelta;
+        double maxLatitude = center.latitude() + latitudeDelta;
+        if (minLatitude <= -90 || maxLatitude >= 90) {
+            return new GeoBounds(Math.max(minLatitude, -90), Math.min(maxLatitude, 90), -180, 180);
+        }
+        double sinLongitudeDelta = Math.sin(angularRadius) / Math.cos(Math.toRadians(center.latitude()));
+        if (sinLongitudeDelta >= 1) {
+            return new GeoBounds(minLatitude, maxLatitude, -180, 180);
+        }
+        double longitudeDelta = Math.toDegrees(Math.asin(sinLongitudeDelta));
+        double minLongitude = center.longitude() - longitudeDelta;
+        double maxLongitude = center.longitude() + longitudeDelta;
+        if (minLongitude < -180) {
+            minLongitude += 360;
+        }
+        if (maxLongitude > 180) {
+            maxLongitude -= 360;
+        }
+        return new GeoBounds(minLatitude, maxLatitude, minLongitude, maxLongitude);
+    }
+
+    /**
+     * @return true if the box crosses the antimeridian
+     */
+    public boolean wrapsLongitude() {
+        return minLongitude > maxLongitude;
+    }
+}
@@ -0,0 +1,41 @@
+package com.anup.shopapi.geo;
+
+/**
+ * A position on the Earth in decimal degrees (WGS 84).
+ * @param latitude Latitude, -90 to 90
+ * @param longitude Longitude, -180 to 180
+ */
+public record GeoPoint(double latitude, double longitude) {
+
+    // Mean Earth radius
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+
+    public GeoPoint {
+        if (!(latitude >= -90 && latitude <= 90)) {
+            throw new IllegalArgumentException("Latitude must be between -90 and 90");
+        }
+        if (!(longitude >= -180 && longitude <= 180)) {
+            throw new IllegalArgumentException("Longitude must be between -180 and 180");
+        }
+    }
+
+    /**
+     * Great-circle (haversine) distance between two positions
+     * @return Distance in kilometres
+     */
+    public static double distanceKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double sinHalfLat = Math.sin(Math.toRadians(latitude2 - latitude1) / 2);
+        double sinHalfLon = Math.sin(Math.toRadians(longitude2 - longitude1) / 2);
+        double a = sinHalfLat * sinHalfLat
+                + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2)) * sinHalfLon * sinHalfLon;
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * @param other Other position
+     * @return Great-circle distance to the other position in kilometres
+     */
+    public double distanceKm(GeoPoint other) {
+        return distanceKm(latitude, longitude, other.latitude, other.longitude);
+    }
+}
@@ -0,0 +1,83 @@
+package com.anup.shopapi.geo;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Geocoder that needs no network, for local runs, tests and benchmarks. Enabled
+ * only by {@code shop.geocoder.type=offline}: the positions it makes up must not
+ * be written to a production database.
+ * <p>
+ * An address that is just a coordinate pair ({@code "40.7411, -73.9897"}) resolves
+ * to that position. Any other address is placed at a stable pseudo-random position
+ * within {@code shop.geocoder.offline.radius-km} of the configured centre, derived
+ * from a hash of the address, so the same address always gets the same position.
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "shop.geocoder.type", havingValue = "offline")
+public class OfflineShopGeocoder implements ShopGeocoder {
+
+    private static final Pattern COORDINATES = Pattern.compile("\\s*(-?\\d{1,3}(?:\\.\\d+)?)\\s*,\\s*(-?\\d{1,3}(?:\\.\\d+)?)\\s*");
+
+    private final GeoPoint center;
+    private final double radiusKm;
+
+    @Autowired
+    public OfflineShopGeocoder(@Value("${shop.geocoder.offline.latitude:40.7128}") double latitude,
+                               @Value("${shop.geocoder.offline.longitude:-74.0060}") double longitude,
+                               @Value("${shop.geocoder.offline.radius-km:25}") double radiusKm) {
+        this.center = new GeoPoint(latitude, longitude);
+        this.radiusKm = radiusKm;
+    }
+
+    @Override
+    public Optional<GeoPoint> geocode(String address) {
+        if (address == null || address.isBlank()) {
+            return Optional.empty();
+        }
+        Matcher coordinates = COORDINATES.matcher(address);
+        if (coordinates.matches()) {
+            double latitude = Double.parseDouble(coordinates.group(1));
+            double longitude = Double.parseDouble(coordinates.group(2));
+            if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+                return Optional.empty();
+            }
+            return Optional.of(new GeoPoint(latitude, longitude));
+        }
+
+        // Uniform over the disc: distance grows with the square root, bearing is uniform
+        UUID hash = UUID.nameUUIDFromBytes(address.strip().toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8));
+        double distance = radiusKm * Math.sqrt(unit(hash.getMostSignificantBits()));
+        double bearing = 2 * Math.PI * unit(hash.getLeastSignificantBits());
+        double latitude = center.latitude() + Math.toDegrees(distance * Math.cos(bearing) / GeoPoint.EARTH_RADIUS_KM);
+        double longitude = center.longitude() + Math.toDegrees(distance * Math.sin(bearing) / GeoPoint.EARTH_RADIUS_KM)
+                / Math.cos(Math.toRadians(center.latitude()));
+        return Optional.of(new GeoPoint(Math.max(-90, Math.min(90, latitude)), normalizeLongitude(longitude)));
+    }
+
+    // Top 53 bits as a double in [0, 1)
+    private static double unit(long bits) {
+        return (bits >>> 11) * 0x1.0p-53;
+    }
+
+    private static double normalizeLongitude(double longitude) {
+        if (longitude > 180) {
+            return longitude - 360;
+        }
+        if (longitude < -180) {
+            return longitude + 360;
+        }
+        return longitude;
+    }
+}
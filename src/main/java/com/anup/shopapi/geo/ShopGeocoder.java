@@ -0,0 +1,22 @@
+package com.anup.shopapi.geo;
+
+import java.util.Optional;
+
+/**
+ * Resolves a shop address to coordinates for nearby search.
+ * <p>
+ * Called by {@code ShopService} on every write that sets an address, inside the
+ * write's transaction, so implementations should answer quickly and cache what
+ * they can. No geocoder is registered by default, and shops then have no
+ * coordinates. {@link OfflineShopGeocoder} ({@code shop.geocoder.type=offline})
+ * makes up positions for local runs, tests and benchmarks; to use a real geocoding
+ * service, register a bean implementing this interface.
+ */
+public interface ShopGeocoder {
+
+    /**
+     * @param address Shop address
+     * @return Position of the address, or empty if it cannot be located
+     */
+    Optional<GeoPoint> geocode(String address);
+}
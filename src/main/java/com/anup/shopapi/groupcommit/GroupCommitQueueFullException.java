@@ -0,0 +1,12 @@
+package com.anup.shopapi.groupcommit;
+
+/**
+ * Thrown when a shop cannot be queued for creation because the group-commit queue is
+ * full or the writer is shutting down, and should be answered with 503
+ */
+public class GroupCommitQueueFullException extends RuntimeException {
+
+    public GroupCommitQueueFullException(String message) {
+        super(message);
+    }
+}
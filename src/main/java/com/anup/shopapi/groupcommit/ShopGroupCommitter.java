@@ -0,0 +1,208 @@
+package com.anup.shopapi.groupcommit;
+
+import com.anup.shopapi.entity.Shop;
+import com.anup.shopapi.service.ShopService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind creation of shops with group commit. Callers queue their shop and wait;
+ * a single writer thread takes the queued shops in groups of at most {@code max-batch-size},
+ * waiting up to {@code max-delay} for a group to fill, and inserts each group in one
+ * transaction with {@link ShopService#createShopGroup}. Every caller's future completes
+ * with its shop, ID set, once the shared commit and its after-commit listeners have run.
+ * <p>
+ * A group that fails is split in halves and each half retried, down to single shops,
+ * so one duplicate or invalid row fails only its own caller.
+ * <p>
+ * Queued shops live only in memory: on shutdown the writer finishes the queue, and
+ * shops that arrive too late are failed.
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "shop.group-commit.enabled")
+public class ShopGroupCommitter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShopGroupCommitter.class);
+
+    // How often an idle writer checks whether it should stop
+    private static final long IDLE_POLL_MILLIS = 100;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10000;
+
+    private record PendingShop(Shop shop, CompletableFuture<Shop> result) {
+    }
+
+    private final ShopService shopService;
+    private final BlockingQueue<PendingShop> queue;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final Thread writer;
+    private final DistributionSummary batchSizes;
+    private final Counter splits;
+    private volatile boolean running = true;
+
+    @Autowired
+    public ShopGroupCommitter(ShopService shopService,
+                              MeterRegistry meterRegistry,
+                              @Value("${shop.group-commit.queue-size:10000}") int queueSize,
+                              @Value("${shop.group-commit.max-batch-size:200}") int maxBatchSize,
+                              @Value("${shop.group-commit.max-delay:PT0.005S}") Duration maxDelay) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("shop.group-commit.max-batch-size must be at least 1");
+        }
+        this.shopService = shopService;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.writer = new Thread(this::run, "shop-group-commit");
+        this.writer.setDaemon(true);
+        Gauge.builder("shop.group.commit.queued", queue, BlockingQueue::size)
+                .description("Shops waiting to be inserted by the group-commit writer")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("shop.group.commit.batch.size")
+                .description("Shops per group-commit transaction, before any split")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.splits = Counter.builder("shop.group.commit.splits")
+                .description("Failed group-commit transactions retried in halves")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        writer.start();
+        logger.info("Group commit enabled: up to {} shops per transaction, waiting at most {} ms",
+                maxBatchSize, TimeUnit.NANOSECONDS.toMillis(maxDelayNanos));
+    }
+
+    /**
+     * Queue a shop for creation and wait until its group has committed
+     * @param shop Shop to create, already validated
+     * @return Created shop
+     * @throws GroupCommitQueueFullException if the queue is full or the writer is stopping
+     * @throws com.anup.shopapi.service.ShopDuplicateException if another shop has the same email or phone
+     * @throws InterruptedException if interrupted while waiting; the shop may still be created
+     */
+    public Shop create(Shop shop) throws InterruptedException {
+        try {
+            return submit(shop).get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Error creating shop: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Queue a shop for creation without waiting
+     * @param shop Shop to create, already validated
+     * @return Future completed with the created shop after its group commits, or with the reason it was not created
+     * @throws GroupCommitQueueFullException if the queue is full or the writer is stopping
+     */
+    public CompletableFuture<Shop> submit(Shop shop) {
+        if (!running) {
+            throw new GroupCommitQueueFullException("Server is shutting down, shop not queued");
+        }
+        PendingShop pending = new PendingShop(shop, new CompletableFuture<>());
+        if (!queue.offer(pending)) {
+            throw new GroupCommitQueueFullException("Server is busy, " + queue.size() + " shops are waiting to be created");
+        }
+        return pending.result();
+    }
+
+    private void run() {
+        List<PendingShop> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingShop first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // Shops that queued during the previous commit join at once; then wait up to max-delay for more
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatchSize) {
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() == maxBatchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingShop next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                logger.warn("Group-commit writer interrupted, finishing the queue");
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                batchSizes.record(batch.size());
+                commit(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<PendingShop> group) {
+        List<Shop> created;
+        try {
+            created = shopService.createShopGroup(group.stream().map(PendingShop::shop).toList());
+        } catch (Exception e) {
+            // Retrying in halves only helps when a row is at fault, not when the database is unavailable
+            if (group.size() == 1 || e instanceof CannotCreateTransactionException
+                    || e instanceof DataAccessResourceFailureException) {
+                logger.debug("Could not create {} shops: {}", group.size(), e.getMessage());
+                group.forEach(pending -> pending.result().completeExceptionally(e));
+                return;
+            }
+            logger.debug("Group of {} shops failed, retrying in halves: {}", group.size(), e.getMessage());
+            splits.increment();
+            int middle = group.size() / 2;
+            commit(group.subList(0, middle));
+            commit(group.subList(middle, group.size()));
+            return;
+        }
+        for (int index = 0; index < group.size(); index++) {
+            group.get(index).result().complete(created.get(index));
+        }
+    }
+
+    /**
+     * Stop accepting shops, let the writer finish the queue, and fail any shop queued after it stopped
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.join(SHUTDOWN_TIMEOUT_MILLIS);
+        PendingShop pending;
+        while ((pending = queue.poll()) != null) {
+            pending.result().completeExceptionally(
+                    new GroupCommitQueueFullException("Server is shutting down, shop not created"));
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.anup.shopapi.index;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter over strings.
+ * <p>
+ * Bits are set with compare-and-swap, so adds and lookups may run concurrently
+ * without locking. Entries cannot be removed; {@link #clear()} must not run
+ * concurrently with {@link #put(String)}.
+ */
+final class BloomFilter {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final long SECOND_HASH_SEED = 0x9e3779b97f4a7c15L;
+
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+    private final AtomicLong bitsSet = new AtomicLong();
+
+    /**
+     * @param expectedEntries Number of entries the filter is sized for
+     * @param falsePositiveRate Target false-positive rate at that number of entries
+     */
+    BloomFilter(long expectedEntries, double falsePositiveRate) {
+        if (expectedEntries < 1) {
+            throw new IllegalArgumentException("Expected entries must be at least 1");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False-positive rate must be between 0 and 1");
+        }
+        // Optimal sizing: m = -n ln p / (ln 2)^2 bits and k = m/n ln 2 hash functions
+        long optimalBits = (long) Math.ceil(-expectedEntries * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int wordCount = Math.toIntExact(Math.max(1, (optimalBits + 63) / 64));
+        this.words = new AtomicLongArray(wordCount);
+        this.bits = wordCount * 64L;
+        this.hashes = Math.max(1, (int) Math.round((double) bits / expectedEntries * Math.log(2)));
+    }
+
+    /**
+     * @param key Key to add
+     */
+    void put(String key) {
+        long h1 = hash(key);
+        long h2 = mix(h1 ^ SECOND_HASH_SEED) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = ((h1 + i * h2) & Long.MAX_VALUE) % bits;
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(word);
+            while ((current & mask) == 0) {
+                long witness = words.compareAndExchange(word, current, current | mask);
+                if (witness == current) {
+                    bitsSet.incrementAndGet();
+                    break;
+                }
+                current = witness;
+            }
+        }
+    }
+
+    /**
+     * @param key Key to look up
+     * @return false if the key was definitely never added, true if it may have been
+     */
+    boolean mightContain(String key) {
+        long h1 = hash(key);
+        long h2 = mix(h1 ^ SECOND_HASH_SEED) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = ((h1 + i * h2) & Long.MAX_VALUE) % bits;
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Remove every key
+     */
+    void clear() {
+        for (int i = 0; i < words.length(); i++) {
+            words.set(i, 0);
+        }
+        bitsSet.set(0);
+    }
+
+    /**
+     * @return Probability that a key that was never added is reported as present,
+     *         estimated from the fraction of bits set
+     */
+    double expectedFalsePositiveRate() {
+        return Math.pow((double) bitsSet.get() / bits, hashes);
+    }
+
+    // 64-bit FNV-1a over the UTF-16 chars, then a finalizer to spread the bits
+    private static long hash(String key) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return mix(hash);
+    }
+
+    // MurmurHash3 fmix64
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb93fe53a87ebL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,205 @@
+package com.anup.shopapi.index;
+
+import com.anup.shopapi.entity.Shop;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Bloom filters over every shop's email and phone, so lookups and duplicate
+ * checks for a value no shop has are answered without querying the database.
+ * <p>
+ * Values are compared lower-cased and stripped, which only makes the filter more
+ * conservative than the database. Bloom filters cannot remove entries: values
+ * of deleted or changed shops stay in the filter until the next rebuild and
+ * only cost an occasional false positive, which falls through to the database.
+ * <p>
+ * Ruling out a value assumes this instance makes every write to the shops table.
+ * Values written elsewhere (other instances, the reactive stack, SQL) only reach the
+ * filter at the next index catch-up, and until then lookups for them would wrongly
+ * find nothing. So once a catch-up finds such a write, or when
+ * {@code shop.contact-filter.single-writer} is false, every lookup queries the database.
+ * <p>
+ * Per field, publishes {@value #RATE_METRIC} (estimated from the bits set, and
+ * observed from lookups) and {@value #CHECKS_METRIC} counted by result.
+ */
+@Component
+@Profile("!reactive")
+public class ShopContactFilter implements ShopIndex {
+
+    static final String RATE_METRIC = "shop.contact.filter.false.positive.rate";
+    static final String CHECKS_METRIC = "shop.contact.filter.checks";
+
+    private static final Logger logger = LoggerFactory.getLogger(ShopContactFilter.class);
+
+    /**
+     * Contact fields covered by the filter
+     */
+    public enum Field {
+        EMAIL("email", Shop::getEmail),
+        PHONE("phone", Shop::getPhone);
+
+        private final String name;
+        private final Function<Shop, String> getter;
+
+        Field(String name, Function<Shop, String> getter) {
+            this.name = name;
+            this.getter = getter;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @param shop Shop to read
+         * @return The shop's value for this field, or null
+         */
+        public String get(Shop shop) {
+            return getter.apply(shop);
+        }
+    }
+
+    private final Map<Field, FieldFilter> filters = new EnumMap<>(Field.class);
+    // Adds share the read lock (bits are set atomically); clearing takes the write lock
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+    // Whether values the filter has not seen can be ruled out; stays off once other writers are found
+    private volatile boolean authoritative;
+
+    @Autowired
+    public ShopContactFilter(MeterRegistry meterRegistry,
+                             @Value("${shop.contact-filter.expected-shops:1000000}") long expectedShops,
+                             @Value("${shop.contact-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                             @Value("${shop.contact-filter.single-writer:true}") boolean singleWriter) {
+        this.authoritative = singleWriter;
+        for (Field field : Field.values()) {
+            filters.put(field, new FieldFilter(new BloomFilter(expectedShops, falsePositiveRate), meterRegistry, field));
+        }
+    }
+
+    /**
+     * Look up a shop by a contact field, skipping the database query when the
+     * filter shows that no shop has the value and no other writer has been found.
+     * @param field Field to match
+     * @param value Value to look for
+     * @param query Database lookup, run only if a shop may have the value
+     * @return Shop with the value, or empty if there is none
+     */
+    public Optional<Shop> find(Field field, String value, Function<String, Optional<Shop>> query) {
+        if (!ready || !authoritative) {
+            return query.apply(value);
+        }
+        FieldFilter filter = filters.get(field);
+        if (!filter.bloomFilter.mightContain(normalize(value))) {
+            filter.absent.increment();
+            return Optional.empty();
+        }
+        Optional<Shop> shop = query.apply(value);
+        (shop.isPresent() ? filter.present : filter.falsePositive).increment();
+        return shop;
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            filters.values().forEach(filter -> filter.bloomFilter.clear());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void put(Shop shop) {
+        lock.readLock().lock();
+        try {
+            filters.forEach((field, filter) -> {
+                String value = field.get(shop);
+                if (value != null) {
+                    filter.bloomFilter.put(normalize(value));
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long id) {
+        // Entries cannot be removed; the shop's values become false positives until the next rebuild
+    }
+
+    @Override
+    public void markReady() {
+        ready = true;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public void onExternalWrites() {
+        if (authoritative) {
+            authoritative = false;
+            logger.warn("Shops are also written elsewhere, email and phone lookups will query the database");
+        }
+    }
+
+    private static String normalize(String value) {
+        return value.strip().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class FieldFilter {
+
+        private final BloomFilter bloomFilter;
+        // Lookups the filter answered: value absent, value found, or a false positive that hit the database
+        private final Counter absent;
+        private final Counter present;
+        private final Counter falsePositive;
+
+        private FieldFilter(BloomFilter bloomFilter, MeterRegistry meterRegistry, Field field) {
+            this.bloomFilter = bloomFilter;
+            this.absent = checks(meterRegistry, field, "absent");
+            this.present = checks(meterRegistry, field, "present");
+            this.falsePositive = checks(meterRegistry, field, "false_positive");
+            Gauge.builder(RATE_METRIC, bloomFilter, BloomFilter::expectedFalsePositiveRate)
+                    .description("Probability that a value no shop has is not ruled out by the filter")
+                    .tags("field", field.getName(), "source", "estimated")
+                    .register(meterRegistry);
+            Gauge.builder(RATE_METRIC, this, FieldFilter::observedFalsePositiveRate)
+                    .description("Fraction of lookups for a value no shop has that the filter did not rule out")
+                    .tags("field", field.getName(), "source", "observed")
+                    .register(meterRegistry);
+        }
+
+        private static Counter checks(MeterRegistry meterRegistry, Field field, String result) {
+            return Counter.builder(CHECKS_METRIC)
+                    .description("Contact lookups by how the filter answered them")
+                    .tags("field", field.getName(), "result", result)
+                    .register(meterRegistry);
+        }
+
+        private double observedFalsePositiveRate() {
+            double negatives = absent.count() + falsePositive.count();
+            return negatives == 0 ? 0 : falsePositive.count() / negatives;
+        }
+    }
+}
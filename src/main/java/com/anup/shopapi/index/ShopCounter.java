@@ -0,0 +1,162 @@
+package com.anup.shopapi.index;
+
+import com.anup.shopapi.datasource.ReplicaRoutingDataSource;
+import com.anup.shopapi.event.ShopChangedEvent;
+import com.anup.shopapi.repository.ShopRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory count of rows in the shops table.
+ * <p>
+ * Seeded from the database on startup, adjusted after every committed create
+ * or delete, and periodically reconciled against {@code COUNT(*)} to correct
+ * drift from rows written outside the application. Reading the count never
+ * touches the database.
+ * <p>
+ * A reconciliation only applies its result if no change was applied while the
+ * database was counting, and no create or delete is between its commit and the
+ * count update (its row may already be counted); otherwise it is left to the next run.
+ */
+@Component
+@Profile("!reactive")
+public class ShopCounter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShopCounter.class);
+
+    private static final int SEED_ATTEMPTS = 3;
+
+    private final ShopRepository shopRepository;
+
+    private final LongAdder count = new LongAdder();
+    // Number of changes applied so far; lets a reconciliation detect changes that raced with its query
+    private final AtomicLong changes = new AtomicLong();
+    // Creates and deletes whose transaction is committing but whose change is not yet applied.
+    // Held by identity: a rolled-back transaction completes without having started to commit.
+    private final Set<ShopChangedEvent> committing = ConcurrentHashMap.newKeySet();
+    // Changes share the read lock; a reconciliation takes the write lock to apply its correction
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    @Autowired
+    public ShopCounter(ShopRepository shopRepository) {
+        this.shopRepository = shopRepository;
+    }
+
+    /**
+     * @return true once the count has been seeded from the database
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @return Current number of shops
+     */
+    public long get() {
+        return count.sum();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedOnStartup() {
+        for (int attempt = 1; attempt <= SEED_ATTEMPTS && !ready; attempt++) {
+            reconcile();
+        }
+        if (!ready) {
+            logger.warn("Shop count changed during every seeding attempt, counts will use the database until the next reconciliation");
+        }
+    }
+
+    /**
+     * Compare the count with the database and correct it if they differ.
+     * Runs on a fixed delay, configured by {@code shop.count.reconcile-interval}.
+     */
+    @Scheduled(initialDelayString = "${shop.count.reconcile-interval:PT5M}",
+               fixedDelayString = "${shop.count.reconcile-interval:PT5M}")
+    public void reconcile() {
+        try {
+            long changesBefore = changes.get();
+            // Counted on the primary: a lagging replica would look like drift
+            long actual = ReplicaRoutingDataSource.onPrimary(shopRepository::count);
+
+            lock.writeLock().lock();
+            try {
+                if (changes.get() != changesBefore || !committing.isEmpty()) {
+                    logger.debug("Shops changed while counting, skipping shop count reconciliation");
+                    return;
+                }
+                long drift = actual - count.sum();
+                if (drift != 0) {
+                    count.add(drift);
+                    if (ready) {
+                        logger.warn("Shop count drifted by {}, corrected to {}", drift, actual);
+                    }
+                }
+                if (!ready) {
+                    ready = true;
+                    logger.info("Shop count seeded from database: {}", actual);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (Exception e) {
+            logger.error("Failed to reconcile shop count: {}", e.getMessage(), e);
+        }
+    }
+
+    // From here until the transaction completes, COUNT(*) may include the change before the count does
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onShopCommitting(ShopChangedEvent event) {
+        if (delta(event) != 0) {
+            committing.add(event);
+        }
+    }
+
+    // After the commit listeners, whether the transaction committed or rolled back
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
+    public void onShopCommitted(ShopChangedEvent event) {
+        committing.remove(event);
+    }
+
+    // Runs before other listeners, so those reading the count (e.g. the event stream) see the change
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onShopChanged(ShopChangedEvent event) {
+        int delta = delta(event);
+        if (delta == 0) {
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            count.add(delta);
+            changes.incrementAndGet();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static int delta(ShopChangedEvent event) {
+        return switch (event.getType()) {
+            case CREATED -> 1;
+            case DELETED -> -1;
+            case UPDATED -> 0;
+        };
+    }
+}
@@ -0,0 +1,222 @@
+package com.anup.shopapi.index;
+
+import com.anup.shopapi.entity.Shop;
+import com.anup.shopapi.geo.GeoBounds;
+import com.anup.shopapi.geo.GeoPoint;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Shop positions on a fixed latitude/longitude grid, for nearest-shop search.
+ * <p>
+ * Each cell is {@code shop.nearby.cell-size-degrees} square and keeps its shops'
+ * IDs and coordinates in parallel arrays. A query visits only the cells
+ * overlapping the bounding box of the search circle, measures the great-circle
+ * distance to each shop in them and keeps the nearest in a bounded heap, so its
+ * cost depends on the radius and the local shop density, not on the number of
+ * shops. Shops without coordinates are not indexed.
+ */
+@Component
+@Profile("!reactive")
+public class ShopGeoIndex implements ShopIndex {
+
+    /**
+     * A shop within the search radius
+     * @param id Shop ID
+     * @param distanceKm Great-circle distance from the search centre
+     */
+    public record Match(long id, double distanceKm) {
+    }
+
+    private final double cellSize;
+    private final int latitudeCells;
+    private final int longitudeCells;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Cell> cells = new HashMap<>();
+    // Shop ID to the key of the cell holding it
+    private final Map<Long, Long> cellKeys = new HashMap<>();
+    private volatile boolean ready;
+
+    @Autowired
+    public ShopGeoIndex(@Value("${shop.nearby.cell-size-degrees:0.05}") double cellSize) {
+        if (!(cellSize > 0 && cellSize <= 90)) {
+            throw new IllegalArgumentException("Cell size must be greater than 0 and at most 90 degrees");
+        }
+        this.cellSize = cellSize;
+        this.latitudeCells = (int) Math.ceil(180 / cellSize);
+        this.longitudeCells = (int) Math.ceil(360 / cellSize);
+    }
+
+    /**
+     * @param center Search centre
+     * @param radiusKm Search radius
+     * @param limit Maximum number of matches
+     * @return Up to limit shops within the radius, nearest first (ties by ID)
+     */
+    public List<Match> nearest(GeoPoint center, double radiusKm, int limit) {
+        GeoBounds bounds = GeoBounds.around(center, radiusKm);
+        int fromLatitude = latitudeIndex(bounds.minLatitude());
+        int toLatitude = latitudeIndex(bounds.maxLatitude());
+        int fromLongitude = longitudeIndex(bounds.minLongitude());
+        int longitudeSpan = Math.floorMod(longitudeIndex(bounds.maxLongitude()) - fromLongitude, longitudeCells) + 1;
+        if (bounds.minLongitude() == -180 && bounds.maxLongitude() == 180) {
+            longitudeSpan = longitudeCells;
+        }
+
+        // Farthest match on top, so it is the one dropped when a nearer shop is found
+        Comparator<Match> nearestFirst = Comparator.comparingDouble(Match::distanceKm).thenComparingLong(Match::id);
+        PriorityQueue<Match> nearest = new PriorityQueue<>(limit + 1, nearestFirst.reversed());
+        lock.readLock().lock();
+        try {
+            for (int latitude = fromLatitude; latitude <= toLatitude; latitude++) {
+                for (int i = 0; i < longitudeSpan; i++) {
+                    Cell cell = cells.get(cellKey(latitude, (fromLongitude + i) % longitudeCells));
+                    if (cell != null) {
+                        cell.collect(center, radiusKm, limit, nearest, nearestFirst);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Match> matches = new ArrayList<>(nearest);
+        matches.sort(nearestFirst);
+        return matches;
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            cells.clear();
+            cellKeys.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void put(Shop shop) {
+        lock.writeLock().lock();
+        try {
+            unindex(shop.getId());
+            if (shop.getLatitude() != null && shop.getLongitude() != null) {
+                long key = cellKey(latitudeIndex(shop.getLatitude()), longitudeIndex(shop.getLongitude()));
+                cells.computeIfAbsent(key, k -> new Cell()).add(shop.getId(), shop.getLatitude(), shop.getLongitude());
+                cellKeys.put(shop.getId(), key);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            unindex(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void markReady() {
+        ready = true;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    private void unindex(Long id) {
+        Long key = cellKeys.remove(id);
+        if (key != null) {
+            Cell cell = cells.get(key);
+            cell.remove(id);
+            if (cell.size == 0) {
+                cells.remove(key);
+            }
+        }
+    }
+
+    private int latitudeIndex(double latitude) {
+        return Math.min((int) Math.floor((latitude + 90) / cellSize), latitudeCells - 1);
+    }
+
+    private int longitudeIndex(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180) / cellSize), longitudeCells);
+    }
+
+    private long cellKey(int latitudeIndex, int longitudeIndex) {
+        return (long) latitudeIndex * longitudeCells + longitudeIndex;
+    }
+
+    /**
+     * Shops in one grid cell. Not thread-safe; guarded by the enclosing lock.
+     */
+    private static final class Cell {
+
+        private long[] ids = new long[4];
+        private double[] latitudes = new double[4];
+        private double[] longitudes = new double[4];
+        private int size;
+
+        private void add(long id, double latitude, double longitude) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                latitudes = Arrays.copyOf(latitudes, size * 2);
+                longitudes = Arrays.copyOf(longitudes, size * 2);
+            }
+            ids[size] = id;
+            latitudes[size] = latitude;
+            longitudes[size] = longitude;
+            size++;
+        }
+
+        private void remove(long id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    // Order within a cell does not matter: move the last entry into the gap
+                    size--;
+                    ids[i] = ids[size];
+                    latitudes[i] = latitudes[size];
+                    longitudes[i] = longitudes[size];
+                    return;
+                }
+            }
+        }
+
+        private void collect(GeoPoint center, double radiusKm, int limit,
+                             PriorityQueue<Match> nearest, Comparator<Match> nearestFirst) {
+            for (int i = 0; i < size; i++) {
+                double distance = GeoPoint.distanceKm(center.latitude(), center.longitude(), latitudes[i], longitudes[i]);
+                if (distance > radiusKm) {
+                    continue;
+                }
+                Match match = new Match(ids[i], distance);
+                if (nearest.size() < limit) {
+                    nearest.add(match);
+                } else if (nearestFirst.compare(match, nearest.peek()) < 0) {
+                    nearest.poll();
+                    nearest.add(match);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.anup.shopapi.index;
+
+import com.anup.shopapi.entity.Shop;
+
+/**
+ * An in-memory structure derived from the shops table.
+ * Implementations are rebuilt from the database on startup and kept in sync
+ * with committed writes by {@link ShopIndexMaintainer}. All methods must be
+ * safe to call concurrently with reads.
+ */
+public interface ShopIndex {
+
+    /**
+     * Drop all entries and mark the index not ready, ahead of a rebuild
+     */
+    void clear();
+
+    /**
+     * Add a shop, replacing any entry with the same ID
+     * @param shop Shop to index
+     */
+    void put(Shop shop);
+
+    /**
+     * Remove a shop if present
+     * @param id Shop ID
+     */
+    void remove(Long id);
+
+    /**
+     * Called once the rebuild from the database has completed
+     */
+    void markReady();
+
+    /**
+     * @return true once the index reflects the whole table
+     */
+    boolean isReady();
+
+    /**
+     * Called once a catch-up finds a change this instance did not make: other instances,
+     * the reactive stack or SQL also write the shops table. Their changes only reach the
+     * index at each catch-up, so an index that answers "no such shop" on its own should
+     * stop doing so. Does nothing by default.
+     */
+    default void onExternalWrites() {
+    }
+}
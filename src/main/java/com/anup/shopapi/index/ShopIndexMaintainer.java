@@ -0,0 +1,281 @@
+package com.anup.shopapi.index;
+
+import com.anup.shopapi.datasource.ReplicaRoutingDataSource;
+import com.anup.shopapi.entity.Shop;
+import com.anup.shopapi.event.ShopChangedEvent;
+import com.anup.shopapi.service.ShopChange;
+import com.anup.shopapi.service.ShopChangePage;
+import com.anup.shopapi.service.ShopChangesExpiredException;
+import com.anup.shopapi.service.ShopService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps every {@link ShopIndex} in sync with the shops table.
+ * All indexes are filled from a single streaming pass over the table on startup,
+ * then updated from {@link ShopChangedEvent}s after each write commits.
+ * <p>
+ * Events only cover writes committed by this instance, so the indexes also catch up
+ * from the change feed every {@code shop.index.catch-up-interval}, which picks up
+ * shops written by other instances, the reactive stack or SQL that sets updated_date.
+ * <p>
+ * The first change a catch-up finds that this instance did not make is reported to
+ * every index with {@link ShopIndex#onExternalWrites()}. Changes from before the last
+ * rebuild are not counted, since they may come from an earlier run of this instance.
+ */
+@Component
+@Profile("!reactive")
+public class ShopIndexMaintainer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShopIndexMaintainer.class);
+
+    // Largest page the change feed returns
+    private static final int CATCH_UP_PAGE_SIZE = 500;
+    // Version recorded for a shop this instance deleted
+    private static final long DELETED = Long.MAX_VALUE;
+
+    private record LocalWrite(long version, LocalDateTime recordedAt) {
+    }
+
+    private final List<ShopIndex> indexes;
+    private final ShopService shopService;
+    private final Duration changesSettleTime;
+
+    // Held by a rebuild or catch-up, so only one of them reads the database at a time
+    private final Lock syncLock = new ReentrantLock();
+    // Serializes rows read from the database against concurrent change events while syncing
+    private final Lock applyLock = new ReentrantLock();
+    // Shops changed while a rebuild or catch-up is running; the rows it read for them may be stale
+    private final Set<Long> touchedDuringSync = ConcurrentHashMap.newKeySet();
+    private volatile boolean syncing;
+    // Change feed position the next catch-up starts from; null until a rebuild has succeeded
+    private volatile String catchUpCursor;
+    // Start of the last successful rebuild
+    private volatile LocalDateTime rebuiltFrom;
+    // Writes of this instance that a catch-up may not have read back yet: shop ID to the version
+    // written, or DELETED. A change in the feed that is not covered here was made by another writer.
+    private final Map<Long, LocalWrite> localWrites = new ConcurrentHashMap<>();
+    private volatile boolean externalWritesSeen;
+
+    @Autowired
+    public ShopIndexMaintainer(List<ShopIndex> indexes,
+                               ShopService shopService,
+                               @Value("${shop.changes.settle-time:PT2S}") Duration changesSettleTime) {
+        this.indexes = indexes;
+        this.shopService = shopService;
+        this.changesSettleTime = changesSettleTime;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuild();
+    }
+
+    /**
+     * Rebuild every index from the database. Indexes report not ready while this runs,
+     * so callers fall back to database queries until it completes.
+     */
+    public void rebuild() {
+        syncLock.lock();
+        try {
+            logger.info("Rebuilding {} shop indexes from database", indexes.size());
+            long start = System.nanoTime();
+            LocalDateTime startTime = LocalDateTime.now();
+            catchUpCursor = null;
+            startSync();
+            indexes.forEach(ShopIndex::clear);
+
+            // Read from the primary: change events only cover writes committed there
+            long loaded = ReplicaRoutingDataSource.onPrimary(() -> shopService.exportShops(this::applyRow));
+
+            indexes.forEach(ShopIndex::markReady);
+            rebuiltFrom = startTime;
+            catchUpCursor = shopService.getChangesCursor(startTime);
+            logger.info("Rebuilt shop indexes with {} shops in {} ms", loaded, (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            logger.error("Failed to rebuild shop indexes, queries will use the database: {}", e.getMessage(), e);
+        } finally {
+            if (catchUpCursor == null) {
+                // No catch-up will read these back
+                localWrites.clear();
+            }
+            endSync();
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Apply changes from the change feed since the last rebuild or catch-up. Changes this
+     * instance already applied from its events are applied again, which is harmless.
+     * Runs on a fixed delay, configured by {@code shop.index.catch-up-interval}; skipped
+     * while a rebuild is running or after one has failed.
+     */
+    @Scheduled(initialDelayString = "${shop.index.catch-up-interval:PT30S}",
+               fixedDelayString = "${shop.index.catch-up-interval:PT30S}")
+    public void catchUp() {
+        if (catchUpCursor == null || !syncLock.tryLock()) {
+            return;
+        }
+        boolean expired = false;
+        try {
+            startSync();
+            LocalDateTime startTime = LocalDateTime.now();
+            String cursor = catchUpCursor;
+            long applied = 0;
+            long external = 0;
+            ShopChangePage page;
+            do {
+                String since = cursor;
+                page = ReplicaRoutingDataSource.onPrimary(() -> shopService.getChanges(since, CATCH_UP_PAGE_SIZE));
+                for (ShopChange change : page.getChanges()) {
+                    if (isExternal(change)) {
+                        external++;
+                    }
+                    if (change.getType() == ShopChange.Type.DELETED) {
+                        applyRemoval(change.getId());
+                    } else {
+                        applyRow(change.getShop());
+                    }
+                }
+                applied += page.getChanges().size();
+                cursor = page.getNextCursor();
+            } while (page.hasMore());
+            catchUpCursor = cursor;
+            // Writes recorded by then had updated dates before this run's horizon, so it has read them
+            LocalDateTime readUpTo = startTime.minus(changesSettleTime);
+            localWrites.values().removeIf(write -> write.recordedAt().isBefore(readUpTo));
+            if (external > 0) {
+                onExternalWrites(external);
+            }
+            logger.debug("Shop indexes caught up with {} changes, {} made elsewhere", applied, external);
+        } catch (ShopChangesExpiredException e) {
+            expired = true;
+        } catch (Exception e) {
+            logger.error("Failed to catch up shop indexes, retrying on the next run: {}", e.getMessage(), e);
+        } finally {
+            endSync();
+            syncLock.unlock();
+        }
+        if (expired) {
+            logger.warn("Shop indexes fell behind the change feed retention, rebuilding");
+            rebuild();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onShopChanged(ShopChangedEvent event) {
+        try {
+            if (catchUpCursor != null || syncing) {
+                recordLocalWrite(event);
+            }
+            if (syncing) {
+                applyLock.lock();
+                try {
+                    touchedDuringSync.add(event.getShopId());
+                    apply(event);
+                } finally {
+                    applyLock.unlock();
+                }
+            } else {
+                apply(event);
+            }
+        } catch (Exception e) {
+            // The write is already committed; a failed index update must not fail the request
+            logger.error("Failed to apply {} to shop indexes: {}", event, e.getMessage(), e);
+        }
+    }
+
+    private void recordLocalWrite(ShopChangedEvent event) {
+        long version = DELETED;
+        if (event.getType() != ShopChangedEvent.Type.DELETED) {
+            version = Objects.requireNonNullElse(event.getShop().getVersion(), 0L);
+        }
+        // Listeners of two writes to the same shop may run out of order; keep the later version
+        localWrites.merge(event.getShopId(), new LocalWrite(version, LocalDateTime.now()),
+                (previous, latest) -> new LocalWrite(Math.max(previous.version(), latest.version()), latest.recordedAt()));
+    }
+
+    private boolean isExternal(ShopChange change) {
+        LocalDateTime from = rebuiltFrom;
+        if (from == null || change.getChangedAt().isBefore(from)) {
+            return false;
+        }
+        LocalWrite local = localWrites.get(change.getId());
+        if (local == null) {
+            return true;
+        }
+        return change.getType() == ShopChange.Type.DELETED
+                ? local.version() != DELETED
+                : local.version() < Objects.requireNonNullElse(change.getShop().getVersion(), 0L);
+    }
+
+    private void onExternalWrites(long changes) {
+        if (externalWritesSeen) {
+            return;
+        }
+        externalWritesSeen = true;
+        logger.warn("Found {} shop changes made by another instance, the reactive stack or SQL; "
+                + "such changes only reach the shop indexes at each catch-up", changes);
+        indexes.forEach(ShopIndex::onExternalWrites);
+    }
+
+    private void startSync() {
+        touchedDuringSync.clear();
+        syncing = true;
+    }
+
+    private void endSync() {
+        syncing = false;
+        touchedDuringSync.clear();
+    }
+
+    // A row read while syncing, skipped if an event has since applied a newer state
+    private void applyRow(Shop shop) {
+        applyLock.lock();
+        try {
+            if (!touchedDuringSync.contains(shop.getId())) {
+                indexes.forEach(index -> index.put(shop));
+            }
+        } finally {
+            applyLock.unlock();
+        }
+    }
+
+    private void applyRemoval(Long id) {
+        applyLock.lock();
+        try {
+            if (!touchedDuringSync.contains(id)) {
+                indexes.forEach(index -> index.remove(id));
+            }
+        } finally {
+            applyLock.unlock();
+        }
+    }
+
+    private void apply(ShopChangedEvent event) {
+        if (event.getType() == ShopChangedEvent.Type.DELETED) {
+            indexes.forEach(index -> index.remove(event.getShopId()));
+        } else {
+            indexes.forEach(index -> index.put(event.getShop()));
+        }
+    }
+}
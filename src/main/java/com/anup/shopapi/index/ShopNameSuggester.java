@@ -0,0 +1,348 @@
+package com.anup.shopapi.index;
+
+import com.anup.shopapi.entity.Shop;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Type-ahead suggestions for shop names, served from two radix tries.
+ * <p>
+ * The first trie holds each full lower-cased name, the second holds the name
+ * from every later word onwards ("cozy coffee corner" also gives "coffee corner"
+ * and "corner"), so a prefix matches the start of any word. Full-name matches
+ * are returned before mid-name matches; each group is in alphabetical order.
+ * A lookup walks the prefix and then visits only as many nodes as it needs to
+ * fill the limit, so it does not depend on the number of shops.
+ */
+@Component
+@Profile("!reactive")
+public class ShopNameSuggester implements ShopIndex {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, String> names = new HashMap<>();
+    private final RadixTrie nameStarts = new RadixTrie();
+    private final RadixTrie wordStarts = new RadixTrie();
+    private volatile boolean ready;
+
+    /**
+     * @param prefix Prefix typed so far, matched case-insensitively against the start of any word
+     * @param limit Maximum number of suggestions
+     * @return Up to limit suggestions, full-name matches first
+     */
+    public List<ShopSuggestion> suggest(String prefix, int limit) {
+        String key = normalize(prefix).stripLeading();
+        Set<Long> ids = new LinkedHashSet<>();
+        List<ShopSuggestion> suggestions = new ArrayList<>(limit);
+        lock.readLock().lock();
+        try {
+            nameStarts.collect(key, limit, ids);
+            wordStarts.collect(key, limit, ids);
+            for (Long id : ids) {
+                suggestions.add(new ShopSuggestion(id, names.get(id)));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return suggestions;
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            names.clear();
+            nameStarts.clear();
+            wordStarts.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void put(Shop shop) {
+        lock.writeLock().lock();
+        try {
+            String previous = names.put(shop.getId(), shop.getName());
+            if (previous != null) {
+                unindex(shop.getId(), previous);
+            }
+            index(shop.getId(), shop.getName());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            String previous = names.remove(id);
+            if (previous != null) {
+                unindex(id, previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void markReady() {
+        ready = true;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    private void index(long id, String name) {
+        String key = normalize(name);
+        nameStarts.insert(key, id);
+        for (int start : laterWordStarts(key)) {
+            wordStarts.insert(key.substring(start), id);
+        }
+    }
+
+    private void unindex(long id, String name) {
+        String key = normalize(name);
+        nameStarts.remove(key, id);
+        for (int start : laterWordStarts(key)) {
+            wordStarts.remove(key.substring(start), id);
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Offsets of every word after the first, where a word starts at a letter or digit
+     * that follows any other character.
+     */
+    private static List<Integer> laterWordStarts(String text) {
+        List<Integer> starts = new ArrayList<>();
+        for (int i = 1; i < text.length(); i++) {
+            if (Character.isLetterOrDigit(text.charAt(i)) && !Character.isLetterOrDigit(text.charAt(i - 1))) {
+                starts.add(i);
+            }
+        }
+        return starts;
+    }
+
+    /**
+     * Radix (compressed prefix) trie from string keys to shop IDs.
+     * Edges carry char[] labels, children are kept sorted by first char and
+     * binary searched, and a key's IDs live in a small array on its end node.
+     * Not thread-safe; guarded by the enclosing lock.
+     */
+    static final class RadixTrie {
+
+        private static final Node[] NO_CHILDREN = new Node[0];
+        private static final long[] NO_IDS = new long[0];
+
+        private Node root = new Node(new char[0]);
+
+        void clear() {
+            root = new Node(new char[0]);
+        }
+
+        void insert(String key, long id) {
+            Node node = root;
+            int i = 0;
+            while (i < key.length()) {
+                int at = node.childIndex(key.charAt(i));
+                if (at < 0) {
+                    Node leaf = new Node(key.substring(i).toCharArray());
+                    leaf.addId(id);
+                    node.insertChild(-at - 1, leaf);
+                    return;
+                }
+                Node child = node.children[at];
+                int common = commonPrefix(child.label, key, i);
+                if (common < child.label.length) {
+                    // Split the edge where the key diverges from it
+                    Node split = new Node(Arrays.copyOf(child.label, common));
+                    child.label = Arrays.copyOfRange(child.label, common, child.label.length);
+                    split.children = new Node[]{child};
+                    node.children[at] = split;
+                    child = split;
+                }
+                node = child;
+                i += common;
+            }
+            node.addId(id);
+        }
+
+        void remove(String key, long id) {
+            remove(root, key, 0, id);
+        }
+
+        private void remove(Node node, String key, int i, long id) {
+            if (i == key.length()) {
+                node.removeId(id);
+                return;
+            }
+            int at = node.childIndex(key.charAt(i));
+            if (at < 0) {
+                return;
+            }
+            Node child = node.children[at];
+            if (commonPrefix(child.label, key, i) < child.label.length) {
+                return;
+            }
+            remove(child, key, i + child.label.length, id);
+
+            // Prune or re-compress the path the key used
+            if (child.ids.length == 0 && child.children.length == 0) {
+                node.removeChild(at);
+            } else if (child.ids.length == 0 && child.children.length == 1) {
+                Node grandchild = child.children[0];
+                char[] merged = Arrays.copyOf(child.label, child.label.length + grandchild.label.length);
+                System.arraycopy(grandchild.label, 0, merged, child.label.length, grandchild.label.length);
+                grandchild.label = merged;
+                node.children[at] = grandchild;
+            }
+        }
+
+        /**
+         * Add IDs of keys starting with the prefix to out, in key order, until out holds limit IDs
+         */
+        void collect(String prefix, int limit, Set<Long> out) {
+            Node node = root;
+            int i = 0;
+            while (i < prefix.length() && out.size() < limit) {
+                int at = node.childIndex(prefix.charAt(i));
+                if (at < 0) {
+                    return;
+                }
+                Node child = node.children[at];
+                int common = commonPrefix(child.label, prefix, i);
+                if (common < child.label.length && i + common < prefix.length()) {
+                    return;
+                }
+                node = child;
+                i += common;
+            }
+            visit(node, limit, out);
+        }
+
+        /**
+         * @return Number of nodes below the root; a trie that re-compresses on removal
+         *         has the same count as one built from the remaining keys alone
+         */
+        int nodeCount() {
+            return nodeCount(root) - 1;
+        }
+
+        private static int nodeCount(Node node) {
+            int count = 1;
+            for (Node child : node.children) {
+                count += nodeCount(child);
+            }
+            return count;
+        }
+
+        private void visit(Node node, int limit, Set<Long> out) {
+            for (long id : node.ids) {
+                if (out.size() >= limit) {
+                    return;
+                }
+                out.add(id);
+            }
+            for (Node child : node.children) {
+                if (out.size() >= limit) {
+                    return;
+                }
+                visit(child, limit, out);
+            }
+        }
+
+        private static int commonPrefix(char[] label, String key, int offset) {
+            int max = Math.min(label.length, key.length() - offset);
+            int n = 0;
+            while (n < max && label[n] == key.charAt(offset + n)) {
+                n++;
+            }
+            return n;
+        }
+
+        private static final class Node {
+            private char[] label;
+            private Node[] children = NO_CHILDREN;
+            private long[] ids = NO_IDS;
+
+            private Node(char[] label) {
+                this.label = label;
+            }
+
+            /**
+             * Index of the child whose label starts with c, or (-(insertion point) - 1)
+             */
+            private int childIndex(char c) {
+                int low = 0;
+                int high = children.length - 1;
+                while (low <= high) {
+                    int mid = (low + high) >>> 1;
+                    char midChar = children[mid].label[0];
+                    if (midChar < c) {
+                        low = mid + 1;
+                    } else if (midChar > c) {
+                        high = mid - 1;
+                    } else {
+                        return mid;
+                    }
+                }
+                return -(low + 1);
+            }
+
+            private void insertChild(int at, Node child) {
+                Node[] grown = new Node[children.length + 1];
+                System.arraycopy(children, 0, grown, 0, at);
+                grown[at] = child;
+                System.arraycopy(children, at, grown, at + 1, children.length - at);
+                children = grown;
+            }
+
+            private void removeChild(int at) {
+                Node[] shrunk = new Node[children.length - 1];
+                System.arraycopy(children, 0, shrunk, 0, at);
+                System.arraycopy(children, at + 1, shrunk, at, children.length - at - 1);
+                children = shrunk.length == 0 ? NO_CHILDREN : shrunk;
+            }
+
+            private void addId(long id) {
+                for (long existing : ids) {
+                    if (existing == id) {
+                        return;
+                    }
+                }
+                ids = Arrays.copyOf(ids, ids.length + 1);
+                ids[ids.length - 1] = id;
+            }
+
+            private void removeId(long id) {
+                for (int i = 0; i < ids.length; i++) {
+                    if (ids[i] == id) {
+                        long[] shrunk = new long[ids.length - 1];
+                        System.arraycopy(ids, 0, shrunk, 0, i);
+                        System.arraycopy(ids, i + 1, shrunk, i, ids.length - i - 1);
+                        ids = shrunk.length == 0 ? NO_IDS : shrunk;
+                        return;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package com.anup.shopapi.index;
+
+import com.anup.shopapi.entity.Shop;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index over shop names and addresses.
+ * <p>
+ * Answers the same case-insensitive substring query as
+ * {@code ShopRepository.findByNameOrAddressContaining}: candidates are the
+ * intersection of the posting lists for every trigram of the search term,
+ * starting from the rarest, and each candidate is verified against the stored
+ * text. Matches are ranked so that name hits beat address hits and whole-word
+ * or prefix hits beat hits in the middle of a word.
+ * <p>
+ * Terms shorter than {@link #MIN_TERM_LENGTH} have no trigrams and are left to
+ * the database, as is everything while the index is being rebuilt.
+ */
+@Component
+@Profile("!reactive")
+public class ShopSearchIndex implements ShopIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShopSearchIndex.class);
+
+    public static final int MIN_TERM_LENGTH = 3;
+
+    private static final int NAME_MATCH_SCORE = 10;
+    private static final int ADDRESS_MATCH_SCORE = 4;
+    private static final int NAME_PREFIX_BONUS = 5;
+    private static final int WORD_START_BONUS = 3;
+    private static final int WORD_END_BONUS = 2;
+
+    private final boolean enabled;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private volatile boolean ready;
+
+    public ShopSearchIndex(@Value("${shop.search.index.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) {
+            logger.info("Shop search index disabled, searches will use the database");
+        }
+    }
+
+    /**
+     * @param searchTerm Raw search term
+     * @return true if {@link #search(String)} can answer this term
+     */
+    public boolean supports(String searchTerm) {
+        return enabled && ready && searchTerm != null && normalize(searchTerm).length() >= MIN_TERM_LENGTH;
+    }
+
+    /**
+     * Find shops whose name or address contains the term, ignoring case
+     * @param searchTerm Search term of at least {@link #MIN_TERM_LENGTH} characters
+     * @return Matching shop IDs, best match first
+     */
+    public List<Long> search(String searchTerm) {
+        String needle = normalize(searchTerm);
+        long[] grams = trigrams(needle);
+        List<Match> matches = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            Postings[] lists = new Postings[grams.length];
+            for (int i = 0; i < grams.length; i++) {
+                lists[i] = postings.get(grams[i]);
+                if (lists[i] == null) {
+                    return List.of();
+                }
+            }
+            Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+
+            Postings rarest = lists[0];
+            candidates:
+            for (int i = 0; i < rarest.size; i++) {
+                long id = rarest.ids[i];
+                for (int j = 1; j < lists.length; j++) {
+                    if (!lists[j].contains(id)) {
+                        continue candidates;
+                    }
+                }
+                int score = documents.get(id).score(needle);
+                if (score > 0) {
+                    matches.add(new Match(id, score));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        matches.sort(Comparator.comparingInt(Match::score).reversed().thenComparingLong(Match::id));
+        List<Long> ids = new ArrayList<>(matches.size());
+        for (Match match : matches) {
+            ids.add(match.id());
+        }
+        return ids;
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            documents.clear();
+            postings.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void put(Shop shop) {
+        if (!enabled) {
+            return;
+        }
+        Document document = new Document(shop.getId(), normalize(shop.getName()), normalize(shop.getAddress()));
+        lock.writeLock().lock();
+        try {
+            Document previous = documents.put(document.id, document);
+            if (previous != null) {
+                unindex(previous);
+            }
+            for (long gram : trigrams(document.name, document.address)) {
+                postings.computeIfAbsent(gram, key -> new Postings()).add(document.id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long id) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Document previous = documents.remove(id);
+            if (previous != null) {
+                unindex(previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void markReady() {
+        ready = enabled;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @return Number of indexed shops
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void unindex(Document document) {
+        for (long gram : trigrams(document.name, document.address)) {
+            Postings list = postings.get(gram);
+            if (list != null && list.remove(document.id) && list.size == 0) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Distinct trigrams of the given texts, each packed as three 16-bit chars in a long.
+     * Trigrams never span from one text into the next.
+     */
+    private static long[] trigrams(String... texts) {
+        int count = 0;
+        for (String text : texts) {
+            count += Math.max(0, text.length() - 2);
+        }
+        long[] grams = new long[count];
+        int n = 0;
+        for (String text : texts) {
+            n = addTrigrams(text, grams, n);
+        }
+        Arrays.sort(grams, 0, n);
+        int distinct = 0;
+        for (int i = 0; i < n; i++) {
+            if (distinct == 0 || grams[i] != grams[distinct - 1]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, distinct);
+    }
+
+    private static int addTrigrams(String text, long[] grams, int offset) {
+        for (int i = 0; i + 2 < text.length(); i++) {
+            grams[offset++] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        return offset;
+    }
+
+    private record Match(long id, int score) {
+    }
+
+    /**
+     * Lower-cased text of one shop
+     */
+    private static final class Document {
+        private final long id;
+        private final String name;
+        private final String address;
+
+        private Document(long id, String name, String address) {
+            this.id = id;
+            this.name = name;
+            this.address = address;
+        }
+
+        private int score(String needle) {
+            int score = fieldScore(name, needle, NAME_MATCH_SCORE);
+            if (name.startsWith(needle)) {
+                score += NAME_PREFIX_BONUS;
+            }
+            return score + fieldScore(address, needle, ADDRESS_MATCH_SCORE);
+        }
+
+        /**
+         * Base score if the text contains the needle, plus the best word-boundary bonus
+         * over all occurrences; 0 if there is no occurrence.
+         */
+        private static int fieldScore(String text, String needle, int base) {
+            int best = -1;
+            for (int at = text.indexOf(needle); at >= 0 && best < WORD_START_BONUS + WORD_END_BONUS; at = text.indexOf(needle, at + 1)) {
+                int bonus = 0;
+                if (at == 0 || !Character.isLetterOrDigit(text.charAt(at - 1))) {
+                    bonus += WORD_START_BONUS;
+                }
+                int end = at + needle.length();
+                if (end == text.length() || !Character.isLetterOrDigit(text.charAt(end))) {
+                    bonus += WORD_END_BONUS;
+                }
+                best = Math.max(best, bonus);
+            }
+            return best < 0 ? 0 : base + best;
+        }
+    }
+
+    /**
+     * Sorted, growable array of shop IDs for one trigram
+     */
+    private static final class Postings {
+        private long[] ids = new long[4];
+        private int size;
+
+        private void add(long id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at >= 0) {
+                return;
+            }
+            at = -at - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            ids[at] = id;
+            size++;
+        }
+
+        private boolean remove(long id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at < 0) {
+                return false;
+            }
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            size--;
+            return true;
+        }
+
+        private boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+    }
+}
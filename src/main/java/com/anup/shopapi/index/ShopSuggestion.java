@@ -0,0 +1,29 @@
+package com.anup.shopapi.index;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * A type-ahead match: just enough of a shop to render a suggestion list.
+ */
+@Schema(description = "Shop name suggestion for type-ahead")
+public class ShopSuggestion {
+
+    @Schema(description = "Unique identifier of the shop", example = "7")
+    private final Long id;
+
+    @Schema(description = "Name of the shop", example = "Cozy Coffee Corner")
+    private final String name;
+
+    public ShopSuggestion(Long id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
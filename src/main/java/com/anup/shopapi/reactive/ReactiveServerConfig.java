@@ -0,0 +1,30 @@
+package com.anup.shopapi.reactive;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * Runs the reactive stack on Netty with a fixed-size event loop.
+ * Tomcat is also on the classpath for the servlet stack and would otherwise be picked.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveServerConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveServerConfig.class);
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory(
+            @Value("${shop.reactive.event-loop-threads:4}") int eventLoopThreads) {
+        logger.info("Using Netty with {} event loop threads", eventLoopThreads);
+        NettyReactiveWebServerFactory factory = new NettyReactiveWebServerFactory();
+        factory.addServerCustomizers(server -> server.runOn(LoopResources.create("shop-http", eventLoopThreads, true)));
+        return factory;
+    }
+}
@@ -0,0 +1,278 @@
+package com.anup.shopapi.reactive;
+
+import com.anup.shopapi.entity.Shop;
+import com.anup.shopapi.service.ShopBatchResult;
+import com.anup.shopapi.service.ShopDuplicateException;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * WebFlux counterpart of {@link com.anup.shopapi.controller.ShopController},
+ * active with the "reactive" profile. Serves the same /api/shops paths and
+ * response envelopes without blocking a thread per request. Conditional GETs
+ * and the response cache are servlet-only.
+ */
+@RestController
+@RequestMapping("/api/shops")
+@CrossOrigin(origins = "*")
+@Profile("reactive")
+public class ReactiveShopController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveShopController.class);
+
+    private static final String NDJSON_VALUE = "application/x-ndjson";
+
+    private final ReactiveShopService shopService;
+
+    @Autowired
+    public ReactiveShopController(ReactiveShopService shopService) {
+        this.shopService = shopService;
+    }
+
+    /**
+     * GET /api/shops - Retrieve one page of shops
+     * @param after Cursor from the previous page
+     * @param limit Page size
+     * @return Page envelope with the next cursor
+     */
+    @GetMapping
+    public Mono<ResponseEntity<Map<String, Object>>> getAllShops(
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        logger.info("Received request to get shops page after: {}, limit: {}", after, limit);
+        return shopService.getShopsPage(after, limit)
+                .map(page -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", true);
+                    response.put("message", "Shops retrieved successfully");
+                    response.put("data", page.getShops());
+                    response.put("count", page.getShops().size());
+                    response.put("limit", page.getLimit());
+                    response.put("nextCursor", page.getNextCursor());
+                    return ResponseEntity.ok(response);
+                })
+                .onErrorResume(e -> errorResponse("Error retrieving shops: ", e));
+    }
+
+    /**
+     * GET /api/shops/export - Stream every shop as newline-delimited JSON.
+     * Rows are pulled from the database only as fast as the client reads them.
+     * @return Every shop in ID order
+     */
+    @GetMapping(value = "/export", produces = NDJSON_VALUE)
+    public Flux<Shop> exportShops() {
+        logger.info("Received request to export shops");
+        return shopService.exportShops();
+    }
+
+    /**
+     * GET /api/shops/{id} - Retrieve a shop by ID
+     * @param id Shop ID
+     * @return Shop envelope, or 404
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Map<String, Object>>> getShopById(@PathVariable Long id) {
+        logger.info("Received request to get shop with ID: {}", id);
+        return shopService.getShopById(id)
+                .map(shop -> envelope(HttpStatus.OK, "Shop found successfully", shop))
+                .switchIfEmpty(Mono.fromSupplier(() -> notFound(id)))
+                .onErrorResume(e -> errorResponse("Error retrieving shop: ", e));
+    }
+
+    /**
+     * POST /api/shops - Create a new shop
+     * @param shop Shop to create
+     * @return Created shop envelope, or 409 if another shop has the same email or phone
+     */
+    @PostMapping
+    public Mono<ResponseEntity<Map<String, Object>>> createShop(@Valid @RequestBody Shop shop) {
+        logger.info("Received request to create new shop: {}", shop.getName());
+        return shopService.createShop(shop)
+                .map(created -> envelope(HttpStatus.CREATED, "Shop created successfully", created))
+                .onErrorResume(e -> errorResponse("Error creating shop: ", e));
+    }
+
+    /**
+     * POST /api/shops/batch - Create many shops in one request
+     * @param shops Shops to create
+     * @return One result per submitted shop
+     */
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Map<String, Object>>> createShops(@RequestBody List<Shop> shops) {
+        logger.info("Received request to create {} shops in batch", shops.size());
+        return shopService.createShops(shops)
+                .map(results -> {
+                    long created = results.stream().filter(result -> result.getStatus() == ShopBatchResult.Status.CREATED).count();
+                    boolean allCreated = created == results.size();
+
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", allCreated);
+                    response.put("message", "Created " + created + " of " + results.size() + " shops");
+                    response.put("data", results);
+                    response.put("created", created);
+                    response.put("count", results.size());
+                    return ResponseEntity.status(allCreated ? HttpStatus.CREATED : HttpStatus.OK).body(response);
+                })
+                .onErrorResume(e -> errorResponse("Error creating shops: ", e));
+    }
+
+    /**
+     * PUT /api/shops/{id} - Update an existing shop
+     * @param id Shop ID
+     * @param shop Updated shop details
+     * @return Updated shop envelope, 404, or 409 if another shop has the new email or phone
+     */
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Map<String, Object>>> updateShop(@PathVariable Long id, @Valid @RequestBody Shop shop) {
+        logger.info("Received request to update shop with ID: {}", id);
+        return shopService.updateShop(id, shop)
+                .map(updated -> envelope(HttpStatus.OK, "Shop updated successfully", updated))
+                .switchIfEmpty(Mono.fromSupplier(() -> notFound(id)))
+                .onErrorResume(e -> errorResponse("Error updating shop: ", e));
+    }
+
+    /**
+     * DELETE /api/shops/{id} - Delete a shop
+     * @param id Shop ID
+     * @return Confirmation envelope, or 404
+     */
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Map<String, Object>>> deleteShop(@PathVariable Long id) {
+        logger.info("Received request to delete shop with ID: {}", id);
+        return shopService.deleteShop(id)
+                .map(deleted -> deleted ? envelope(HttpStatus.OK, "Shop deleted successfully", null) : notFound(id))
+                .onErrorResume(e -> errorResponse("Error deleting shop: ", e));
+    }
+
+    /**
+     * GET /api/shops/search - Search shops by name or address
+     * @param searchTerm Search term
+     * @return Matching shops
+     */
+    @GetMapping("/search")
+    public Mono<ResponseEntity<Map<String, Object>>> searchShops(@RequestParam("q") String searchTerm) {
+        logger.info("Received request to search shops with term: {}", searchTerm);
+        return shopService.searchShops(searchTerm)
+                .collectList()
+                .map(shops -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", true);
+                    response.put("message", "Search completed successfully");
+                    response.put("data", shops);
+                    response.put("count", shops.size());
+                    response.put("searchTerm", searchTerm);
+                    return ResponseEntity.ok(response);
+                })
+                .onErrorResume(e -> errorResponse("Error searching shops: ", e));
+    }
+
+    /**
+     * GET /api/shops/suggest - Type-ahead suggestions by name prefix
+     * @param prefix Prefix typed so far
+     * @param limit Maximum number of suggestions
+     * @return Matching shop IDs and names
+     */
+    @GetMapping("/suggest")
+    public Mono<ResponseEntity<Map<String, Object>>> suggestShops(
+            @RequestParam("prefix") String prefix,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        logger.debug("Received request to suggest shops for prefix: {}", prefix);
+        return shopService.suggestShops(prefix, limit)
+                .collectList()
+                .map(suggestions -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", true);
+                    response.put("message", "Suggestions retrieved successfully");
+                    response.put("data", suggestions);
+                    response.put("count", suggestions.size());
+                    response.put("prefix", prefix);
+                    return ResponseEntity.ok(response);
+                })
+                .onErrorResume(e -> errorResponse("Error suggesting shops: ", e));
+    }
+
+    /**
+     * GET /api/shops/count - Get total count of shops
+     * @return Shop count
+     */
+    @GetMapping("/count")
+    public Mono<ResponseEntity<Map<String, Object>>> getShopsCount() {
+        logger.info("Received request to get shops count");
+        return shopService.getTotalShopsCount()
+                .map(count -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", true);
+                    response.put("message", "Count retrieved successfully");
+                    response.put("count", count);
+                    return ResponseEntity.ok(response);
+                })
+                .onErrorResume(e -> {
+                    logger.error("Error getting shops count: {}", e.getMessage(), e);
+                    Map<String, Object> errorResponse = new HashMap<>();
+                    errorResponse.put("success", false);
+                    errorResponse.put("message", "Error getting shops count: " + e.getMessage());
+                    errorResponse.put("count", 0);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse));
+                });
+    }
+
+    private static ResponseEntity<Map<String, Object>> envelope(HttpStatus status, String message, Object data) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", message);
+        response.put("data", data);
+        return ResponseEntity.status(status).body(response);
+    }
+
+    private static ResponseEntity<Map<String, Object>> notFound(Long id) {
+        logger.warn("Shop not found with ID: {}", id);
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("message", "Shop not found with ID: " + id);
+        response.put("data", null);
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+    }
+
+    // IllegalArgumentException means a bad request, a duplicate email or phone a conflict, anything else a server error
+    private static Mono<ResponseEntity<Map<String, Object>>> errorResponse(String prefix, Throwable e) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("data", null);
+        if (e instanceof ShopDuplicateException duplicate) {
+            logger.warn("Duplicate shop contact: {}", duplicate.getMessage());
+            errorResponse.put("message", duplicate.getMessage());
+            errorResponse.put("field", duplicate.getField());
+            errorResponse.put("existingId", duplicate.getExistingShopId());
+            return Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse));
+        }
+        if (e instanceof IllegalArgumentException) {
+            logger.warn("Invalid request: {}", e.getMessage());
+            errorResponse.put("message", e.getMessage());
+            return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse));
+        }
+        logger.error("{}{}", prefix, e.getMessage(), e);
+        errorResponse.put("message", prefix + e.getMessage());
+        return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse));
+    }
+}
@@ -0,0 +1,165 @@
+package com.anup.shopapi.reactive;
+
+import com.anup.shopapi.entity.Shop;
+import com.anup.shopapi.repository.ShopRepository;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * R2DBC counterpart of {@link com.anup.shopapi.repository.ShopRepository}.
+ * Maps the shops table onto the same {@link Shop} class with explicit SQL,
+ * since the entity's mapping annotations are JPA ones.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveShopRepository {
+
+    private static final String SELECT_SHOPS =
+            "SELECT id, name, address, phone, email, created_date, updated_date, version FROM shops";
+
+    private final DatabaseClient databaseClient;
+
+    @Autowired
+    public ReactiveShopRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    // Every shop in ID order; rows are emitted as the subscriber requests them
+    public Flux<Shop> findAllOrderById() {
+        return databaseClient.sql(SELECT_SHOPS + " ORDER BY id")
+                .map(ReactiveShopRepository::toShop)
+                .all();
+    }
+
+    // Keyset pagination: next page of shops with an ID greater than the cursor
+    public Flux<Shop> findByIdGreaterThanOrderByIdAsc(long id, int limit) {
+        return databaseClient.sql(SELECT_SHOPS + " WHERE id > :id ORDER BY id LIMIT :limit")
+                .bind("id", id)
+                .bind("limit", limit)
+                .map(ReactiveShopRepository::toShop)
+                .all();
+    }
+
+    public Mono<Shop> findById(long id) {
+        return databaseClient.sql(SELECT_SHOPS + " WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveShopRepository::toShop)
+                .one();
+    }
+
+    // Find shops by name or address, same match as ShopRepository.findByNameOrAddressContaining
+    public Flux<Shop> findByNameOrAddressContaining(String searchTerm) {
+        return databaseClient.sql(SELECT_SHOPS + " WHERE LOWER(name) LIKE :pattern OR LOWER(address) LIKE :pattern")
+                .bind("pattern", "%" + searchTerm.toLowerCase(Locale.ROOT) + "%")
+                .map(ReactiveShopRepository::toShop)
+                .all();
+    }
+
+    // Find shops with a word of the name starting with a prefix, for type-ahead; same match and order
+    // as ShopRepository.findByNameWordStartingWith
+    public Flux<Shop> findByNameWordStartingWith(String prefix, int limit) {
+        String escaped = ShopRepository.escapeLike(prefix.toLowerCase(Locale.ROOT));
+        return databaseClient.sql(SELECT_SHOPS +
+                        " WHERE LOWER(name) LIKE :nameStart ESCAPE '!'" +
+                        " OR LOWER(name) LIKE :afterSpace ESCAPE '!'" +
+                        " OR LOWER(name) LIKE :afterHyphen ESCAPE '!'" +
+                        " ORDER BY CASE WHEN LOWER(name) LIKE :nameStart ESCAPE '!' THEN 0 ELSE 1 END, LOWER(name), id" +
+                        " LIMIT :limit")
+                .bind("nameStart", escaped + "%")
+                .bind("afterSpace", "% " + escaped + "%")
+                .bind("afterHyphen", "%-" + escaped + "%")
+                .bind("limit", limit)
+                .map(ReactiveShopRepository::toShop)
+                .all();
+    }
+
+    public Mono<Long> count() {
+        return databaseClient.sql("SELECT COUNT(*) FROM shops")
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    /**
+     * Insert a shop that already has its ID and timestamps set
+     * @param shop Shop to insert
+     * @return The same shop once inserted
+     */
+    public Mono<Shop> insert(Shop shop) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(
+                        "INSERT INTO shops (id, name, address, phone, email, created_date, updated_date) " +
+                        "VALUES (:id, :name, :address, :phone, :email, :createdDate, :updatedDate)")
+                .bind("id", shop.getId())
+                .bind("name", shop.getName())
+                .bind("address", shop.getAddress())
+                .bind("createdDate", shop.getCreatedDate())
+                .bind("updatedDate", shop.getUpdatedDate());
+        spec = bindNullable(spec, "phone", shop.getPhone());
+        spec = bindNullable(spec, "email", shop.getEmail());
+        return spec.fetch().rowsUpdated().thenReturn(shop);
+    }
+
+    /**
+     * Write a shop's editable fields and updated date, and increment its version.
+     * If the address changes, the coordinates are cleared; this stack has no geocoder,
+     * so the default stack geocodes the shop again on its next startup.
+     * @param shop Shop with its new values
+     * @return Number of rows updated (0 if the shop no longer exists)
+     */
+    public Mono<Long> update(Shop shop) {
+        // Coordinates first: MySQL evaluates the assignments in order, so address is still the old value here
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(
+                        "UPDATE shops SET " +
+                        "latitude = CASE WHEN address = :address THEN latitude END, " +
+                        "longitude = CASE WHEN address = :address THEN longitude END, " +
+                        "name = :name, address = :address, phone = :phone, email = :email, " +
+                        "updated_date = :updatedDate, version = version + 1 WHERE id = :id")
+                .bind("id", shop.getId())
+                .bind("name", shop.getName())
+                .bind("address", shop.getAddress())
+                .bind("updatedDate", shop.getUpdatedDate());
+        spec = bindNullable(spec, "phone", shop.getPhone());
+        spec = bindNullable(spec, "email", shop.getEmail());
+        return spec.fetch().rowsUpdated();
+    }
+
+    public Mono<Long> deleteById(long id) {
+        return databaseClient.sql("DELETE FROM shops WHERE id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    // Record a deleted shop for the change feed, like ShopService.deleteShop
+    public Mono<Long> insertTombstone(long id, LocalDateTime deletedDate) {
+        return databaseClient.sql("INSERT INTO shop_tombstones (shop_id, deleted_date) VALUES (:id, :deletedDate)")
+                .bind("id", id)
+                .bind("deletedDate", deletedDate)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindNullable(DatabaseClient.GenericExecuteSpec spec, String name, String value) {
+        return value == null ? spec.bindNull(name, String.class) : spec.bind(name, value);
+    }
+
+    private static Shop toShop(Readable row) {
+        Shop shop = new Shop(
+                row.get("name", String.class),
+                row.get("address", String.class),
+                row.get("phone", String.class),
+                row.get("email", String.class));
+        shop.setId(row.get("id", Long.class));
+        shop.setCreatedDate(row.get("created_date", LocalDateTime.class));
+        shop.setUpdatedDate(row.get("updated_date", LocalDateTime.class));
+        shop.setVersion(row.get("version", Long.class));
+        return shop;
+    }
+}
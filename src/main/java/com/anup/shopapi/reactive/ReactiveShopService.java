@@ -0,0 +1,277 @@
+package com.anup.shopapi.reactive;
+
+import com.anup.shopapi.entity.Shop;
+import com.anup.shopapi.index.ShopSuggestion;
+import com.anup.shopapi.service.ShopBatchResult;
+import com.anup.shopapi.service.ShopCursor;
+import com.anup.shopapi.service.ShopDuplicateException;
+import com.anup.shopapi.service.ShopPage;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Non-blocking counterpart of {@link com.anup.shopapi.service.ShopService},
+ * with the same paging, validation and limits. Searches and suggestions are
+ * answered by the database; the in-memory indexes belong to the servlet stack.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveShopService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveShopService.class);
+
+    private final ReactiveShopRepository shopRepository;
+    private final ShopIdBlockAllocator idAllocator;
+    private final TransactionalOperator transactionalOperator;
+    private final Validator validator;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int maxSuggestions;
+    private final int maxBatchItems;
+    private final int batchChunkSize;
+
+    @Autowired
+    public ReactiveShopService(ReactiveShopRepository shopRepository,
+                               ShopIdBlockAllocator idAllocator,
+                               TransactionalOperator transactionalOperator,
+                               Validator validator,
+                               @Value("${shop.pagination.default-limit:50}") int defaultPageSize,
+                               @Value("${shop.pagination.max-limit:500}") int maxPageSize,
+                               @Value("${shop.suggest.max-limit:50}") int maxSuggestions,
+                               @Value("${shop.batch.max-items:10000}") int maxBatchItems,
+                               @Value("${shop.batch.chunk-size:500}") int batchChunkSize) {
+        this.shopRepository = shopRepository;
+        this.idAllocator = idAllocator;
+        this.transactionalOperator = transactionalOperator;
+        this.validator = validator;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.maxSuggestions = maxSuggestions;
+        this.maxBatchItems = maxBatchItems;
+        this.batchChunkSize = batchChunkSize;
+    }
+
+    /**
+     * Retrieve one page of shops ordered by ID using keyset pagination
+     * @param afterCursor Opaque cursor from the previous page, or null for the first page
+     * @param limit Requested page size, or null for the default; capped at the configured maximum
+     * @return Page of shops with the cursor for the next page
+     */
+    public Mono<ShopPage<Shop>> getShopsPage(String afterCursor, Integer limit) {
+        return Mono.defer(() -> {
+            int pageSize = resolvePageSize(limit);
+            long afterId = afterCursor == null || afterCursor.isBlank() ? 0L : ShopCursor.decode(afterCursor);
+            logger.info("Fetching shops page after ID {} with limit {}", afterId, pageSize);
+
+            // Fetch one extra row to find out whether another page exists
+            return shopRepository.findByIdGreaterThanOrderByIdAsc(afterId, pageSize + 1)
+                    .collectList()
+                    .map(shops -> {
+                        String nextCursor = null;
+                        if (shops.size() > pageSize) {
+                            shops = shops.subList(0, pageSize);
+                            nextCursor = ShopCursor.encode(shops.get(pageSize - 1).getId());
+                        }
+                        return new ShopPage<>(shops, nextCursor, pageSize);
+                    });
+        });
+    }
+
+    private int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return Math.min(defaultPageSize, maxPageSize);
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        return Math.min(limit, maxPageSize);
+    }
+
+    /**
+     * Stream every shop in ID order. Rows are read only as fast as the subscriber consumes them.
+     * @return All shops
+     */
+    public Flux<Shop> exportShops() {
+        logger.info("Exporting all shops");
+        return shopRepository.findAllOrderById();
+    }
+
+    /**
+     * Find a shop by ID
+     * @param id Shop ID
+     * @return The shop, or empty if not found
+     */
+    public Mono<Shop> getShopById(Long id) {
+        logger.info("Fetching shop with ID: {}", id);
+        return shopRepository.findById(id);
+    }
+
+    /**
+     * Create a new shop
+     * @param shop Shop to create
+     * @return Created shop, or a {@link ShopDuplicateException} if another shop has the same email or phone
+     */
+    public Mono<Shop> createShop(Shop shop) {
+        logger.info("Creating new shop: {}", shop.getName());
+        return insert(shop)
+                .onErrorMap(DataIntegrityViolationException.class, e -> duplicate(shop.getId(), e))
+                .doOnNext(created -> logger.info("Shop created successfully with ID: {}", created.getId()));
+    }
+
+    private Mono<Shop> insert(Shop shop) {
+        return idAllocator.nextId().flatMap(id -> {
+            LocalDateTime now = LocalDateTime.now();
+            shop.setId(id);
+            shop.setCreatedDate(now);
+            shop.setUpdatedDate(now);
+            // Matches the column default the insert leaves in place
+            shop.setVersion(0L);
+            return shopRepository.insert(shop);
+        });
+    }
+
+    /**
+     * Create many shops at once. Each shop is validated on its own; valid shops are
+     * inserted in chunks, each chunk in its own transaction.
+     * @param shops Shops to create
+     * @return One result per input shop, in input order
+     */
+    public Mono<List<ShopBatchResult>> createShops(List<Shop> shops) {
+        if (shops.size() > maxBatchItems) {
+            return Mono.error(new IllegalArgumentException("Batch must not contain more than " + maxBatchItems + " shops"));
+        }
+        logger.info("Creating {} shops in batch", shops.size());
+        ShopBatchResult[] results = new ShopBatchResult[shops.size()];
+        List<Integer> valid = new ArrayList<>(shops.size());
+        for (int index = 0; index < shops.size(); index++) {
+            List<String> errors = validate(shops.get(index));
+            if (errors.isEmpty()) {
+                valid.add(index);
+            } else {
+                results[index] = ShopBatchResult.invalid(index, errors);
+            }
+        }
+        return Flux.fromIterable(valid)
+                .buffer(batchChunkSize)
+                .concatMap(chunk -> insertChunk(shops, chunk, results))
+                .then(Mono.fromSupplier(() -> Arrays.asList(results)));
+    }
+
+    private Mono<Void> insertChunk(List<Shop> shops, List<Integer> chunk, ShopBatchResult[] results) {
+        return Flux.fromIterable(chunk)
+                .concatMap(index -> insert(shops.get(index)))
+                .then()
+                .as(transactionalOperator::transactional)
+                .doOnSuccess(done -> chunk.forEach(index ->
+                        results[index] = ShopBatchResult.created(index, shops.get(index).getId())))
+                .onErrorResume(e -> {
+                    logger.error("Error inserting batch chunk of {} shops: {}", chunk.size(), e.getMessage(), e);
+                    chunk.forEach(index -> results[index] = ShopBatchResult.failed(index, "Insert failed: " + e.getMessage()));
+                    return Mono.empty();
+                });
+    }
+
+    private List<String> validate(Shop shop) {
+        if (shop == null) {
+            return List.of("Shop is required");
+        }
+        List<String> errors = new ArrayList<>();
+        for (ConstraintViolation<Shop> violation : validator.validate(shop)) {
+            errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        return errors;
+    }
+
+    /**
+     * Update an existing shop
+     * @param id Shop ID
+     * @param shopDetails Updated shop details
+     * @return Updated shop, empty if not found, or a {@link ShopDuplicateException} if another shop has the new email or phone
+     */
+    public Mono<Shop> updateShop(Long id, Shop shopDetails) {
+        logger.info("Updating shop with ID: {}", id);
+        return shopRepository.findById(id)
+                .flatMap(shop -> {
+                    shop.setName(shopDetails.getName());
+                    shop.setAddress(shopDetails.getAddress());
+                    shop.setPhone(shopDetails.getPhone());
+                    shop.setEmail(shopDetails.getEmail());
+                    shop.setUpdatedDate(LocalDateTime.now());
+                    shop.setVersion(shop.getVersion() + 1);
+                    return shopRepository.update(shop).thenReturn(shop);
+                })
+                .as(transactionalOperator::transactional)
+                .onErrorMap(DataIntegrityViolationException.class, e -> duplicate(id, e));
+    }
+
+    // There is no duplicate check before the write: the unique indexes on email and phone reject it
+    private static ShopDuplicateException duplicate(Long id, DataIntegrityViolationException e) {
+        logger.warn("Write to shop {} rejected by the database: {}", id, e.getMessage());
+        return new ShopDuplicateException();
+    }
+
+    /**
+     * Delete a shop by ID, leaving a tombstone for the change feed
+     * @param id Shop ID
+     * @return true if deleted, false if not found
+     */
+    public Mono<Boolean> deleteShop(Long id) {
+        logger.info("Deleting shop with ID: {}", id);
+        return shopRepository.deleteById(id)
+                .flatMap(deleted -> deleted > 0
+                        ? shopRepository.insertTombstone(id, LocalDateTime.now()).thenReturn(true)
+                        : Mono.just(false))
+                .as(transactionalOperator::transactional);
+    }
+
+    /**
+     * Search shops by name or address
+     * @param searchTerm Search term
+     * @return Matching shops
+     */
+    public Flux<Shop> searchShops(String searchTerm) {
+        logger.info("Searching shops with term: {}", searchTerm);
+        return shopRepository.findByNameOrAddressContaining(searchTerm);
+    }
+
+    /**
+     * Suggest shops whose name has a word starting with the prefix, names
+     * starting with it first, as the servlet stack's name suggester does
+     * @param prefix Prefix typed so far
+     * @param limit Maximum number of suggestions, capped at the configured maximum
+     * @return Matching shop IDs and names
+     */
+    public Flux<ShopSuggestion> suggestShops(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            return Flux.error(new IllegalArgumentException("Prefix is required"));
+        }
+        if (limit < 1) {
+            return Flux.error(new IllegalArgumentException("Limit must be at least 1"));
+        }
+        return shopRepository.findByNameWordStartingWith(prefix.strip(), Math.min(limit, maxSuggestions))
+                .map(shop -> new ShopSuggestion(shop.getId(), shop.getName()));
+    }
+
+    /**
+     * Get total count of shops
+     * @return Total number of shops
+     */
+    public Mono<Long> getTotalShopsCount() {
+        return shopRepository.count();
+    }
+}
@@ -0,0 +1,134 @@
+package com.anup.shopapi.reactive;
+
+import com.anup.shopapi.entity.Shop;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hands out shop IDs from the same id_sequences row as the JPA table generator,
+ * so both stacks can write to one database without colliding.
+ * <p>
+ * Follows the pooled optimizer's convention: reading value v and advancing the
+ * row by the allocation size claims the block (v - allocation size, v]. IDs
+ * within a claimed block are handed out from memory.
+ */
+@Component
+@Profile("reactive")
+public class ShopIdBlockAllocator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShopIdBlockAllocator.class);
+
+    private static final String SELECT_SQL =
+            "SELECT next_val FROM " + Shop.ID_GENERATOR_TABLE + " WHERE sequence_name = :name FOR UPDATE";
+
+    private static final String ADVANCE_SQL =
+            "UPDATE " + Shop.ID_GENERATOR_TABLE + " SET next_val = next_val + :increment WHERE sequence_name = :name";
+
+    private static final String ALIGN_SQL =
+            "UPDATE " + Shop.ID_GENERATOR_TABLE + " SET next_val = GREATEST(next_val, " +
+            "(SELECT COALESCE(MAX(id), 0) + :headroom FROM shops)) WHERE sequence_name = :name";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO " + Shop.ID_GENERATOR_TABLE + " (sequence_name, next_val) " +
+            "SELECT :name, COALESCE(MAX(id), 0) + :headroom FROM shops";
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+    private final AtomicReference<Block> current = new AtomicReference<>(new Block(0, -1));
+
+    @Autowired
+    public ShopIdBlockAllocator(DatabaseClient databaseClient, TransactionalOperator transactionalOperator) {
+        this.databaseClient = databaseClient;
+        this.transactionalOperator = transactionalOperator;
+    }
+
+    /**
+     * Move the generator past every existing shop ID, as ShopIdGeneratorAligner does for the servlet stack
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void alignOnStartup() {
+        int headroom = Shop.ID_ALLOCATION_SIZE + 1;
+        Long updated = databaseClient.sql(ALIGN_SQL)
+                .bind("headroom", headroom)
+                .bind("name", Shop.ID_GENERATOR_ROW)
+                .fetch()
+                .rowsUpdated()
+                .block();
+        if (updated == null || updated == 0) {
+            databaseClient.sql(INSERT_SQL)
+                    .bind("name", Shop.ID_GENERATOR_ROW)
+                    .bind("headroom", headroom)
+                    .fetch()
+                    .rowsUpdated()
+                    .onErrorResume(e -> databaseClient.sql(ALIGN_SQL)
+                            .bind("headroom", headroom)
+                            .bind("name", Shop.ID_GENERATOR_ROW)
+                            .fetch()
+                            .rowsUpdated())
+                    .block();
+        }
+        logger.info("Shop ID generator aligned for reactive inserts");
+    }
+
+    /**
+     * @return The next unused shop ID
+     */
+    public Mono<Long> nextId() {
+        return Mono.defer(() -> {
+            long id = current.get().next();
+            if (id > 0) {
+                return Mono.just(id);
+            }
+            // Concurrent callers may each claim a block; the one that loses the swap just leaves a gap
+            return claimBlock().map(block -> {
+                long first = block.next();
+                current.set(block);
+                return first;
+            });
+        });
+    }
+
+    private Mono<Block> claimBlock() {
+        return databaseClient.sql(SELECT_SQL)
+                .bind("name", Shop.ID_GENERATOR_ROW)
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException(
+                        "Missing " + Shop.ID_GENERATOR_ROW + " row in " + Shop.ID_GENERATOR_TABLE)))
+                .flatMap(hi -> databaseClient.sql(ADVANCE_SQL)
+                        .bind("increment", Shop.ID_ALLOCATION_SIZE)
+                        .bind("name", Shop.ID_GENERATOR_ROW)
+                        .fetch()
+                        .rowsUpdated()
+                        .thenReturn(new Block(hi - Shop.ID_ALLOCATION_SIZE + 1, hi)))
+                .as(transactionalOperator::transactional);
+    }
+
+    private static final class Block {
+
+        private final AtomicLong next;
+        private final long last;
+
+        private Block(long first, long last) {
+            this.next = new AtomicLong(first);
+            this.last = last;
+        }
+
+        // Next ID in the block, or -1 once it is used up
+        private long next() {
+            long id = next.getAndIncrement();
+            return id <= last ? id : -1;
+        }
+    }
+}
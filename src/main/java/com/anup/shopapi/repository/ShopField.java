@@ -0,0 +1,72 @@
+package com.anup.shopapi.repository;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Shop fields a client can select with {@code fields=}. Each name is both the
+ * Shop entity attribute and the JSON property it is serialized as.
+ */
+public enum ShopField {
+
+    ID("id"),
+    NAME("name"),
+    ADDRESS("address"),
+    PHONE("phone"),
+    EMAIL("email"),
+    LATITUDE("latitude"),
+    LONGITUDE("longitude"),
+    CREATED_DATE("createdDate"),
+    UPDATED_DATE("updatedDate"),
+    VERSION("version");
+
+    private final String name;
+
+    ShopField(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Parse a comma-separated field list such as {@code "id,name"}.
+     * The ID is always selected, since cursors and clients rely on it.
+     * @param fields Field list from the request
+     * @return Selected fields, or null if no fields were given (select the whole shop)
+     * @throws IllegalArgumentException if a field name is unknown
+     */
+    public static Set<ShopField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<ShopField> selected = EnumSet.of(ID);
+        for (String name : fields.split(",")) {
+            String trimmed = name.strip();
+            if (!trimmed.isEmpty()) {
+                selected.add(fromName(trimmed));
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * @return Field names in declaration order, joined with commas
+     */
+    public static String join(Set<ShopField> fields) {
+        return fields.stream().map(ShopField::getName).collect(Collectors.joining(","));
+    }
+
+    private static ShopField fromName(String name) {
+        for (ShopField field : values()) {
+            if (field.name.equals(name)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown field: " + name + ". Allowed fields: "
+                + Arrays.stream(values()).map(ShopField::getName).collect(Collectors.joining(", ")));
+    }
+}
@@ -0,0 +1,26 @@
+package com.anup.shopapi.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Queries that select only some shop columns (sparse fieldsets).
+ * <p>
+ * Only the selected columns are read from the database. Each row comes back as a
+ * read-only map from field name to value, in {@link ShopField} order, and never
+ * becomes a managed entity: no persistence context entry, no dirty-checking
+ * snapshot, no second-level cache traffic.
+ */
+public interface ShopProjectionRepository {
+
+    // Keyset pagination: selected fields of the shops after the cursor, in ID order
+    List<Map<String, Object>> findFieldsByIdGreaterThan(Set<ShopField> fields, long id, int limit);
+
+    // Selected fields of the shops with the given IDs, in no particular order
+    List<Map<String, Object>> findFieldsByIdIn(Set<ShopField> fields, Collection<Long> ids);
+
+    // Selected fields of the shops whose name or address contains the term (case-insensitive)
+    List<Map<String, Object>> findFieldsByNameOrAddressContaining(Set<ShopField> fields, String searchTerm);
+}
@@ -0,0 +1,88 @@
+package com.anup.shopapi.repository;
+
+import com.anup.shopapi.entity.Shop;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Criteria tuple queries behind {@link ShopProjectionRepository}
+ */
+public class ShopProjectionRepositoryImpl implements ShopProjectionRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findFieldsByIdGreaterThan(Set<ShopField> fields, long id, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Shop> shop = query.from(Shop.class);
+        query.multiselect(select(shop, fields))
+                .where(cb.greaterThan(shop.get("id"), id))
+                .orderBy(cb.asc(shop.get("id")));
+        return rows(entityManager.createQuery(query).setMaxResults(limit), fields);
+    }
+
+    @Override
+    public List<Map<String, Object>> findFieldsByIdIn(Set<ShopField> fields, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Shop> shop = query.from(Shop.class);
+        query.multiselect(select(shop, fields))
+                .where(shop.get("id").in(ids));
+        return rows(entityManager.createQuery(query), fields);
+    }
+
+    @Override
+    public List<Map<String, Object>> findFieldsByNameOrAddressContaining(Set<ShopField> fields, String searchTerm) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Shop> shop = query.from(Shop.class);
+        // Same predicate as ShopRepository.findByNameOrAddressContaining
+        String pattern = "%" + searchTerm.toLowerCase(Locale.ROOT) + "%";
+        query.multiselect(select(shop, fields))
+                .where(cb.or(
+                        cb.like(cb.lower(shop.get("name")), pattern),
+                        cb.like(cb.lower(shop.get("address")), pattern)));
+        return rows(entityManager.createQuery(query), fields);
+    }
+
+    private static List<Selection<?>> select(Root<Shop> shop, Set<ShopField> fields) {
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (ShopField field : fields) {
+            selections.add(shop.get(field.getName()).alias(field.getName()));
+        }
+        return selections;
+    }
+
+    private static List<Map<String, Object>> rows(TypedQuery<Tuple> query, Set<ShopField> fields) {
+        List<Tuple> tuples = query.getResultList();
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (ShopField field : fields) {
+                row.put(field.getName(), tuple.get(field.getName()));
+            }
+            rows.add(Collections.unmodifiableMap(row));
+        }
+        return rows;
+    }
+}
@@ -1,16 +1,27 @@
 package com.anup.shopapi.repository;
 
 import com.anup.shopapi.entity.Shop;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ShopRepository extends JpaRepository<Shop, Long> {
+public interface ShopRepository extends JpaRepository<Shop, Long>, ShopProjectionRepository, ShopUpdateRepository {
     
     // Find shops by name (case-insensitive)
     List<Shop> findByNameContainingIgnoreCase(String name);
@@ -18,10 +29,26 @@ public interface ShopRepository extends JpaRepository<Shop, Long> {
     // Find shops by address containing specific text
     List<Shop> findByAddressContainingIgnoreCase(String address);
     
-    // Find shop by email
+    // Find shops with a word of the name starting with a prefix, for type-ahead when the suggester is not ready.
+    // Like the suggester, names starting with the prefix come first, then the rest, each in name order.
+    // Words are taken to start the name or follow a space or hyphen.
+    default List<Shop> findByNameWordStartingWith(String prefix, Limit limit) {
+        return findByNameWordStartingWithEscaped(escapeLike(prefix.toLowerCase(Locale.ROOT)), limit);
+    }
+    
+    @Query("SELECT s FROM Shop s " +
+           "WHERE LOWER(s.name) LIKE CONCAT(:prefix, '%') ESCAPE '!' " +
+           "OR LOWER(s.name) LIKE CONCAT('% ', :prefix, '%') ESCAPE '!' " +
+           "OR LOWER(s.name) LIKE CONCAT('%-', :prefix, '%') ESCAPE '!' " +
+           "ORDER BY CASE WHEN LOWER(s.name) LIKE CONCAT(:prefix, '%') ESCAPE '!' THEN 0 ELSE 1 END, LOWER(s.name), s.id")
+    List<Shop> findByNameWordStartingWithEscaped(@Param("prefix") String prefix, Limit limit);
+    
+    // Find shop by email, backed by the uk_shops_email index (result cached in the query cache)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Shop> findByEmail(String email);
     
-    // Find shops by phone
+    // Find shop by phone, backed by the uk_shops_phone index (result cached in the query cache)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Shop> findByPhone(String phone);
     
     // Custom query to find shops by name or address
@@ -29,7 +56,63 @@ public interface ShopRepository extends JpaRepository<Shop, Long> {
            "OR LOWER(s.address) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
     List<Shop> findByNameOrAddressContaining(@Param("searchTerm") String searchTerm);
     
-    // Count total shops
+    // Keyset pagination: next page of shops with an ID greater than the cursor
+    List<Shop> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // Nearby search fallback: shops inside a bounding box, read through the (latitude, longitude) index
+    List<Shop> findByLatitudeBetweenAndLongitudeBetween(Double minLatitude, Double maxLatitude,
+                                                        Double minLongitude, Double maxLongitude);
+
+    // Geocoding backfill: next shops without coordinates, in ID order
+    List<Shop> findByLatitudeIsNullAndIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // Stream every shop in ID order for exports; rows are pulled from a server-side
+    // cursor in fetch-size batches and loaded read-only (no dirty-checking snapshots).
+    // Must be consumed inside a transaction and closed afterwards.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT s FROM Shop s ORDER BY s.id")
+    Stream<Shop> streamAllOrderById();
+    
+    // Change feed: shops updated after the (updated date, ID) position, up to the horizon, in feed order
+    @Query("SELECT s FROM Shop s " +
+           "WHERE (s.updatedDate > :updatedDate OR (s.updatedDate = :updatedDate AND s.id > :id)) " +
+           "AND s.updatedDate <= :horizon " +
+           "ORDER BY s.updatedDate, s.id")
+    List<Shop> findChangedAfter(@Param("updatedDate") LocalDateTime updatedDate,
+                                @Param("id") long id,
+                                @Param("horizon") LocalDateTime horizon,
+                                Limit limit);
+    
+    // Change feed: the last shops updated before a time, newest first
+    @Query("SELECT s FROM Shop s WHERE s.updatedDate < :before ORDER BY s.updatedDate DESC, s.id DESC")
+    List<Shop> findLastChangedBefore(@Param("before") LocalDateTime before, Limit limit);
+    
+    // Current version of a shop, read from the row rather than the second-level cache
+    @Query("SELECT s.version FROM Shop s WHERE s.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+    
+    // IDs among the given ones that exist, for reporting per-ID results of bulk deletes.
+    // The rows stay locked until commit, so concurrent deletes of the same shops cannot both tombstone them.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s.id FROM Shop s WHERE s.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+    
+    // Delete the shops with the given IDs in one statement; returns the number of rows deleted.
+    // Like any bulk statement this evicts the Shop second-level cache region.
+    @Modifying
+    @Query("DELETE FROM Shop s WHERE s.id IN :ids")
+    int deleteShopsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Escape LIKE wildcards in user input with '!', which MySQL and H2 both accept as escape character
+    static String escapeLike(String text) {
+        return text.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+    
+    // Count total shops (result cached in the query cache)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT COUNT(s) FROM Shop s")
     long countAllShops();
 }
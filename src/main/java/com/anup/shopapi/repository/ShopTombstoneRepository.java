@@ -0,0 +1,42 @@
+package com.anup.shopapi.repository;
+
+import com.anup.shopapi.entity.ShopTombstone;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ShopTombstoneRepository extends JpaRepository<ShopTombstone, Long> {
+    
+    // Record the given shops as deleted in one INSERT ... SELECT; only shops that still exist get a tombstone.
+    // Must run before the shops are deleted, in the same transaction.
+    @Modifying
+    @Query("INSERT INTO ShopTombstone (shopId, deletedDate) SELECT s.id, :deletedDate FROM Shop s WHERE s.id IN :ids")
+    int insertForShops(@Param("ids") Collection<Long> ids, @Param("deletedDate") LocalDateTime deletedDate);
+    
+    // Change feed: tombstones after the (deleted date, shop ID) position, up to the horizon, in feed order
+    @Query("SELECT t FROM ShopTombstone t " +
+           "WHERE (t.deletedDate > :deletedDate OR (t.deletedDate = :deletedDate AND t.shopId > :shopId)) " +
+           "AND t.deletedDate <= :horizon " +
+           "ORDER BY t.deletedDate, t.shopId")
+    List<ShopTombstone> findChangedAfter(@Param("deletedDate") LocalDateTime deletedDate,
+                                         @Param("shopId") long shopId,
+                                         @Param("horizon") LocalDateTime horizon,
+                                         Limit limit);
+    
+    // Change feed: the last tombstones before a time, newest first
+    @Query("SELECT t FROM ShopTombstone t WHERE t.deletedDate < :before ORDER BY t.deletedDate DESC, t.shopId DESC")
+    List<ShopTombstone> findLastChangedBefore(@Param("before") LocalDateTime before, Limit limit);
+    
+    // Drop tombstones older than the change feed retention; returns the number removed
+    @Modifying
+    @Query("DELETE FROM ShopTombstone t WHERE t.deletedDate < :cutoff")
+    int deleteDeletedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
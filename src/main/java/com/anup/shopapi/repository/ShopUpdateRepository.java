@@ -0,0 +1,16 @@
+package com.anup.shopapi.repository;
+
+import java.util.Map;
+
+/**
+ * Updates that write shop columns without loading the shop first.
+ * <p>
+ * Like any bulk statement, these bypass the persistence context: a shop already
+ * loaded in the same transaction keeps its old values and version until refreshed.
+ */
+public interface ShopUpdateRepository {
+
+    // Set the given fields of a shop and increment its version, only if it is still at the given version.
+    // Returns the number of rows updated: 0 if the shop does not exist or has another version.
+    int updateFieldsAtVersion(long id, Map<ShopField, Object> values, long version);
+}
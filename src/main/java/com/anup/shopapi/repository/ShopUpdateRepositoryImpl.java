@@ -0,0 +1,33 @@
+package com.anup.shopapi.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.util.Map;
+
+/**
+ * JPQL updates behind {@link ShopUpdateRepository}
+ */
+public class ShopUpdateRepositoryImpl implements ShopUpdateRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int updateFieldsAtVersion(long id, Map<ShopField, Object> values, long version) {
+        StringBuilder jpql = new StringBuilder("UPDATE Shop s SET ");
+        for (ShopField field : values.keySet()) {
+            if (field == ShopField.ID || field == ShopField.VERSION) {
+                throw new IllegalArgumentException("Field cannot be updated: " + field.getName());
+            }
+            jpql.append("s.").append(field.getName()).append(" = :").append(field.getName()).append(", ");
+        }
+        jpql.append("s.version = s.version + 1 WHERE s.id = :id AND s.version = :version");
+        Query update = entityManager.createQuery(jpql.toString());
+        values.forEach((field, value) -> update.setParameter(field.getName(), value));
+        return update.setParameter("id", id)
+                .setParameter("version", version)
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,30 @@
+package com.anup.shopapi.service;
+
+import com.anup.shopapi.entity.Shop;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * A shop found by nearby search, with its distance from the search centre.
+ */
+@Schema(description = "Shop within the search radius and its distance")
+public class NearbyShop {
+
+    @Schema(description = "Great-circle distance from the search centre in kilometres, to the metre", example = "1.284")
+    private final double distanceKm;
+
+    @Schema(description = "The shop")
+    private final Shop shop;
+
+    public NearbyShop(Shop shop, double distanceKm) {
+        this.shop = shop;
+        this.distanceKm = Math.round(distanceKm * 1000) / 1000.0;
+    }
+
+    public double getDistanceKm() {
+        return distanceKm;
+    }
+
+    public Shop getShop() {
+        return shop;
+    }
+}
@@ -0,0 +1,79 @@
+package com.anup.shopapi.service;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * Outcome of one item in a batch request, reported at the item's position in the request.
+ */
+@Schema(description = "Result for one item of a batch request")
+public class ShopBatchResult {
+
+    public enum Status {
+        CREATED,
+        DELETED,
+        NOT_FOUND,
+        INVALID,
+        FAILED
+    }
+
+    @Schema(description = "Position of the item in the request array", example = "0")
+    private final int index;
+
+    @Schema(description = "Outcome of the item", example = "CREATED")
+    private final Status status;
+
+    @Schema(description = "ID of the created shop, or of the shop to delete", example = "13")
+    private final Long id;
+
+    @Schema(description = "Why the item was not created", example = "[\"name: Shop name is required\"]")
+    private final List<String> errors;
+
+    private ShopBatchResult(int index, Status status, Long id, List<String> errors) {
+        this.index = index;
+        this.status = status;
+        this.id = id;
+        this.errors = errors;
+    }
+
+    public static ShopBatchResult created(int index, Long id) {
+        return new ShopBatchResult(index, Status.CREATED, id, List.of());
+    }
+
+    public static ShopBatchResult invalid(int index, List<String> errors) {
+        return new ShopBatchResult(index, Status.INVALID, null, errors);
+    }
+
+    public static ShopBatchResult failed(int index, String error) {
+        return failed(index, null, error);
+    }
+
+    public static ShopBatchResult failed(int index, Long id, String error) {
+        return new ShopBatchResult(index, Status.FAILED, id, List.of(error));
+    }
+
+    public static ShopBatchResult deleted(int index, Long id) {
+        return new ShopBatchResult(index, Status.DELETED, id, List.of());
+    }
+
+    public static ShopBatchResult notFound(int index, Long id) {
+        return new ShopBatchResult(index, Status.NOT_FOUND, id, List.of());
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+}
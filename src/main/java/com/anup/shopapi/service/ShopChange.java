@@ -0,0 +1,67 @@
+package com.anup.shopapi.service;
+
+import com.anup.shopapi.entity.Shop;
+import com.anup.shopapi.entity.ShopTombstone;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the change feed: the current state of a created or updated shop,
+ * or a tombstone for a deleted one.
+ */
+@Schema(description = "One entry of the change feed")
+public class ShopChange {
+
+    public enum Type {
+        CHANGED,
+        DELETED
+    }
+
+    @Schema(description = "CHANGED for a created or updated shop (upsert it), DELETED for a deleted one (remove it)", example = "CHANGED")
+    private final Type type;
+
+    @Schema(description = "ID of the shop", example = "1")
+    private final Long id;
+
+    @Schema(description = "When the shop was last changed or deleted", example = "2025-06-13T21:46:19")
+    private final LocalDateTime changedAt;
+
+    @Schema(description = "Current state of the shop; null when deleted")
+    private final Shop shop;
+
+    private ShopChange(Type type, Long id, LocalDateTime changedAt, Shop shop) {
+        this.type = type;
+        this.id = id;
+        this.changedAt = changedAt;
+        this.shop = shop;
+    }
+
+    public static ShopChange changed(Shop shop) {
+        return new ShopChange(Type.CHANGED, shop.getId(), shop.getUpdatedDate(), shop);
+    }
+
+    public static ShopChange deleted(ShopTombstone tombstone) {
+        return new ShopChange(Type.DELETED, tombstone.getShopId(), tombstone.getDeletedDate(), null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+
+    public Shop getShop() {
+        return shop;
+    }
+
+    ShopCursor.ChangePosition position() {
+        return new ShopCursor.ChangePosition(changedAt, id);
+    }
+}
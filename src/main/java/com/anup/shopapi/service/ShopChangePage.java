@@ -0,0 +1,41 @@
+package com.anup.shopapi.service;
+
+import java.util.List;
+
+/**
+ * One page of the change feed. Unlike {@link ShopPage}, the next cursor is always
+ * set: once a client has caught up it keeps polling with it to receive later changes.
+ */
+public class ShopChangePage {
+
+    private final List<ShopChange> changes;
+    private final String nextCursor;
+    private final boolean hasMore;
+    private final int limit;
+
+    public ShopChangePage(List<ShopChange> changes, String nextCursor, boolean hasMore, int limit) {
+        this.changes = changes;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+        this.limit = limit;
+    }
+
+    public List<ShopChange> getChanges() {
+        return changes;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * @return true if more changes are already available after this page
+     */
+    public boolean hasMore() {
+        return hasMore;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+}
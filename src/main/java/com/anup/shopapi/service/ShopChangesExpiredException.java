@@ -0,0 +1,15 @@
+package com.anup.shopapi.service;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a change feed cursor is older than the tombstone retention,
+ * so deletions since then may no longer be known.
+ */
+public class ShopChangesExpiredException extends RuntimeException {
+
+    public ShopChangesExpiredException(Duration retention) {
+        super("Cursor is older than the change feed retention of " + retention
+                + "; reload all shops and restart the feed without a cursor");
+    }
+}
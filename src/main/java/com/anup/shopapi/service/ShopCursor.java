@@ -0,0 +1,101 @@
+package com.anup.shopapi.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Encodes and decodes the opaque cursors handed out by paginated endpoints.
+ * Clients must treat cursors as opaque strings; the format may change.
+ */
+public final class ShopCursor {
+
+    private static final String ID_PREFIX = "id:";
+    private static final String CHANGE_PREFIX = "changed:";
+    private static final char CHANGE_SEPARATOR = '/';
+
+    /**
+     * Position in the change feed: changes are ordered by time, then shop ID
+     * @param changedAt Time of the last change returned
+     * @param id Shop ID of the last change returned
+     */
+    public record ChangePosition(LocalDateTime changedAt, long id) implements Comparable<ChangePosition> {
+
+        // Before every change
+        public static final ChangePosition START = new ChangePosition(LocalDateTime.of(1970, 1, 1, 0, 0), 0);
+
+        @Override
+        public int compareTo(ChangePosition other) {
+            int byTime = changedAt.compareTo(other.changedAt);
+            return byTime != 0 ? byTime : Long.compare(id, other.id);
+        }
+    }
+
+    private ShopCursor() {
+    }
+
+    /**
+     * Encode the last shop ID of a page as an opaque cursor
+     * @param id Last shop ID returned
+     * @return Opaque cursor string
+     */
+    public static String encode(long id) {
+        byte[] raw = (ID_PREFIX + id).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    /**
+     * Decode a cursor previously returned by {@link #encode(long)}
+     * @param cursor Opaque cursor string
+     * @return Shop ID the next page starts after
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static long decode(String cursor) {
+        long id;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            id = raw.startsWith(ID_PREFIX) ? Long.parseLong(raw.substring(ID_PREFIX.length())) : -1;
+        } catch (IllegalArgumentException e) {
+            // Covers both bad Base64 and NumberFormatException
+            id = -1;
+        }
+        if (id < 0) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        return id;
+    }
+
+    /**
+     * Encode a change feed position as an opaque cursor
+     * @param position Position of the last change returned
+     * @return Opaque cursor string
+     */
+    public static String encodeChange(ChangePosition position) {
+        byte[] raw = (CHANGE_PREFIX + position.changedAt() + CHANGE_SEPARATOR + position.id()).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    /**
+     * Decode a cursor previously returned by {@link #encodeChange(ChangePosition)}
+     * @param cursor Opaque cursor string
+     * @return Position the next changes start after
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static ChangePosition decodeChange(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(CHANGE_SEPARATOR);
+            if (raw.startsWith(CHANGE_PREFIX) && separator > CHANGE_PREFIX.length()) {
+                LocalDateTime changedAt = LocalDateTime.parse(raw.substring(CHANGE_PREFIX.length(), separator));
+                long id = Long.parseLong(raw.substring(separator + 1));
+                if (id >= 0) {
+                    return new ChangePosition(changedAt, id);
+                }
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            // Covers bad Base64, NumberFormatException and malformed timestamps
+        }
+        throw new IllegalArgumentException("Invalid cursor: " + cursor);
+    }
+}
@@ -0,0 +1,40 @@
+package com.anup.shopapi.service;
+
+/**
+ * Thrown when a shop would share its email or phone with another shop.
+ */
+public class ShopDuplicateException extends RuntimeException {
+
+    private final String field;
+    private final Long existingShopId;
+
+    public ShopDuplicateException(String field, String value, Long existingShopId) {
+        super("Shop with " + field + " " + value + " already exists with ID: " + existingShopId);
+        this.field = field;
+        this.existingShopId = existingShopId;
+    }
+
+    /**
+     * Raised when the database rejects a write that slipped past the duplicate check,
+     * e.g. two requests creating shops with the same email at once
+     */
+    public ShopDuplicateException() {
+        super("Shop email or phone is already used by another shop");
+        this.field = null;
+        this.existingShopId = null;
+    }
+
+    /**
+     * @return Duplicated field (email or phone), or null if unknown
+     */
+    public String getField() {
+        return field;
+    }
+
+    /**
+     * @return ID of the shop that already has the value, or null if unknown
+     */
+    public Long getExistingShopId() {
+        return existingShopId;
+    }
+}
@@ -0,0 +1,37 @@
+package com.anup.shopapi.service;
+
+import java.util.List;
+
+/**
+ * One page of shops from a keyset (cursor) query.
+ * The next cursor is null when there are no more shops after this page.
+ * @param <T> Shop entities, or rows of selected fields for sparse fieldsets
+ */
+public class ShopPage<T> {
+
+    private final List<T> shops;
+    private final String nextCursor;
+    private final int limit;
+
+    public ShopPage(List<T> shops, String nextCursor, int limit) {
+        this.shops = shops;
+        this.nextCursor = nextCursor;
+        this.limit = limit;
+    }
+
+    public List<T> getShops() {
+        return shops;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
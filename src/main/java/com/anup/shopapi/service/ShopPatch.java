@@ -0,0 +1,80 @@
+package com.anup.shopapi.service;
+
+import com.anup.shopapi.entity.Shop;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Changes requested by a PATCH: only the fields present in the request body.
+ * A field sent as null is cleared; validation decides whether that is allowed.
+ */
+public final class ShopPatch {
+
+    private static final Set<String> EDITABLE_FIELDS = Set.of("name", "address", "phone", "email");
+
+    private final Map<String, String> changes;
+
+    private ShopPatch(Map<String, String> changes) {
+        this.changes = Collections.unmodifiableMap(changes);
+    }
+
+    /**
+     * Read a patch from a JSON object body
+     * @param body Field names to new values
+     * @return Patch with one change per field
+     * @throws IllegalArgumentException if a field is unknown, not editable or not a string
+     */
+    public static ShopPatch from(Map<String, Object> body) {
+        if (body == null) {
+            throw new IllegalArgumentException("Request body must be a JSON object");
+        }
+        Map<String, String> changes = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : body.entrySet()) {
+            if (!EDITABLE_FIELDS.contains(entry.getKey())) {
+                throw new IllegalArgumentException("Field cannot be patched: " + entry.getKey()
+                        + ". Editable fields: address, email, name, phone");
+            }
+            Object value = entry.getValue();
+            if (value != null && !(value instanceof String)) {
+                throw new IllegalArgumentException("Field " + entry.getKey() + " must be a string or null");
+            }
+            changes.put(entry.getKey(), (String) value);
+        }
+        return new ShopPatch(changes);
+    }
+
+    /**
+     * @return Field names to new values, in request order
+     */
+    public Map<String, String> getChanges() {
+        return changes;
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    /**
+     * Copy the changed fields onto a shop
+     * @param shop Managed shop to change
+     */
+    public void applyTo(Shop shop) {
+        changes.forEach((field, value) -> {
+            switch (field) {
+                case "name" -> shop.setName(value);
+                case "address" -> shop.setAddress(value);
+                case "phone" -> shop.setPhone(value);
+                case "email" -> shop.setEmail(value);
+                default -> throw new IllegalStateException("Unexpected field: " + field);
+            }
+        });
+    }
+
+    @Override
+    public String toString() {
+        return "ShopPatch" + changes.keySet();
+    }
+}
@@ -1,29 +1,161 @@
 package com.anup.shopapi.service;
 
+import com.anup.shopapi.coalescing.Coalesced;
+import com.anup.shopapi.datasource.ReplicaRoutingDataSource;
 import com.anup.shopapi.entity.Shop;
+import com.anup.shopapi.entity.ShopTombstone;
+import com.anup.shopapi.event.ShopChangedEvent;
+import com.anup.shopapi.geo.GeoBounds;
+import com.anup.shopapi.geo.GeoPoint;
+import com.anup.shopapi.geo.ShopGeocoder;
+import com.anup.shopapi.index.ShopContactFilter;
+import com.anup.shopapi.index.ShopCounter;
+import com.anup.shopapi.index.ShopGeoIndex;
+import com.anup.shopapi.index.ShopNameSuggester;
+import com.anup.shopapi.index.ShopSearchIndex;
+import com.anup.shopapi.index.ShopSuggestion;
+import com.anup.shopapi.repository.ShopField;
 import com.anup.shopapi.repository.ShopRepository;
+import com.anup.shopapi.repository.ShopTombstoneRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.Cache;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Service
+@Profile("!reactive")
 @Transactional
+// Every public method is timed as shop.service{class, method, exception}
+@Timed(value = "shop.service", percentiles = {0.5, 0.99, 0.999})
 public class ShopService {
     
     private static final Logger logger = LoggerFactory.getLogger(ShopService.class);
     
-    private final ShopRepository shopRepository;
+    // Keeps IN lists well below MySQL's placeholder limit
+    private static final int ID_LOOKUP_BATCH_SIZE = 1000;
     
+    private final ShopRepository shopRepository;
+    private final ShopTombstoneRepository tombstoneRepository;
+    private final ShopSearchIndex searchIndex;
+    private final ShopNameSuggester nameSuggester;
+    private final ShopCounter shopCounter;
+    private final ShopContactFilter contactFilter;
+    private final ShopGeoIndex geoIndex;
+    // Null when no geocoder is configured; shops then have no coordinates
+    private final ShopGeocoder geocoder;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int maxSuggestions;
+    private final int maxBatchItems;
+    private final int batchChunkSize;
+    private final Duration changesSettleTime;
+    private final Duration changesRetention;
+    private final double maxNearbyRadiusKm;
+    private final int maxNearbyResults;
+    private final boolean geocodeOnStartup;
+    private final boolean replicasEnabled;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
-    public ShopService(ShopRepository shopRepository) {
+    public ShopService(ShopRepository shopRepository,
+                       ShopTombstoneRepository tombstoneRepository,
+                       ShopSearchIndex searchIndex,
+                       ShopNameSuggester nameSuggester,
+                       ShopCounter shopCounter,
+                       ShopContactFilter contactFilter,
+                       ShopGeoIndex geoIndex,
+                       ObjectProvider<ShopGeocoder> geocoder,
+                       ApplicationEventPublisher eventPublisher,
+                       Validator validator,
+                       PlatformTransactionManager transactionManager,
+                       JdbcTemplate jdbcTemplate,
+                       @Value("${shop.pagination.default-limit:50}") int defaultPageSize,
+                       @Value("${shop.pagination.max-limit:500}") int maxPageSize,
+                       @Value("${shop.suggest.max-limit:50}") int maxSuggestions,
+                       @Value("${shop.batch.max-items:10000}") int maxBatchItems,
+                       @Value("${shop.batch.chunk-size:500}") int batchChunkSize,
+                       @Value("${shop.changes.settle-time:PT2S}") Duration changesSettleTime,
+                       @Value("${shop.changes.retention:P30D}") Duration changesRetention,
+                       @Value("${shop.nearby.max-radius-km:100}") double maxNearbyRadiusKm,
+                       @Value("${shop.nearby.max-limit:100}") int maxNearbyResults,
+                       @Value("${shop.geocoder.backfill-on-startup:false}") boolean geocodeOnStartup,
+                       @Value("${shop.datasource.replica.urls:}") String replicaUrls) {
         this.shopRepository = shopRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.searchIndex = searchIndex;
+        this.nameSuggester = nameSuggester;
+        this.shopCounter = shopCounter;
+        this.contactFilter = contactFilter;
+        this.geoIndex = geoIndex;
+        this.geocoder = geocoder.getIfAvailable();
+        this.eventPublisher = eventPublisher;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jdbcTemplate = jdbcTemplate;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.maxSuggestions = maxSuggestions;
+        this.maxBatchItems = maxBatchItems;
+        this.batchChunkSize = batchChunkSize;
+        this.changesSettleTime = changesSettleTime;
+        this.changesRetention = changesRetention;
+        this.maxNearbyRadiusKm = maxNearbyRadiusKm;
+        this.maxNearbyResults = maxNearbyResults;
+        this.geocodeOnStartup = geocodeOnStartup;
+        this.replicasEnabled = !replicaUrls.isBlank();
     }
-    
+
     /**
      * Retrieve all shops from the database
      * @return List of all shops
@@ -31,63 +163,696 @@ public class ShopService {
     @Transactional(readOnly = true)
     public List<Shop> getAllShops() {
         logger.info("Fetching all shops from database");
+        skipCacheStoreOnReplica();
         List<Shop> shops = shopRepository.findAll();
         logger.info("Found {} shops", shops.size());
         return shops;
     }
     
     /**
-     * Find a shop by ID
+     * Retrieve one page of shops ordered by ID using keyset pagination.
+     * Each page is a bounded index range scan, so cost does not grow with table size.
+     * Read from the primary, since pages end up in the response cache.
+     * @param afterCursor Opaque cursor from the previous page, or null for the first page
+     * @param limit Requested page size, or null for the default; capped at the configured maximum
+     * @return Page of shops with the cursor for the next page
+     */
+    @Transactional(readOnly = true)
+    public ShopPage<Shop> getShopsPage(String afterCursor, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        long afterId = resolveAfterId(afterCursor);
+        logger.info("Fetching shops page after ID {} with limit {}", afterId, pageSize);
+
+        // Fetch one extra row to find out whether another page exists
+        List<Shop> shops = ReplicaRoutingDataSource.readOnPrimary(
+                () -> shopRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(pageSize + 1)));
+        String nextCursor = null;
+        if (shops.size() > pageSize) {
+            shops = shops.subList(0, pageSize);
+            nextCursor = ShopCursor.encode(shops.get(pageSize - 1).getId());
+        }
+        logger.info("Found {} shops in page", shops.size());
+        return new ShopPage<>(shops, nextCursor, pageSize);
+    }
+
+    /**
+     * Retrieve one page of shops like {@link #getShopsPage(String, Integer)}, reading only
+     * the selected fields. Rows are read-only and never enter the persistence context.
+     * @param afterCursor Opaque cursor from the previous page, or null for the first page
+     * @param limit Requested page size, or null for the default; capped at the configured maximum
+     * @param fields Fields to select; always includes the ID
+     * @return Page of field rows with the cursor for the next page
+     */
+    @Transactional(readOnly = true)
+    public ShopPage<Map<String, Object>> getShopFieldsPage(String afterCursor, Integer limit, Set<ShopField> fields) {
+        int pageSize = resolvePageSize(limit);
+        long afterId = resolveAfterId(afterCursor);
+        logger.info("Fetching fields {} of shops page after ID {} with limit {}", fields, afterId, pageSize);
+
+        List<Map<String, Object>> rows = ReplicaRoutingDataSource.readOnPrimary(
+                () -> shopRepository.findFieldsByIdGreaterThan(fields, afterId, pageSize + 1));
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            nextCursor = ShopCursor.encode((Long) rows.get(pageSize - 1).get(ShopField.ID.getName()));
+        }
+        logger.info("Found {} shops in page", rows.size());
+        return new ShopPage<>(rows, nextCursor, pageSize);
+    }
+
+    /**
+     * Retrieve shops created, updated or deleted after a change feed cursor, in the
+     * order they changed (time, then ID). Both sides are keyset range scans, so the
+     * cost follows the number of changes rather than the number of shops.
+     * <p>
+     * Updated dates are set before commit, so changes from the last
+     * {@code shop.changes.settle-time} are held back until transactions that
+     * started earlier have committed; otherwise a client could move past them.
+     * Read from the primary: a replica lagging by more than the settle time
+     * would let the cursor move past changes it has not applied yet.
+     * @param since Cursor from the previous page, or null to start with every shop
+     * @param limit Requested page size, or null for the default; capped at the configured maximum
+     * @return Page of changes with the cursor to continue from
+     * @throws ShopChangesExpiredException if the cursor is older than the tombstone retention
+     */
+    @Transactional(readOnly = true)
+    public ShopChangePage getChanges(String since, Integer limit) {
+        return ReplicaRoutingDataSource.readOnPrimary(() -> readChanges(since, limit));
+    }
+
+    private ShopChangePage readChanges(String since, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        LocalDateTime now = LocalDateTime.now();
+        ShopCursor.ChangePosition from = ShopCursor.ChangePosition.START;
+        if (since != null && !since.isBlank()) {
+            from = ShopCursor.decodeChange(since);
+            if (from.changedAt().isBefore(now.minus(changesRetention))) {
+                throw new ShopChangesExpiredException(changesRetention);
+            }
+        }
+        LocalDateTime horizon = now.minus(changesSettleTime);
+        logger.info("Fetching shop changes after {} up to {} with limit {}", from, horizon, pageSize);
+
+        // Fetch one extra row from each side to find out whether another page exists
+        List<Shop> shops = shopRepository.findChangedAfter(from.changedAt(), from.id(), horizon, Limit.of(pageSize + 1));
+        List<ShopTombstone> tombstones = tombstoneRepository.findChangedAfter(from.changedAt(), from.id(), horizon, Limit.of(pageSize + 1));
+        List<ShopChange> changes = new ArrayList<>(Math.min(pageSize, shops.size() + tombstones.size()));
+        int nextShop = 0;
+        int nextTombstone = 0;
+        while (changes.size() < pageSize && (nextShop < shops.size() || nextTombstone < tombstones.size())) {
+            ShopChange changed = nextShop < shops.size() ? ShopChange.changed(shops.get(nextShop)) : null;
+            ShopChange deleted = nextTombstone < tombstones.size() ? ShopChange.deleted(tombstones.get(nextTombstone)) : null;
+            if (deleted == null || changed != null && changed.position().compareTo(deleted.position()) < 0) {
+                changes.add(changed);
+                nextShop++;
+            } else {
+                changes.add(deleted);
+                nextTombstone++;
+            }
+        }
+        boolean hasMore = nextShop < shops.size() || nextTombstone < tombstones.size();
+
+        // Once caught up, everything up to the horizon has been seen, so the cursor can move there;
+        // this keeps the cursor of a client polling a quiet feed within the retention period
+        ShopCursor.ChangePosition next = changes.isEmpty() ? from : changes.get(changes.size() - 1).position();
+        ShopCursor.ChangePosition caughtUp = new ShopCursor.ChangePosition(horizon, Long.MAX_VALUE);
+        if (!hasMore && caughtUp.compareTo(next) > 0) {
+            next = caughtUp;
+        }
+        logger.info("Found {} shop changes", changes.size());
+        return new ShopChangePage(changes, ShopCursor.encodeChange(next), hasMore, pageSize);
+    }
+
+    /**
+     * Change feed cursor from which {@link #getChanges} returns every change that may have
+     * committed after a point in time. It starts {@code shop.changes.settle-time} earlier,
+     * since a write that committed later may carry an earlier updated date.
+     * @param time Point in time, e.g. the start of a read the feed should continue
+     * @return Opaque change feed cursor
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public String getChangesCursor(LocalDateTime time) {
+        return ShopCursor.encodeChange(new ShopCursor.ChangePosition(time.minus(changesSettleTime), 0));
+    }
+
+    /**
+     * Position of the last change before a change feed cursor, i.e. the newest change a
+     * reader that has caught up to the cursor has seen. Every instance gets the same
+     * position for the same cursor. Read from the primary, like {@link #getChanges}.
+     * @param cursor Change feed cursor
+     * @return Position of the last change, or {@link ShopCursor.ChangePosition#START} if there is none
+     */
+    @Transactional(readOnly = true)
+    public ShopCursor.ChangePosition getLastChangeBefore(String cursor) {
+        LocalDateTime before = ShopCursor.decodeChange(cursor).changedAt();
+        return ReplicaRoutingDataSource.readOnPrimary(() -> {
+            ShopCursor.ChangePosition last = ShopCursor.ChangePosition.START;
+            for (Shop shop : shopRepository.findLastChangedBefore(before, Limit.of(1))) {
+                last = ShopChange.changed(shop).position();
+            }
+            for (ShopTombstone tombstone : tombstoneRepository.findLastChangedBefore(before, Limit.of(1))) {
+                ShopCursor.ChangePosition deleted = ShopChange.deleted(tombstone).position();
+                if (deleted.compareTo(last) > 0) {
+                    last = deleted;
+                }
+            }
+            return last;
+        });
+    }
+    
+    /**
+     * Drop tombstones older than the change feed retention ({@code shop.changes.retention}).
+     * Runs on a fixed delay, configured by {@code shop.changes.purge-interval}.
+     */
+    @Scheduled(initialDelayString = "${shop.changes.purge-interval:PT1H}",
+               fixedDelayString = "${shop.changes.purge-interval:PT1H}")
+    public void purgeTombstones() {
+        int purged = tombstoneRepository.deleteDeletedBefore(LocalDateTime.now().minus(changesRetention));
+        logger.info("Purged {} shop tombstones older than {}", purged, changesRetention);
+    }
+
+    private static long resolveAfterId(String afterCursor) {
+        return afterCursor == null || afterCursor.isBlank() ? 0L : ShopCursor.decode(afterCursor);
+    }
+
+    private int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return Math.min(defaultPageSize, maxPageSize);
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        return Math.min(limit, maxPageSize);
+    }
+
+    /**
+     * Stream every shop in ID order to the given sink without materializing the table.
+     * Each shop is detached once written so the persistence context stays empty.
+     * @param sink Receives each shop in turn
+     * @return Number of shops exported
+     * @throws IOException if the sink fails to write
+     */
+    @Transactional(readOnly = true)
+    public long exportShops(ShopExportSink sink) throws IOException {
+        logger.info("Exporting all shops");
+        skipCacheStoreOnReplica();
+        long exported = 0;
+        try (Stream<Shop> shops = shopRepository.streamAllOrderById()) {
+            Iterator<Shop> iterator = shops.iterator();
+            while (iterator.hasNext()) {
+                Shop shop = iterator.next();
+                sink.accept(shop);
+                entityManager.detach(shop);
+                exported++;
+            }
+        }
+        logger.info("Exported {} shops", exported);
+        return exported;
+    }
+
+    /**
+     * Receives shops from {@link #exportShops(ShopExportSink)}
+     */
+    @FunctionalInterface
+    public interface ShopExportSink {
+        void accept(Shop shop) throws IOException;
+    }
+
+    /**
+     * Find a shop by ID. Concurrent calls for the same ID share one lookup. Read from
+     * the primary, since the shop ends up in the second-level and response caches.
      * @param id Shop ID
-     * @return Optional containing the shop if found
+     * @return Optional containing the shop if found; shared between concurrent callers, do not modify
      */
+    @Coalesced
     @Transactional(readOnly = true)
     public Optional<Shop> getShopById(Long id) {
         logger.info("Fetching shop with ID: {}", id);
-        return shopRepository.findById(id);
+        return ReplicaRoutingDataSource.readOnPrimary(() -> shopRepository.findById(id));
+    }
+    
+    /**
+     * Find a shop by email. Emails no shop has are usually ruled out by the
+     * contact filter without querying the database.
+     * @param email Email address
+     * @return Optional containing the shop if found
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Optional<Shop> getShopByEmail(String email) {
+        if (email == null || email.isBlank()) {
+            throw new IllegalArgumentException("Email is required");
+        }
+        logger.info("Fetching shop with email: {}", email);
+        return findByContact(ShopContactFilter.Field.EMAIL, email);
+    }
+    
+    /**
+     * Find a shop by phone. Phones no shop has are usually ruled out by the
+     * contact filter without querying the database.
+     * @param phone Phone number
+     * @return Optional containing the shop if found
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Optional<Shop> getShopByPhone(String phone) {
+        if (phone == null || phone.isBlank()) {
+            throw new IllegalArgumentException("Phone is required");
+        }
+        logger.info("Fetching shop with phone: {}", phone);
+        return findByContact(ShopContactFilter.Field.PHONE, phone);
+    }
+    
+    private Optional<Shop> findByContact(ShopContactFilter.Field field, String value) {
+        skipCacheStoreOnReplica();
+        return contactFilter.find(field, value, field == ShopContactFilter.Field.EMAIL
+                ? shopRepository::findByEmail
+                : shopRepository::findByPhone);
+    }
+    
+    /**
+     * Check that no other shop has the shop's email or phone
+     * @param shop Shop with the new values
+     * @param current Shop being changed, or null for a new shop; values it already has are not checked
+     * @throws ShopDuplicateException if another shop has one of the values
+     */
+    private void checkContactsAvailable(Shop shop, Shop current) {
+        for (ShopContactFilter.Field field : ShopContactFilter.Field.values()) {
+            checkContactAvailable(field, field.get(shop), current);
+        }
+    }
+    
+    private void checkContactAvailable(ShopContactFilter.Field field, String value, Shop current) {
+        if (current != null && Objects.equals(value, field.get(current))) {
+            return;
+        }
+        checkContactAvailableTo(field, value, current == null ? null : current.getId());
+    }
+    
+    // Same check for a shop that has not been read; its own value is found and allowed
+    private void checkContactAvailableTo(ShopContactFilter.Field field, String value, Long shopId) {
+        if (value == null) {
+            return;
+        }
+        Optional<Shop> existing = findByContact(field, value);
+        if (existing.isPresent() && !existing.get().getId().equals(shopId)) {
+            throw new ShopDuplicateException(field.getName(), value, existing.get().getId());
+        }
     }
     
     /**
      * Create a new shop
      * @param shop Shop to create
      * @return Created shop
+     * @throws ShopDuplicateException if another shop has the same email or phone
      */
     public Shop createShop(Shop shop) {
         logger.info("Creating new shop: {}", shop.getName());
+        checkContactsAvailable(shop, null);
+        locate(shop);
         Shop savedShop = shopRepository.save(shop);
+        flushChanges(savedShop.getId());
+        eventPublisher.publishEvent(ShopChangedEvent.created(savedShop));
         logger.info("Shop created successfully with ID: {}", savedShop.getId());
         return savedShop;
     }
+
+    /**
+     * Create a group of shops in one transaction, so they share a single commit.
+     * Unlike createShops, the group is all or nothing: one shop that cannot be
+     * inserted rolls back the others, and the caller decides what to retry.
+     * @param shops Shops to create, already validated
+     * @return Created shops, in input order
+     * @throws ShopDuplicateException if another shop, or another shop of the group, has the same email or phone
+     */
+    public List<Shop> createShopGroup(List<Shop> shops) {
+        logger.debug("Creating group of {} shops", shops.size());
+        for (Shop shop : shops) {
+            checkContactsAvailable(shop, null);
+        }
+        // Checks first, so their queries do not flush the inserts one at a time
+        for (Shop shop : shops) {
+            // Always insert; a shop retried after a rolled-back group still has the ID and version it got then
+            shop.setId(null);
+            shop.setVersion(null);
+            locate(shop);
+            entityManager.persist(shop);
+        }
+        try {
+            shopRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            logger.warn("Group of {} shops rejected by the database: {}", shops.size(), e.getMessage());
+            throw new ShopDuplicateException();
+        }
+        for (Shop shop : shops) {
+            eventPublisher.publishEvent(ShopChangedEvent.created(shop));
+        }
+        return shops;
+    }
+
+    /**
+     * Create many shops at once. Each shop is validated on its own, including that its
+     * email and phone are not used by another shop or earlier in the batch; valid shops
+     * are inserted in chunks, each chunk in its own transaction using JDBC batch inserts.
+     * A chunk that fails to insert is reported as failed without undoing earlier chunks.
+     * @param shops Shops to create
+     * @return One result per input shop, in input order
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ShopBatchResult> createShops(List<Shop> shops) {
+        if (shops.size() > maxBatchItems) {
+            throw new IllegalArgumentException("Batch must not contain more than " + maxBatchItems + " shops");
+        }
+        logger.info("Creating {} shops in batch", shops.size());
+        ShopBatchResult[] results = new ShopBatchResult[shops.size()];
+        List<Integer> chunk = new ArrayList<>(batchChunkSize);
+        Map<String, Integer> contactsInBatch = new HashMap<>();
+        for (int index = 0; index < shops.size(); index++) {
+            Shop shop = shops.get(index);
+            List<String> errors = validate(shop);
+            if (errors.isEmpty()) {
+                errors = checkBatchContacts(shop, index, contactsInBatch);
+            }
+            if (!errors.isEmpty()) {
+                results[index] = ShopBatchResult.invalid(index, errors);
+                continue;
+            }
+            // Always insert, never merge into an existing row
+            shop.setId(null);
+            locate(shop);
+            chunk.add(index);
+            if (chunk.size() == batchChunkSize) {
+                insertChunk(shops, chunk, results);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            insertChunk(shops, chunk, results);
+        }
+        long created = Arrays.stream(results).filter(result -> result.getStatus() == ShopBatchResult.Status.CREATED).count();
+        logger.info("Batch created {} of {} shops", created, shops.size());
+        return Arrays.asList(results);
+    }
+    
+    private void insertChunk(List<Shop> shops, List<Integer> chunk, ShopBatchResult[] results) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int index : chunk) {
+                    Shop shop = shops.get(index);
+                    entityManager.persist(shop);
+                    eventPublisher.publishEvent(ShopChangedEvent.created(shop));
+                }
+                // Inserts go out as JDBC batches on flush; clearing keeps the context small
+                entityManager.flush();
+                entityManager.clear();
+            });
+            for (int index : chunk) {
+                results[index] = ShopBatchResult.created(index, shops.get(index).getId());
+            }
+        } catch (Exception e) {
+            logger.error("Error inserting batch chunk of {} shops: {}", chunk.size(), e.getMessage(), e);
+            for (int index : chunk) {
+                results[index] = ShopBatchResult.failed(index, "Insert failed: " + e.getMessage());
+            }
+        }
+    }
+    
+    // Duplicate check for one shop of a batch, against the table and the shops before it in the batch
+    private List<String> checkBatchContacts(Shop shop, int index, Map<String, Integer> contactsInBatch) {
+        List<String> errors = new ArrayList<>();
+        for (ShopContactFilter.Field field : ShopContactFilter.Field.values()) {
+            String value = field.get(shop);
+            if (value == null) {
+                continue;
+            }
+            Integer earlier = contactsInBatch.putIfAbsent(field.getName() + ":" + value.toLowerCase(Locale.ROOT), index);
+            if (earlier != null) {
+                errors.add(field.getName() + ": same as shop at index " + earlier);
+                continue;
+            }
+            try {
+                checkContactAvailable(field, value, null);
+            } catch (ShopDuplicateException e) {
+                errors.add(field.getName() + ": " + e.getMessage());
+            }
+        }
+        return errors;
+    }
+    
+    private List<String> validate(Shop shop) {
+        if (shop == null) {
+            return List.of("Shop is required");
+        }
+        List<String> errors = new ArrayList<>();
+        for (ConstraintViolation<Shop> violation : validator.validate(shop)) {
+            errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        return errors;
+    }
     
     /**
-     * Update an existing shop
+     * Update an existing shop. The last write wins: a shop changed by another
+     * instance since it was cached is overwritten rather than reported as a conflict.
      * @param id Shop ID
      * @param shopDetails Updated shop details
      * @return Updated shop
+     * @throws ShopDuplicateException if another shop has the new email or phone
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Optional<Shop> updateShop(Long id, Shop shopDetails) {
         logger.info("Updating shop with ID: {}", id);
-        return shopRepository.findById(id)
+        return writeLatest(id, () -> shopRepository.findById(id)
                 .map(shop -> {
+                    checkContactsAvailable(shopDetails, shop);
+                    boolean moved = !Objects.equals(shop.getAddress(), shopDetails.getAddress());
                     shop.setName(shopDetails.getName());
                     shop.setAddress(shopDetails.getAddress());
                     shop.setPhone(shopDetails.getPhone());
                     shop.setEmail(shopDetails.getEmail());
+                    if (moved || shop.getLatitude() == null) {
+                        locate(shop);
+                    }
                     Shop updatedShop = shopRepository.save(shop);
+                    flushChanges(id);
+                    eventPublisher.publishEvent(ShopChangedEvent.updated(updatedShop));
                     logger.info("Shop updated successfully: {}", updatedShop.getId());
                     return updatedShop;
+                }));
+    }
+    
+    /**
+     * Change only the given fields of a shop.
+     * With an expected version the change is a single conditional UPDATE of the
+     * changed columns, which only succeeds if the row still has that version; the
+     * row is read again only to tell a missing shop from a conflict when nothing
+     * was updated. Without one the last write wins, as for a full update.
+     * @param id Shop ID
+     * @param patch Fields to change
+     * @param expectedVersion Version the client based its change on (If-Match), or null for the current version
+     * @return Patched shop, or empty if not found
+     * @throws ShopVersionConflictException if the shop is no longer at the expected version
+     * @throws ShopDuplicateException if another shop has the new email or phone
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<Shop> patchShop(Long id, ShopPatch patch, Long expectedVersion) {
+        logger.info("Patching {} of shop with ID: {} at version: {}", patch, id, expectedVersion);
+        List<String> errors = validate(patch);
+        if (!errors.isEmpty()) {
+            throw new IllegalArgumentException(String.join("; ", errors));
+        }
+        if (expectedVersion != null) {
+            return transactionTemplate.execute(status -> patchAtVersion(id, patch, expectedVersion));
+        }
+        return writeLatest(id, () -> shopRepository.findById(id)
+                .map(shop -> {
+                    if (patch.isEmpty()) {
+                        return shop;
+                    }
+                    for (ShopContactFilter.Field field : ShopContactFilter.Field.values()) {
+                        checkContactAvailable(field, patch.getChanges().get(field.getName()), shop);
+                    }
+                    patch.applyTo(shop);
+                    if (patch.getChanges().containsKey("address")) {
+                        locate(shop);
+                    }
+                    flushChanges(id);
+                    eventPublisher.publishEvent(ShopChangedEvent.updated(shop));
+                    logger.info("Shop patched successfully: {} now at version {}", id, shop.getVersion());
+                    return shop;
+                }));
+    }
+    
+    private Optional<Shop> patchAtVersion(Long id, ShopPatch patch, long expectedVersion) {
+        Map<ShopField, Object> values = new EnumMap<>(ShopField.class);
+        for (ShopField field : ShopField.values()) {
+            if (patch.getChanges().containsKey(field.getName())) {
+                values.put(field, patch.getChanges().get(field.getName()));
+            }
+        }
+        for (ShopContactFilter.Field field : ShopContactFilter.Field.values()) {
+            checkContactAvailableTo(field, patch.getChanges().get(field.getName()), id);
+        }
+        int updated = 0;
+        if (!patch.isEmpty()) {
+            if (values.containsKey(ShopField.ADDRESS)) {
+                Optional<GeoPoint> point = geocode(id, (String) values.get(ShopField.ADDRESS));
+                values.put(ShopField.LATITUDE, point.map(GeoPoint::latitude).orElse(null));
+                values.put(ShopField.LONGITUDE, point.map(GeoPoint::longitude).orElse(null));
+            }
+            values.put(ShopField.UPDATED_DATE, LocalDateTime.now());
+            try {
+                updated = shopRepository.updateFieldsAtVersion(id, values, expectedVersion);
+            } catch (DataIntegrityViolationException e) {
+                logger.warn("Write to shop {} rejected by the database: {}", id, e.getMessage());
+                throw new ShopDuplicateException();
+            }
+        }
+        if (updated == 0) {
+            Optional<Long> currentVersion = shopRepository.findVersionById(id);
+            if (currentVersion.isEmpty()) {
+                return Optional.empty();
+            }
+            if (currentVersion.get() != expectedVersion) {
+                throw new ShopVersionConflictException(id, currentVersion.get());
+            }
+        }
+        // The UPDATE holds the row lock until commit, so the row read back is the one just written
+        long version = updated == 0 ? expectedVersion : expectedVersion + 1;
+        Shop shop = shopRepository.findById(id).orElseThrow();
+        if (!Objects.equals(shop.getVersion(), version)) {
+            entityManager.refresh(shop);
+        }
+        if (updated > 0) {
+            eventPublisher.publishEvent(ShopChangedEvent.updated(shop));
+            logger.info("Shop patched successfully: {} now at version {}", id, shop.getVersion());
+        }
+        return Optional.of(shop);
+    }
+    
+    // Runs a last-write-wins change in its own transaction. The shop is normally read from the
+    // second-level cache, which may predate a write made through another instance; the stale
+    // version then fails the UPDATE, and the change is retried once against the row itself.
+    private <T> T writeLatest(Long id, Supplier<T> change) {
+        try {
+            return transactionTemplate.execute(status -> change.get());
+        } catch (ShopVersionConflictException e) {
+            logger.info("Cached copy of shop {} was out of date, retrying the write", id);
+            entityManager.getEntityManagerFactory().getCache().evict(Shop.class, id);
+            return transactionTemplate.execute(status -> change.get());
+        }
+    }
+    
+    // Sets the shop's coordinates from its address; without a geocoder, or if it fails, the shop
+    // is left without coordinates (out of nearby results) rather than failing the write
+    private void locate(Shop shop) {
+        Optional<GeoPoint> point = geocode(shop.getId(), shop.getAddress());
+        shop.setLatitude(point.map(GeoPoint::latitude).orElse(null));
+        shop.setLongitude(point.map(GeoPoint::longitude).orElse(null));
+    }
+    
+    private Optional<GeoPoint> geocode(Long id, String address) {
+        try {
+            if (geocoder != null) {
+                return geocoder.geocode(address);
+            }
+        } catch (Exception e) {
+            logger.warn("Could not geocode address of shop {}: {}", id, e.getMessage());
+        }
+        return Optional.empty();
+    }
+    
+    /**
+     * Geocode shops that have no coordinates, such as rows inserted with plain SQL
+     * or written before nearby search existed. Runs once on startup, in chunks,
+     * each chunk in its own transaction; updated shops are published like any other update.
+     * Enabled by {@code shop.geocoder.backfill-on-startup} (off by default), and only
+     * when a geocoder is configured.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void geocodeMissingCoordinates() {
+        if (!geocodeOnStartup) {
+            return;
+        }
+        if (geocoder == null) {
+            logger.warn("shop.geocoder.backfill-on-startup is set but no geocoder is configured, skipping");
+            return;
+        }
+        long located = 0;
+        Long afterId = 0L;
+        while (true) {
+            Long from = afterId;
+            List<Shop> shops;
+            try {
+                shops = transactionTemplate.execute(status -> {
+                    List<Shop> chunk = shopRepository.findByLatitudeIsNullAndIdGreaterThanOrderByIdAsc(from, Limit.of(batchChunkSize));
+                    for (Shop shop : chunk) {
+                        locate(shop);
+                        if (shop.getLatitude() != null) {
+                            eventPublisher.publishEvent(ShopChangedEvent.updated(shop));
+                        }
+                    }
+                    return chunk;
                 });
+            } catch (Exception e) {
+                // Typically a concurrent update of one of the shops; the rest are retried on the next startup
+                logger.warn("Stopped geocoding shops without coordinates after ID {}: {}", from, e.getMessage());
+                break;
+            }
+            if (shops.isEmpty()) {
+                break;
+            }
+            located += shops.stream().filter(shop -> shop.getLatitude() != null).count();
+            afterId = shops.get(shops.size() - 1).getId();
+        }
+        if (located > 0) {
+            logger.info("Geocoded {} shops that had no coordinates", located);
+        }
+    }
+    
+    // Sends pending writes now, so a version conflict or a duplicate email or phone
+    // (one that raced past the duplicate check) surfaces here rather than at commit
+    private void flushChanges(Long id) {
+        try {
+            shopRepository.flush();
+        } catch (OptimisticLockingFailureException e) {
+            throw new ShopVersionConflictException(id, null);
+        } catch (DataIntegrityViolationException e) {
+            logger.warn("Write to shop {} rejected by the database: {}", id, e.getMessage());
+            throw new ShopDuplicateException();
+        }
+    }
+    
+    private List<String> validate(ShopPatch patch) {
+        List<String> errors = new ArrayList<>();
+        patch.getChanges().forEach((field, value) -> {
+            for (ConstraintViolation<Shop> violation : validator.validateValue(Shop.class, field, value)) {
+                errors.add(field + ": " + violation.getMessage());
+            }
+        });
+        return errors;
     }
     
     /**
-     * Delete a shop by ID
+     * Delete a shop by ID, leaving a tombstone for the change feed.
+     * The row is deleted with plain JDBC in the same transaction, without loading it
+     * first. Unlike a JPQL DELETE, which Hibernate answers by evicting the whole Shop
+     * region, only this shop and the cached query results it may be part of (counts
+     * and lookups by email or phone) are evicted once the delete commits.
      * @param id Shop ID
      * @return true if deleted, false if not found
      */
     public boolean deleteShop(Long id) {
         logger.info("Deleting shop with ID: {}", id);
-        if (shopRepository.existsById(id)) {
-            shopRepository.deleteById(id);
+        if (jdbcTemplate.update("DELETE FROM shops WHERE id = ?", id) > 0) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    Cache cache = entityManager.getEntityManagerFactory().getCache().unwrap(Cache.class);
+                    cache.evictEntityData(Shop.class, id);
+                    cache.evictDefaultQueryRegion();
+                }
+            });
+            entityManager.persist(new ShopTombstone(id, LocalDateTime.now()));
+            eventPublisher.publishEvent(ShopChangedEvent.deleted(id));
             logger.info("Shop deleted successfully: {}", id);
             return true;
         }
@@ -96,24 +861,272 @@ public class ShopService {
     }
     
     /**
-     * Search shops by name or address
+     * Delete many shops at once. IDs are deleted in chunks, each chunk in its own
+     * transaction with one query for the IDs that exist, one INSERT ... SELECT for
+     * their tombstones and one IN-list DELETE.
+     * A chunk that fails is reported as failed without undoing earlier chunks.
+     * @param ids Shop IDs to delete
+     * @return One result per input ID, in input order
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ShopBatchResult> deleteShops(List<Long> ids) {
+        if (ids.size() > maxBatchItems) {
+            throw new IllegalArgumentException("Batch must not contain more than " + maxBatchItems + " shops");
+        }
+        if (ids.contains(null)) {
+            throw new IllegalArgumentException("Shop IDs must not be empty");
+        }
+        logger.info("Deleting {} shops in batch", ids.size());
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Long, ShopBatchResult.Status> statuses = new HashMap<>();
+        Map<Long, String> errors = new HashMap<>();
+        for (int from = 0; from < distinctIds.size(); from += batchChunkSize) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + batchChunkSize, distinctIds.size()));
+            deleteChunk(chunk, statuses, errors);
+        }
+        
+        List<ShopBatchResult> results = new ArrayList<>(ids.size());
+        long deleted = 0;
+        for (int index = 0; index < ids.size(); index++) {
+            Long id = ids.get(index);
+            switch (statuses.get(id)) {
+                case DELETED -> {
+                    results.add(ShopBatchResult.deleted(index, id));
+                    deleted++;
+                }
+                case NOT_FOUND -> results.add(ShopBatchResult.notFound(index, id));
+                default -> results.add(ShopBatchResult.failed(index, id, errors.get(id)));
+            }
+        }
+        logger.info("Batch deleted {} of {} shops", deleted, ids.size());
+        return results;
+    }
+    
+    private void deleteChunk(List<Long> chunk, Map<Long, ShopBatchResult.Status> statuses, Map<Long, String> errors) {
+        try {
+            List<Long> existing = transactionTemplate.execute(status -> {
+                List<Long> found = shopRepository.findExistingIds(chunk);
+                if (!found.isEmpty()) {
+                    tombstoneRepository.insertForShops(found, LocalDateTime.now());
+                    shopRepository.deleteShopsByIdIn(found);
+                    for (Long id : found) {
+                        eventPublisher.publishEvent(ShopChangedEvent.deleted(id));
+                    }
+                }
+                return found;
+            });
+            Set<Long> deleted = new HashSet<>(existing);
+            for (Long id : chunk) {
+                statuses.put(id, deleted.contains(id) ? ShopBatchResult.Status.DELETED : ShopBatchResult.Status.NOT_FOUND);
+            }
+        } catch (Exception e) {
+            logger.error("Error deleting batch chunk of {} shops: {}", chunk.size(), e.getMessage(), e);
+            for (Long id : chunk) {
+                statuses.put(id, ShopBatchResult.Status.FAILED);
+                errors.put(id, "Delete failed: " + e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Search shops by name or address.
+     * Served from the in-memory search index when it can answer the term,
+     * otherwise falls back to a LIKE query against the database.
+     * Concurrent searches for the same term share one execution.
      * @param searchTerm Search term
-     * @return List of matching shops
+     * @return List of matching shops, best match first when served from the index;
+     *         shared between concurrent callers, do not modify
      */
+    @Coalesced
     @Transactional(readOnly = true)
     public List<Shop> searchShops(String searchTerm) {
         logger.info("Searching shops with term: {}", searchTerm);
-        List<Shop> shops = shopRepository.findByNameOrAddressContaining(searchTerm);
+        skipCacheStoreOnReplica();
+        List<Shop> shops;
+        if (searchIndex.supports(searchTerm)) {
+            shops = findAllByIdInOrder(searchIndex.search(searchTerm));
+        } else {
+            logger.debug("Search index cannot serve term, querying database");
+            shops = shopRepository.findByNameOrAddressContaining(searchTerm);
+        }
         logger.info("Found {} shops matching search term", shops.size());
         return shops;
     }
     
     /**
-     * Get total count of shops
-     * @return Total number of shops
+     * Search shops like {@link #searchShops(String)}, reading only the selected fields.
+     * Rows are read-only and never enter the persistence context.
+     * @param searchTerm Search term
+     * @param fields Fields to select; always includes the ID
+     * @return Matching field rows, best match first when served from the index;
+     *         shared between concurrent callers, do not modify
      */
+    @Coalesced
     @Transactional(readOnly = true)
+    public List<Map<String, Object>> searchShopFields(String searchTerm, Set<ShopField> fields) {
+        logger.info("Searching fields {} of shops with term: {}", fields, searchTerm);
+        List<Map<String, Object>> rows;
+        if (searchIndex.supports(searchTerm)) {
+            rows = findFieldsByIdInOrder(searchIndex.search(searchTerm), fields);
+        } else {
+            logger.debug("Search index cannot serve term, querying database");
+            rows = shopRepository.findFieldsByNameOrAddressContaining(fields, searchTerm);
+        }
+        logger.info("Found {} shops matching search term", rows.size());
+        return rows;
+    }
+
+    /**
+     * Load the selected fields of shops by ID in batched IN queries, preserving the order of the given IDs.
+     * IDs with no matching row are skipped.
+     */
+    private List<Map<String, Object>> findFieldsByIdInOrder(List<Long> ids, Set<ShopField> fields) {
+        Map<Long, Map<String, Object>> rowsById = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += ID_LOOKUP_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + ID_LOOKUP_BATCH_SIZE, ids.size()));
+            for (Map<String, Object> row : shopRepository.findFieldsByIdIn(fields, batch)) {
+                rowsById.put((Long) row.get(ShopField.ID.getName()), row);
+            }
+        }
+        List<Map<String, Object>> rows = new ArrayList<>(rowsById.size());
+        for (Long id : ids) {
+            Map<String, Object> row = rowsById.get(id);
+            if (row != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+    
+    // Rows read from a replica may be behind the primary. They are still served from the
+    // second-level and query caches, but not stored there, where a read on the primary
+    // (and the response cache it feeds) would pick them up.
+    private void skipCacheStoreOnReplica() {
+        if (replicasEnabled && ReplicaRoutingDataSource.isReplicaReadAllowed()) {
+            entityManager.unwrap(Session.class).setCacheMode(CacheMode.GET);
+        }
+    }
+    
+    /**
+     * Load shops by ID, preserving the order of the given IDs.
+     * Shops in the second-level cache are served from it; the rest are fetched in batched IN queries.
+     * IDs with no matching row (e.g. deleted since they were looked up) are skipped.
+     */
+    private List<Shop> findAllByIdInOrder(List<Long> ids) {
+        List<Shop> loaded = entityManager.unwrap(Session.class)
+                .byMultipleIds(Shop.class)
+                .withBatchSize(ID_LOOKUP_BATCH_SIZE)
+                .enableSessionCheck(true)
+                .multiLoad(ids);
+        List<Shop> shops = new ArrayList<>(loaded.size());
+        for (Shop shop : loaded) {
+            if (shop != null) {
+                shops.add(shop);
+            }
+        }
+        return shops;
+    }
+    
+    /**
+     * Find shops within a radius of a position, nearest first.
+     * Served from the in-memory geo index, then the shops themselves from the
+     * second-level cache where possible; while the index is still being built,
+     * shops in the bounding box of the circle are read from the database instead.
+     * @param latitude Latitude of the search centre
+     * @param longitude Longitude of the search centre
+     * @param radiusKm Search radius, at most the configured maximum
+     * @param limit Maximum number of shops, capped at the configured maximum
+     * @return Shops within the radius with their distances, nearest first
+     */
+    @Transactional(readOnly = true)
+    public List<NearbyShop> findNearbyShops(double latitude, double longitude, double radiusKm, int limit) {
+        GeoPoint center = new GeoPoint(latitude, longitude);
+        if (!(radiusKm > 0 && radiusKm <= maxNearbyRadiusKm)) {
+            throw new IllegalArgumentException("Radius must be greater than 0 and at most " + maxNearbyRadiusKm + " km");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        int cappedLimit = Math.min(limit, maxNearbyResults);
+        skipCacheStoreOnReplica();
+        List<NearbyShop> nearby = new ArrayList<>(cappedLimit);
+        if (geoIndex.isReady()) {
+            List<ShopGeoIndex.Match> matches = geoIndex.nearest(center, radiusKm, cappedLimit);
+            Map<Long, Shop> shopsById = new HashMap<>();
+            for (Shop shop : findAllByIdInOrder(matches.stream().map(ShopGeoIndex.Match::id).toList())) {
+                shopsById.put(shop.getId(), shop);
+            }
+            for (ShopGeoIndex.Match match : matches) {
+                Shop shop = shopsById.get(match.id());
+                if (shop != null) {
+                    nearby.add(new NearbyShop(shop, match.distanceKm()));
+                }
+            }
+            return nearby;
+        }
+
+        logger.debug("Geo index not ready, querying database for shops near {}", center);
+        GeoBounds bounds = GeoBounds.around(center, radiusKm);
+        List<Shop> candidates = new ArrayList<>();
+        if (bounds.wrapsLongitude()) {
+            candidates.addAll(shopRepository.findByLatitudeBetweenAndLongitudeBetween(
+                    bounds.minLatitude(), bounds.maxLatitude(), bounds.minLongitude(), 180.0));
+            candidates.addAll(shopRepository.findByLatitudeBetweenAndLongitudeBetween(
+                    bounds.minLatitude(), bounds.maxLatitude(), -180.0, bounds.maxLongitude()));
+        } else {
+            candidates.addAll(shopRepository.findByLatitudeBetweenAndLongitudeBetween(
+                    bounds.minLatitude(), bounds.maxLatitude(), bounds.minLongitude(), bounds.maxLongitude()));
+        }
+        for (Shop shop : candidates) {
+            double distance = GeoPoint.distanceKm(latitude, longitude, shop.getLatitude(), shop.getLongitude());
+            if (distance <= radiusKm) {
+                nearby.add(new NearbyShop(shop, distance));
+            }
+        }
+        nearby.sort(Comparator.comparingDouble(NearbyShop::getDistanceKm).thenComparing(shop -> shop.getShop().getId()));
+        return nearby.size() > cappedLimit ? new ArrayList<>(nearby.subList(0, cappedLimit)) : nearby;
+    }
+    
+    /**
+     * Suggest shops whose name has a word starting with the prefix.
+     * Served from the in-memory name suggester without a transaction or connection;
+     * only while the suggester is still being built does it query the database.
+     * @param prefix Prefix typed so far
+     * @param limit Maximum number of suggestions, capped at the configured maximum
+     * @return Matching shop IDs and names
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<ShopSuggestion> suggestShops(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            throw new IllegalArgumentException("Prefix is required");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        int cappedLimit = Math.min(limit, maxSuggestions);
+        if (nameSuggester.isReady()) {
+            return nameSuggester.suggest(prefix, cappedLimit);
+        }
+        logger.debug("Name suggester not ready, querying database for prefix: {}", prefix);
+        skipCacheStoreOnReplica();
+        List<ShopSuggestion> suggestions = new ArrayList<>();
+        for (Shop shop : shopRepository.findByNameWordStartingWith(prefix.strip(), Limit.of(cappedLimit))) {
+            suggestions.add(new ShopSuggestion(shop.getId(), shop.getName()));
+        }
+        return suggestions;
+    }
+    
+    /**
+     * Get total count of shops. Served from the in-memory counter once it has been
+     * seeded, so no database connection is used; counted in the database before that.
+     * @return Total number of shops
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public long getTotalShopsCount() {
+        if (shopCounter.isReady()) {
+            return shopCounter.get();
+        }
+        skipCacheStoreOnReplica();
         long count = shopRepository.countAllShops();
         logger.info("Total shops count: {}", count);
         return count;
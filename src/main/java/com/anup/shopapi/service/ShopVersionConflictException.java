@@ -0,0 +1,31 @@
+package com.anup.shopapi.service;
+
+/**
+ * Thrown when an update was based on a version of the shop that is no longer current,
+ * either because the client's If-Match version is stale or because another write
+ * committed between reading the shop and updating it.
+ */
+public class ShopVersionConflictException extends RuntimeException {
+
+    private final Long shopId;
+    private final Long currentVersion;
+
+    public ShopVersionConflictException(Long shopId, Long currentVersion) {
+        super(currentVersion == null
+                ? "Shop " + shopId + " was modified concurrently, reload it and retry"
+                : "Shop " + shopId + " has been modified, current version is " + currentVersion);
+        this.shopId = shopId;
+        this.currentVersion = currentVersion;
+    }
+
+    public Long getShopId() {
+        return shopId;
+    }
+
+    /**
+     * @return Version of the shop when the conflict was detected, or null if unknown
+     */
+    public Long getCurrentVersion() {
+        return currentVersion;
+    }
+}
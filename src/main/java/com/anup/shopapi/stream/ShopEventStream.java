@@ -0,0 +1,213 @@
+package com.anup.shopapi.stream;
+
+import com.anup.shopapi.event.ShopChangedEvent;
+import com.anup.shopapi.index.ShopCounter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes committed shop changes to Server-Sent Events subscribers.
+ * <p>
+ * Open streams are async requests, so an idle subscriber holds no thread.
+ * Each change is queued on every subscriber (coalesced per shop, bounded)
+ * and a small pool of dispatch threads drains the queues. A subscriber whose
+ * queue fills up, or whose last send has been blocked for longer than
+ * {@code shop.stream.send-timeout}, is evicted; clients reconnect and resync.
+ * Heartbeat comments keep idle connections open through proxies and reveal
+ * closed ones.
+ */
+@Component
+@Profile("!reactive")
+public class ShopEventStream {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShopEventStream.class);
+
+    // Reconnect delay suggested to EventSource clients
+    private static final long RECONNECT_DELAY_MILLIS = 3000;
+
+    private final ShopCounter shopCounter;
+    private final Set<ShopStreamSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService dispatcher;
+    private final Counter evictions;
+    private final int maxSubscribers;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final long sendTimeoutNanos;
+
+    @Autowired
+    public ShopEventStream(ShopCounter shopCounter,
+                           MeterRegistry meterRegistry,
+                           @Value("${shop.stream.max-subscribers:10000}") int maxSubscribers,
+                           @Value("${shop.stream.buffer-size:2048}") int bufferSize,
+                           @Value("${shop.stream.timeout:PT1H}") Duration timeout,
+                           @Value("${shop.stream.send-timeout:PT10S}") Duration sendTimeout,
+                           @Value("${shop.stream.dispatch-threads:8}") int dispatchThreads) {
+        this.shopCounter = shopCounter;
+        this.maxSubscribers = maxSubscribers;
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeout.toMillis();
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        // Platform threads: SseEmitter sends under a monitor, which would pin a virtual thread during a blocked write
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.dispatcher = Executors.newFixedThreadPool(dispatchThreads, task -> {
+            Thread thread = new Thread(task, "shop-stream-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("shop.stream.subscribers", subscribers, Set::size)
+                .description("Open shop event streams")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("shop.stream.evictions")
+                .description("Shop event streams closed because the client was not keeping up")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Open a new event stream
+     * @return Emitter to return from the request handler
+     * @throws IllegalStateException if the maximum number of subscribers is reached
+     * @throws IOException if the initial event cannot be sent
+     */
+    public SseEmitter subscribe() throws IOException {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new IllegalStateException("Too many shop event subscribers, try again later");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        ShopStreamSubscriber subscriber = new ShopStreamSubscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+
+        // Buffered by the emitter until the response is ready
+        Map<String, Object> connected = new HashMap<>();
+        connected.put("count", shopCounter.isReady() ? shopCounter.get() : null);
+        emitter.send(SseEmitter.event()
+                .name("connected")
+                .reconnectTime(RECONNECT_DELAY_MILLIS)
+                .data(connected, MediaType.APPLICATION_JSON));
+        logger.info("Shop event subscriber connected, {} open", subscribers.size());
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onShopChanged(ShopChangedEvent event) {
+        for (ShopStreamSubscriber subscriber : subscribers) {
+            if (subscriber.isStalled(sendTimeoutNanos)) {
+                evict(subscriber, "send blocked for longer than the send timeout");
+            } else if (!subscriber.offer(event, bufferSize)) {
+                evict(subscriber, "more than " + bufferSize + " shops changed while it was behind");
+            } else {
+                schedule(subscriber);
+            }
+        }
+    }
+
+    /**
+     * Send a heartbeat comment to every subscriber.
+     * Runs on a fixed rate, configured by {@code shop.stream.heartbeat-interval}.
+     */
+    @Scheduled(initialDelayString = "${shop.stream.heartbeat-interval:PT15S}",
+               fixedRateString = "${shop.stream.heartbeat-interval:PT15S}")
+    public void sendHeartbeats() {
+        for (ShopStreamSubscriber subscriber : subscribers) {
+            if (subscriber.isStalled(sendTimeoutNanos)) {
+                evict(subscriber, "send blocked for longer than the send timeout");
+            } else {
+                subscriber.requestHeartbeat();
+                schedule(subscriber);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.getEmitter().complete());
+        subscribers.clear();
+    }
+
+    private void schedule(ShopStreamSubscriber subscriber) {
+        if (subscriber.trySchedule()) {
+            try {
+                dispatcher.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                subscribers.remove(subscriber);
+            }
+        }
+    }
+
+    private void drain(ShopStreamSubscriber subscriber) {
+        SseEmitter emitter = subscriber.getEmitter();
+        try {
+            ShopStreamSubscriber.Batch batch;
+            while (!subscriber.isEvicted() && (batch = subscriber.takePending()) != null) {
+                subscriber.startedSending();
+                for (ShopStreamSubscriber.PendingChange change : batch.changes()) {
+                    emitter.send(SseEmitter.event()
+                            .name(change.type().name().toLowerCase(Locale.ROOT))
+                            .data(payload(change), MediaType.APPLICATION_JSON));
+                }
+                if (batch.heartbeat()) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+                subscriber.finishedSending();
+            }
+            if (subscriber.isEvicted()) {
+                // Completed here rather than by the evicting thread, which must not wait on a blocked send
+                emitter.complete();
+            }
+        } catch (Exception e) {
+            // Client disconnected or the stream already completed; the container completes the request
+            logger.debug("Shop event subscriber dropped: {}", e.getMessage());
+            subscribers.remove(subscriber);
+        }
+    }
+
+    private Map<String, Object> payload(ShopStreamSubscriber.PendingChange change) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("type", change.type());
+        payload.put("id", change.shopId());
+        payload.put("shop", change.shop());
+        // ShopCounter applies each change before this listener runs
+        payload.put("count", shopCounter.isReady() ? shopCounter.get() : null);
+        return payload;
+    }
+
+    private void evict(ShopStreamSubscriber subscriber, String reason) {
+        if (!subscriber.evict()) {
+            return;
+        }
+        subscribers.remove(subscriber);
+        evictions.increment();
+        logger.warn("Evicted slow shop event subscriber: {}", reason);
+        // A drain in progress completes the emitter once its current send returns; otherwise start one to do it
+        schedule(subscriber);
+    }
+}
@@ -0,0 +1,160 @@
+package com.anup.shopapi.stream;
+
+import com.anup.shopapi.entity.Shop;
+import com.anup.shopapi.event.ShopChangedEvent;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One open event stream and the changes waiting to be sent to it.
+ * <p>
+ * Pending changes are keyed by shop ID, so a shop that changes again before
+ * the previous change was sent keeps a single entry with its latest state,
+ * in its original position. The number of pending shops is bounded; a
+ * subscriber that falls that far behind is evicted.
+ */
+final class ShopStreamSubscriber {
+
+    /**
+     * A change waiting to be sent
+     * @param type Change to report; CREATED stays CREATED when later updates are merged into it
+     * @param shopId Shop ID
+     * @param shop Latest state of the shop, or null when deleted
+     */
+    record PendingChange(ShopChangedEvent.Type type, Long shopId, Shop shop) {
+    }
+
+    private final SseEmitter emitter;
+
+    private final Lock lock = new ReentrantLock();
+    private final Map<Long, PendingChange> pending = new LinkedHashMap<>();
+    private boolean heartbeatDue;
+
+    // Set while a drain task is queued or running, so at most one thread sends to the emitter
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    // System.nanoTime() when the send in progress started, or 0 when not sending
+    private volatile long sendingSince;
+    private final AtomicBoolean evicted = new AtomicBoolean();
+
+    ShopStreamSubscriber(SseEmitter emitter) {
+        this.emitter = emitter;
+    }
+
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    /**
+     * Queue a change, merging it into a pending change for the same shop
+     * @param event Committed change
+     * @param capacity Maximum number of shops with pending changes
+     * @return false if the change could not be queued because the buffer is full
+     */
+    boolean offer(ShopChangedEvent event, int capacity) {
+        lock.lock();
+        try {
+            PendingChange previous = pending.get(event.getShopId());
+            if (previous == null) {
+                if (pending.size() >= capacity) {
+                    return false;
+                }
+                pending.put(event.getShopId(), new PendingChange(event.getType(), event.getShopId(), event.getShop()));
+                return true;
+            }
+            if (event.getType() == ShopChangedEvent.Type.DELETED) {
+                if (previous.type() == ShopChangedEvent.Type.CREATED) {
+                    // Created and deleted before the subscriber saw either: nothing to report
+                    pending.remove(event.getShopId());
+                } else {
+                    pending.put(event.getShopId(), new PendingChange(ShopChangedEvent.Type.DELETED, event.getShopId(), null));
+                }
+            } else {
+                ShopChangedEvent.Type type = previous.type() == ShopChangedEvent.Type.CREATED ? ShopChangedEvent.Type.CREATED : event.getType();
+                pending.put(event.getShopId(), new PendingChange(type, event.getShopId(), event.getShop()));
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void requestHeartbeat() {
+        lock.lock();
+        try {
+            heartbeatDue = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return true if the caller should submit a drain task, false if one is already queued or running
+     */
+    boolean trySchedule() {
+        return scheduled.compareAndSet(false, true);
+    }
+
+    /**
+     * Everything waiting to be sent
+     * @param changes Pending changes in order
+     * @param heartbeat true if a heartbeat is due
+     */
+    record Batch(List<PendingChange> changes, boolean heartbeat) {
+    }
+
+    /**
+     * Take everything waiting to be sent. When nothing is waiting, the subscriber is
+     * marked unscheduled under the same lock, so a concurrent offer schedules a new drain.
+     * @return Pending changes and heartbeat, or null if nothing is waiting
+     */
+    Batch takePending() {
+        lock.lock();
+        try {
+            if (pending.isEmpty() && !heartbeatDue) {
+                scheduled.set(false);
+                return null;
+            }
+            Batch batch = new Batch(new ArrayList<>(pending.values()), heartbeatDue);
+            pending.clear();
+            heartbeatDue = false;
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void startedSending() {
+        sendingSince = System.nanoTime();
+    }
+
+    void finishedSending() {
+        sendingSince = 0;
+    }
+
+    /**
+     * @param timeoutNanos Longest time a single send may take
+     * @return true if a send has been blocked (the client is not reading) for longer than the timeout
+     */
+    boolean isStalled(long timeoutNanos) {
+        long since = sendingSince;
+        return since != 0 && System.nanoTime() - since > timeoutNanos;
+    }
+
+    /**
+     * @return true if the subscriber was not already evicted
+     */
+    boolean evict() {
+        return evicted.compareAndSet(false, true);
+    }
+
+    boolean isEvicted() {
+        return evicted.get();
+    }
+}
@@ -0,0 +1,33 @@
+package com.anup.shopapi.admission;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EndpointClassTest {
+
+    @Test
+    void suggestionsAreNotSearches() {
+        assertThat(EndpointClass.classify("GET", "/api/shops/suggest")).isEqualTo(EndpointClass.SUGGEST);
+        assertThat(EndpointClass.classify("GET", "/api/shops/search")).isEqualTo(EndpointClass.SEARCH);
+        assertThat(EndpointClass.SUGGEST.isHighPriority()).isTrue();
+        assertThat(EndpointClass.SEARCH.isHighPriority()).isFalse();
+    }
+
+    @Test
+    void classifiesReadsAndWrites() {
+        assertThat(EndpointClass.classify("GET", "/api/shops/42")).isEqualTo(EndpointClass.POINT_READ);
+        assertThat(EndpointClass.classify("HEAD", "/api/shops/by-email")).isEqualTo(EndpointClass.POINT_READ);
+        assertThat(EndpointClass.classify("GET", "/api/shops")).isEqualTo(EndpointClass.LIST);
+        assertThat(EndpointClass.classify("GET", "/api/shops/nearby")).isEqualTo(EndpointClass.LIST);
+        assertThat(EndpointClass.classify("PATCH", "/api/shops/42")).isEqualTo(EndpointClass.WRITE);
+    }
+
+    @Test
+    void leavesUnlimitedRequestsUnclassified() {
+        assertThat(EndpointClass.classify("GET", "/api/shops/count")).isNull();
+        assertThat(EndpointClass.classify("GET", "/api/shops/stream")).isNull();
+        assertThat(EndpointClass.classify("GET", "/api/shopsearch")).isNull();
+        assertThat(EndpointClass.classify("GET", "/actuator/health")).isNull();
+    }
+}
@@ -0,0 +1,91 @@
+package com.anup.shopapi.cache;
+
+import com.anup.shopapi.entity.Shop;
+import com.anup.shopapi.service.ShopService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.util.unit.DataSize;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The catalog version list ETags are derived from, with a second cache standing
+ * in for another instance: it shares the database but gets no events from here.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:response-cache;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "shop.changes.settle-time=PT0.1S",
+        // Checks are run by the tests
+        "shop.response-cache.check-interval=PT1H"
+})
+@ActiveProfiles("test")
+class ShopResponseCacheTest {
+
+    @Autowired
+    private ShopResponseCache responseCache;
+
+    @Autowired
+    private ShopService shopService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void instancesStartingAtDifferentTimesAgreeOnVersion() throws InterruptedException {
+        Shop shop = shopService.createShop(new Shop("Versioned Shop", "1 Version Road", "+1-555-6001", "versioned@example.com"));
+        settle();
+        responseCache.checkForChanges();
+
+        ShopResponseCache otherInstance = otherInstance();
+
+        assertThat(otherInstance.currentVersion()).isEqualTo(responseCache.currentVersion());
+
+        // Written elsewhere: neither cache gets an event
+        jdbcTemplate.update("UPDATE shops SET name = 'Renamed Elsewhere', updated_date = NOW(6), version = version + 1 WHERE id = ?",
+                shop.getId());
+        long before = responseCache.currentVersion();
+        settle();
+        responseCache.checkForChanges();
+        otherInstance.checkForChanges();
+
+        assertThat(responseCache.currentVersion()).isNotEqualTo(before);
+        assertThat(otherInstance.currentVersion()).isEqualTo(responseCache.currentVersion());
+    }
+
+    @Test
+    void localWriteMovesVersionAtOnceAndConvergesOnceFeedHasIt() throws InterruptedException {
+        Shop shop = shopService.createShop(new Shop("Local Shop", "2 Version Road", "+1-555-6002", "local@example.com"));
+        settle();
+        responseCache.checkForChanges();
+        ShopResponseCache otherInstance = otherInstance();
+        long before = responseCache.currentVersion();
+
+        shop.setName("Renamed Here");
+        shopService.updateShop(shop.getId(), shop);
+
+        assertThat(responseCache.currentVersion()).isNotEqualTo(before);
+        assertThat(otherInstance.currentVersion()).isEqualTo(before);
+
+        settle();
+        responseCache.checkForChanges();
+        otherInstance.checkForChanges();
+
+        assertThat(otherInstance.currentVersion()).isNotEqualTo(before).isEqualTo(responseCache.currentVersion());
+    }
+
+    private ShopResponseCache otherInstance() {
+        return new ShopResponseCache(shopService, entityManagerFactory, true, DataSize.ofMegabytes(1), 1024);
+    }
+
+    // Past the settle time, so the change feed returns what was just written
+    private static void settle() throws InterruptedException {
+        Thread.sleep(200);
+    }
+}
@@ -0,0 +1,63 @@
+package com.anup.shopapi.coalescing;
+
+import com.anup.shopapi.entity.Shop;
+import com.anup.shopapi.service.ShopService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Which calls of coalesced methods are shared, and what the shared results are attached to.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class RequestCoalescerTest {
+
+    @Autowired
+    private ShopService shopService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void callOutsideTransactionIsCoalescedAndReturnsDetachedShop() {
+        Shop shop = shopService.createShop(new Shop("Coalesced Shop", "1 Flight Road", "+1-555-5001", "coalesced@example.com"));
+        double leaders = leaderCalls();
+
+        Shop loaded = shopService.getShopById(shop.getId()).orElseThrow();
+
+        assertThat(leaderCalls()).isEqualTo(leaders + 1);
+        // Checked in a new transaction, as a follower would use it
+        Boolean managed = transactionTemplate.execute(status -> entityManager.contains(loaded));
+        assertThat(managed).isFalse();
+    }
+
+    @Test
+    void callInsideTransactionIsNotCoalesced() {
+        Shop shop = shopService.createShop(new Shop("Managed Shop", "2 Flight Road", "+1-555-5002", "managed@example.com"));
+        double leaders = leaderCalls();
+
+        Boolean managed = transactionTemplate.execute(status ->
+                entityManager.contains(shopService.getShopById(shop.getId()).orElseThrow()));
+
+        assertThat(managed).isTrue();
+        assertThat(leaderCalls()).isEqualTo(leaders);
+    }
+
+    private double leaderCalls() {
+        var counter = meterRegistry.find("shop.coalescing.calls").tag("method", "getShopById").tag("role", "leader").counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
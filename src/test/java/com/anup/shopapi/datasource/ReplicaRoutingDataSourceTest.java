@@ -0,0 +1,130 @@
+package com.anup.shopapi.datasource;
+
+import com.anup.shopapi.entity.Shop;
+import com.anup.shopapi.service.ShopService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Read/write routing between two embedded H2 databases, one standing in for the
+ * primary and one for a replica. The databases are not replicated, so each test can
+ * tell from the rows it reads which one a statement went to.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReplicaRoutingDataSourceTest.PRIMARY_URL,
+        "shop.datasource.replica.urls=" + ReplicaRoutingDataSourceTest.REPLICA_URL + ";IFEXISTS=TRUE",
+        // A replica that cannot be reached gives up quickly
+        "spring.datasource.hikari.connection-timeout=250",
+        // Health checks are run by the tests
+        "shop.datasource.replica.health-check-interval=PT1H"
+})
+@ActiveProfiles("test")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ReplicaRoutingDataSourceTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE";
+
+    private static final String REPLICA_SHOP = "Replica Only Shop";
+
+    // Keeps the replica database open; closing it (or SHUTDOWN) takes the replica down
+    private static Connection replicaConnection;
+
+    @Autowired
+    private ShopService shopService;
+
+    @Autowired
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Autowired
+    private HikariDataSource primaryDataSource;
+
+    @BeforeAll
+    static void openReplica() throws SQLException {
+        replicaConnection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+    }
+
+    @AfterAll
+    static void closeReplica() throws SQLException {
+        if (!replicaConnection.isClosed()) {
+            replicaConnection.close();
+        }
+    }
+
+    @BeforeEach
+    void copySchemaToReplica() throws SQLException {
+        if (replicaConnection.isClosed()) {
+            return;
+        }
+        JdbcTemplate replica = replica();
+        if (replica.queryForObject("SELECT COUNT(*) FROM information_schema.tables WHERE table_name = 'shops'", Integer.class) == 0) {
+            List<String> schema = new JdbcTemplate(primaryDataSource).queryForList("SCRIPT NODATA NOSETTINGS", String.class);
+            schema.stream()
+                    .filter(statement -> statement.startsWith("CREATE") || statement.startsWith("ALTER"))
+                    .forEach(replica::execute);
+            replica.update("INSERT INTO shops (id, name, address, phone, email, created_date, updated_date, version) "
+                    + "VALUES (1000000, ?, 'Replica Street', '+1-555-9000', 'replica@example.com', NOW(), NOW(), 0)", REPLICA_SHOP);
+        }
+        routingDataSource.checkReplicas();
+    }
+
+    @Test
+    @Order(1)
+    void readOnlyTransactionsReadFromReplica() {
+        assertThat(names(shopService.getAllShops())).contains(REPLICA_SHOP);
+    }
+
+    @Test
+    @Order(2)
+    void writesAndPrimaryReadsUsePrimary() {
+        Shop created = shopService.createShop(new Shop("Primary Shop", "1 Primary Road", "+1-555-9001", "primary@example.com"));
+
+        JdbcTemplate primary = new JdbcTemplate(primaryDataSource);
+        assertThat(primary.queryForObject("SELECT COUNT(*) FROM shops WHERE id = ?", Integer.class, created.getId())).isEqualTo(1);
+        assertThat(replica().queryForObject("SELECT COUNT(*) FROM shops WHERE id = ?", Integer.class, created.getId())).isZero();
+
+        List<Shop> fromPrimary = ReplicaRoutingDataSource.readOnPrimary(shopService::getAllShops);
+        assertThat(names(fromPrimary)).contains("Primary Shop").doesNotContain(REPLICA_SHOP);
+        assertThat(names(shopService.getAllShops())).contains(REPLICA_SHOP).doesNotContain("Primary Shop");
+        // Shops by ID are always read on the primary
+        assertThat(shopService.getShopById(created.getId())).isPresent();
+    }
+
+    @Test
+    @Order(3)
+    void readsFallBackToPrimaryWhenReplicaIsDown() throws Exception {
+        try (var statement = replicaConnection.createStatement()) {
+            statement.execute("SHUTDOWN");
+        }
+        // Past Hikari's validation bypass window, so the pool checks its idle connections
+        Thread.sleep(600);
+
+        assertThat(names(shopService.getAllShops())).contains("Primary Shop").doesNotContain(REPLICA_SHOP);
+    }
+
+    private static JdbcTemplate replica() {
+        return new JdbcTemplate(new SingleConnectionDataSource(replicaConnection, true));
+    }
+
+    private static List<String> names(List<Shop> shops) {
+        return shops.stream().map(Shop::getName).toList();
+    }
+}
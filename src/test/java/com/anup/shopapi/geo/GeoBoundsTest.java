@@ -0,0 +1,92 @@
+package com.anup.shopapi.geo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class GeoBoundsTest {
+
+    @Test
+    void boxAroundMidLatitudeCentre() {
+        GeoBounds bounds = GeoBounds.around(new GeoPoint(40.7128, -74.0060), 10);
+
+        assertThat(bounds.wrapsLongitude()).isFalse();
+        // 10 km is about 0.09 degrees of latitude, and more degrees of longitude away from the equator
+        assertThat(bounds.maxLatitude() - 40.7128).isCloseTo(0.0899, within(0.0001));
+        assertThat(40.7128 - bounds.minLatitude()).isCloseTo(0.0899, within(0.0001));
+        assertThat(bounds.maxLongitude() - -74.0060).isCloseTo(0.1186, within(0.0001));
+        assertThat(-74.0060 - bounds.minLongitude()).isCloseTo(0.1186, within(0.0001));
+    }
+
+    @Test
+    void boxCrossingAntimeridianWraps() {
+        GeoBounds east = GeoBounds.around(new GeoPoint(-17.7, 179.95), 20);
+        assertThat(east.wrapsLongitude()).isTrue();
+        assertThat(east.minLongitude()).isBetween(179.7, 179.95);
+        assertThat(east.maxLongitude()).isBetween(-180.0, -179.8);
+
+        GeoBounds west = GeoBounds.around(new GeoPoint(-17.7, -179.95), 20);
+        assertThat(west.wrapsLongitude()).isTrue();
+        assertThat(west.minLongitude()).isBetween(179.8, 180.0);
+        assertThat(west.maxLongitude()).isBetween(-179.95, -179.7);
+
+        GeoBounds onIt = GeoBounds.around(new GeoPoint(0, 180), 20);
+        assertThat(onIt.wrapsLongitude()).isTrue();
+        assertThat(onIt.minLongitude()).isCloseTo(-onIt.maxLongitude(), within(1e-9));
+    }
+
+    @Test
+    void boxReachingPoleSpansAllLongitudes() {
+        GeoBounds north = GeoBounds.around(new GeoPoint(89.95, 10), 20);
+        assertThat(north.maxLatitude()).isEqualTo(90);
+        assertThat(north.minLatitude()).isCloseTo(89.95 - 0.1799, within(0.0001));
+        assertThat(north.minLongitude()).isEqualTo(-180);
+        assertThat(north.maxLongitude()).isEqualTo(180);
+        assertThat(north.wrapsLongitude()).isFalse();
+
+        GeoBounds south = GeoBounds.around(new GeoPoint(-90, 0), 1);
+        assertThat(south.minLatitude()).isEqualTo(-90);
+        assertThat(south.minLongitude()).isEqualTo(-180);
+        assertThat(south.maxLongitude()).isEqualTo(180);
+    }
+
+    @Test
+    void boxEnclosesEveryPointWithinRadius() {
+        Random random = new Random(7);
+        for (int n = 0; n < 2_000; n++) {
+            GeoPoint center = new GeoPoint(random.nextDouble() * 178 - 89, random.nextDouble() * 360 - 180);
+            double radiusKm = 0.1 + random.nextDouble() * 200;
+            GeoBounds bounds = GeoBounds.around(center, radiusKm);
+            for (int i = 0; i < 16; i++) {
+                GeoPoint point = destination(center, radiusKm * 0.999, 2 * Math.PI * i / 16);
+                assertThat(contains(bounds, point)).as("%s within %s km of %s", point, radiusKm, center).isTrue();
+            }
+        }
+    }
+
+    private static boolean contains(GeoBounds bounds, GeoPoint point) {
+        if (point.latitude() < bounds.minLatitude() || point.latitude() > bounds.maxLatitude()) {
+            return false;
+        }
+        return bounds.wrapsLongitude()
+                ? point.longitude() >= bounds.minLongitude() || point.longitude() <= bounds.maxLongitude()
+                : point.longitude() >= bounds.minLongitude() && point.longitude() <= bounds.maxLongitude();
+    }
+
+    // Point at a distance and bearing from the start along a great circle
+    private static GeoPoint destination(GeoPoint start, double distanceKm, double bearing) {
+        double angular = distanceKm / GeoPoint.EARTH_RADIUS_KM;
+        double latitude = Math.toRadians(start.latitude());
+        double longitude = Math.toRadians(start.longitude());
+        double toLatitude = Math.asin(Math.sin(latitude) * Math.cos(angular)
+                + Math.cos(latitude) * Math.sin(angular) * Math.cos(bearing));
+        double toLongitude = longitude + Math.atan2(Math.sin(bearing) * Math.sin(angular) * Math.cos(latitude),
+                Math.cos(angular) - Math.sin(latitude) * Math.sin(toLatitude));
+        double degrees = Math.toDegrees(toLongitude);
+        degrees = ((degrees + 540) % 360) - 180;
+        return new GeoPoint(Math.toDegrees(toLatitude), degrees);
+    }
+}
@@ -0,0 +1,123 @@
+package com.anup.shopapi.groupcommit;
+
+import com.anup.shopapi.entity.Shop;
+import com.anup.shopapi.service.ShopService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Creates through the group-commit writer, end to end from the HTTP request
+ */
+@SpringBootTest(properties = {
+        "shop.group-commit.enabled=true",
+        // Long enough for every concurrent request of a test to join one group
+        "shop.group-commit.max-delay=PT1S"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ShopGroupCommitterTest {
+
+    private static final int GROUP_SIZE = 8;
+    private static final int DUPLICATE = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ShopService shopService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void duplicateInGroupFailsOnlyItsOwnCreate() throws Exception {
+        Shop existing = shopService.createShop(new Shop("Existing Shop", "1 Group Street", "+1-555-6000", "existing@group.example"));
+        double splitsBefore = meterRegistry.counter("shop.group.commit.splits").count();
+
+        List<Future<MockHttpServletResponse>> responses = new ArrayList<>();
+        ExecutorService clients = Executors.newFixedThreadPool(GROUP_SIZE);
+        try {
+            for (int i = 0; i < GROUP_SIZE; i++) {
+                String email = i == DUPLICATE ? existing.getEmail() : "member" + i + "@group.example";
+                String body = shopJson("Group Member " + i, "+1-555-61" + i, email);
+                responses.add(clients.submit(() -> mockMvc.perform(post("/api/shops")
+                        .contentType(MediaType.APPLICATION_JSON).content(body)).andReturn().getResponse()));
+            }
+            for (int i = 0; i < GROUP_SIZE; i++) {
+                MockHttpServletResponse response = responses.get(i).get();
+                if (i == DUPLICATE) {
+                    assertThat(response.getStatus()).as("status of shop %s", i).isEqualTo(409);
+                    assertThat(response.getContentAsString()).contains("\"existingId\":" + existing.getId());
+                } else {
+                    assertThat(response.getStatus()).as("status of shop %s", i).isEqualTo(201);
+                    assertThat(count("member" + i + "@group.example")).isEqualTo(1);
+                }
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+
+        assertThat(count(existing.getEmail())).isEqualTo(1);
+        assertThat(count("+1-555-61" + DUPLICATE)).isZero();
+        // The creates shared one transaction, which failed and was retried in halves
+        assertThat(meterRegistry.summary("shop.group.commit.batch.size").max()).isEqualTo(GROUP_SIZE);
+        assertThat(meterRegistry.counter("shop.group.commit.splits").count()).isGreaterThan(splitsBefore);
+    }
+
+    @Test
+    void interruptedWaitIsServiceUnavailableWithoutRetryAfter() throws Exception {
+        MockHttpServletResponse response;
+        // MockMvc runs the request on this thread, so the create waits interrupted
+        Thread.currentThread().interrupt();
+        try {
+            response = mockMvc.perform(post("/api/shops").contentType(MediaType.APPLICATION_JSON)
+                    .content(shopJson("Interrupted Shop", "+1-555-6200", "interrupted@group.example")))
+                    .andReturn().getResponse();
+        } finally {
+            Thread.interrupted();
+        }
+
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isNull();
+        assertThat(response.getContentAsString()).contains("may still be created");
+
+        // The shop stayed queued and is created anyway
+        long deadline = System.currentTimeMillis() + 5000;
+        while (count("interrupted@group.example") == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(count("interrupted@group.example")).isEqualTo(1);
+    }
+
+    private int count(String emailOrPhone) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM shops WHERE email = ? OR phone = ?",
+                Integer.class, emailOrPhone, emailOrPhone);
+    }
+
+    private static String shopJson(String name, String phone, String email) {
+        return """
+                {"name": "%s", "address": "2 Group Street", "phone": "%s", "email": "%s"}
+                """.formatted(name, phone, email);
+    }
+}
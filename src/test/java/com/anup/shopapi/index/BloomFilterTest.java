@@ -0,0 +1,74 @@
+package com.anup.shopapi.index;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.withinPercentage;
+
+class BloomFilterTest {
+
+    private static final int ENTRIES = 20_000;
+    private static final int PROBES = 200_000;
+
+    @Test
+    void hasNoFalseNegatives() {
+        BloomFilter filter = new BloomFilter(ENTRIES, 0.01);
+        for (int i = 0; i < ENTRIES; i++) {
+            filter.put("shop" + i + "@example.com");
+        }
+        for (int i = 0; i < ENTRIES; i++) {
+            assertThat(filter.mightContain("shop" + i + "@example.com")).isTrue();
+        }
+    }
+
+    @Test
+    void staysWithinFalsePositiveRateAtExpectedEntries() {
+        for (double rate : new double[]{0.05, 0.01, 0.001}) {
+            BloomFilter filter = new BloomFilter(ENTRIES, rate);
+            for (int i = 0; i < ENTRIES; i++) {
+                filter.put("+1-555-" + i);
+            }
+            int falsePositives = 0;
+            for (int i = 0; i < PROBES; i++) {
+                if (filter.mightContain("+44-20-" + i)) {
+                    falsePositives++;
+                }
+            }
+            double measured = (double) falsePositives / PROBES;
+
+            // Sized by rounding up, so the measured rate is at most the target plus sampling noise
+            assertThat(measured).as("measured rate for target %s", rate).isLessThanOrEqualTo(rate * 1.25);
+            assertThat(filter.expectedFalsePositiveRate()).as("estimated rate for target %s", rate)
+                    .isLessThanOrEqualTo(rate * 1.25)
+                    .isCloseTo(measured, withinPercentage(30));
+        }
+    }
+
+    @Test
+    void falsePositiveRateRisesPastExpectedEntries() {
+        BloomFilter filter = new BloomFilter(1_000, 0.01);
+        for (int i = 0; i < 4_000; i++) {
+            filter.put("key" + i);
+        }
+        assertThat(filter.expectedFalsePositiveRate()).isGreaterThan(0.1);
+    }
+
+    @Test
+    void clearRemovesEveryKey() {
+        BloomFilter filter = new BloomFilter(100, 0.01);
+        filter.put("shop@example.com");
+
+        filter.clear();
+
+        assertThat(filter.mightContain("shop@example.com")).isFalse();
+        assertThat(filter.expectedFalsePositiveRate()).isZero();
+    }
+
+    @Test
+    void rejectsInvalidSizing() {
+        assertThatThrownBy(() -> new BloomFilter(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BloomFilter(100, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BloomFilter(100, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
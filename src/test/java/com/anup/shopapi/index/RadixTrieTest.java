@@ -0,0 +1,101 @@
+package com.anup.shopapi.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RadixTrieTest {
+
+    private final ShopNameSuggester.RadixTrie trie = new ShopNameSuggester.RadixTrie();
+
+    @Test
+    void splitsEdgeWhereKeysDiverge() {
+        trie.insert("coffee", 1);
+        assertThat(trie.nodeCount()).isEqualTo(1);
+
+        // "co" + {"ffee", "zy"}
+        trie.insert("cozy", 2);
+        assertThat(trie.nodeCount()).isEqualTo(3);
+        assertThat(collect("co", 10)).containsExactly(1L, 2L);
+        assertThat(collect("cof", 10)).containsExactly(1L);
+        assertThat(collect("coz", 10)).containsExactly(2L);
+        assertThat(collect("cx", 10)).isEmpty();
+
+        // A key ending at the split point lives on the split node itself
+        trie.insert("co", 3);
+        assertThat(trie.nodeCount()).isEqualTo(3);
+        assertThat(collect("c", 10)).containsExactly(3L, 1L, 2L);
+    }
+
+    @Test
+    void prefixEndingInsideAnEdgeMatchesItsKeys() {
+        trie.insert("coffee corner", 1);
+        trie.insert("coffee cup", 2);
+
+        assertThat(collect("coffee c", 10)).containsExactly(1L, 2L);
+        assertThat(collect("coffee co", 10)).containsExactly(1L);
+        assertThat(collect("coffee cor", 10)).containsExactly(1L);
+        assertThat(collect("coffee corners", 10)).isEmpty();
+    }
+
+    @Test
+    void mergesEdgesWhenRemovalLeavesSingleChild() {
+        trie.insert("coffee", 1);
+        trie.insert("cozy", 2);
+        trie.insert("cozier", 3);
+
+        trie.remove("cozy", 2);
+        trie.remove("cozier", 3);
+
+        assertThat(trie.nodeCount()).isEqualTo(1);
+        assertThat(collect("c", 10)).containsExactly(1L);
+        assertThat(collect("coff", 10)).containsExactly(1L);
+        assertThat(collect("coz", 10)).isEmpty();
+
+        // The merged edge splits again as usual
+        trie.insert("cozy", 2);
+        assertThat(collect("co", 10)).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void removalKeepsNodesStillHoldingIds() {
+        trie.insert("tea", 1);
+        trie.insert("tea", 2);
+        trie.insert("teapot", 3);
+
+        trie.remove("tea", 1);
+        assertThat(collect("tea", 10)).containsExactly(2L, 3L);
+
+        trie.remove("tea", 2);
+        assertThat(trie.nodeCount()).isEqualTo(1);
+        assertThat(collect("tea", 10)).containsExactly(3L);
+
+        // Removing a key or ID that is not there changes nothing
+        trie.remove("teapots", 3);
+        trie.remove("teapot", 4);
+        trie.remove("tee", 3);
+        assertThat(collect("t", 10)).containsExactly(3L);
+    }
+
+    @Test
+    void collectsInKeyOrderUpToLimit() {
+        List<String> keys = List.of("delta", "alpha", "charlie", "bravo", "alps");
+        for (int i = 0; i < keys.size(); i++) {
+            trie.insert(keys.get(i), i);
+        }
+
+        assertThat(collect("", 10)).containsExactly(1L, 4L, 3L, 2L, 0L);
+        assertThat(collect("", 2)).containsExactly(1L, 4L);
+        assertThat(collect("al", 1)).containsExactly(1L);
+    }
+
+    private List<Long> collect(String prefix, int limit) {
+        Set<Long> out = new LinkedHashSet<>();
+        trie.collect(prefix, limit, out);
+        return List.copyOf(out);
+    }
+}
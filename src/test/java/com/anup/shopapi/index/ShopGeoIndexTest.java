@@ -0,0 +1,153 @@
+package com.anup.shopapi.index;
+
+import com.anup.shopapi.entity.Shop;
+import com.anup.shopapi.geo.GeoPoint;
+import com.anup.shopapi.geo.OfflineShopGeocoder;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ShopGeoIndexTest {
+
+    // Places "lat, lon" addresses exactly and others within 25 km of New York
+    private final OfflineShopGeocoder geocoder = new OfflineShopGeocoder(40.7128, -74.0060, 25);
+    private final ShopGeoIndex index = new ShopGeoIndex(0.05);
+    private final List<Shop> shops = new ArrayList<>();
+
+    @Test
+    void findsSameShopsAsMeasuringEveryShop() {
+        for (long id = 1; id <= 2_000; id++) {
+            put(id, id + " Broadway");
+        }
+        Random random = new Random(11);
+        for (int n = 0; n < 50; n++) {
+            GeoPoint center = geocoder.geocode("centre " + n).orElseThrow();
+            double radiusKm = 0.5 + random.nextDouble() * 10;
+            int limit = 1 + random.nextInt(40);
+
+            assertThat(index.nearest(center, radiusKm, limit)).as("%s km around %s", radiusKm, center)
+                    .containsExactlyElementsOf(bruteForce(center, radiusKm, limit));
+        }
+    }
+
+    @Test
+    void findsShopsAcrossAntimeridian() {
+        put(1, "-17.70, 179.99");
+        put(2, "-17.70, -179.99");
+        put(3, "-17.70, 179.80");
+        put(4, "-17.70, -179.80");
+
+        GeoPoint east = new GeoPoint(-17.70, 179.995);
+        assertThat(ids(index.nearest(east, 5, 10))).containsExactly(1L, 2L);
+        GeoPoint west = new GeoPoint(-17.70, -179.995);
+        assertThat(ids(index.nearest(west, 5, 10))).containsExactly(2L, 1L);
+        assertThat(ids(index.nearest(new GeoPoint(-17.70, 180), 25, 10))).containsExactlyInAnyOrder(1L, 2L, 3L, 4L);
+        assertThat(index.nearest(east, 25, 10)).containsExactlyElementsOf(bruteForce(east, 25, 10));
+    }
+
+    @Test
+    void findsShopsAroundPoles() {
+        put(1, "89.99, 0");
+        put(2, "89.99, 180");
+        put(3, "89.99, -90");
+        put(4, "90, 0");
+        put(5, "89.00, 0");
+        put(6, "-89.999, 45");
+        put(7, "-89.999, -135");
+
+        GeoPoint nearNorthPole = new GeoPoint(89.995, -45);
+        assertThat(ids(index.nearest(nearNorthPole, 5, 10))).containsExactlyInAnyOrder(1L, 2L, 3L, 4L);
+        assertThat(index.nearest(nearNorthPole, 5, 10)).containsExactlyElementsOf(bruteForce(nearNorthPole, 5, 10));
+
+        GeoPoint northPole = new GeoPoint(90, 123);
+        assertThat(ids(index.nearest(northPole, 0.1, 10))).containsExactly(4L);
+
+        // Opposite sides of the south pole, 0.22 km apart
+        GeoPoint southPole = new GeoPoint(-90, 0);
+        assertThat(ids(index.nearest(southPole, 0.2, 10))).containsExactlyInAnyOrder(6L, 7L);
+    }
+
+    @Test
+    void limitKeepsNearestAndBreaksTiesById() {
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= 40; id++) {
+            ids.add(id);
+        }
+        // Inserted in random order, so the heap has to evict farther shops found first
+        Collections.shuffle(ids, new Random(3));
+        for (long id : ids) {
+            // Shops 1-20 are 0.1 km apart going north; 21-40 repeat the same positions
+            long step = (id - 1) % 20;
+            put(id, String.format("%.6f, -74.0060", 40.7128 + step * 0.1 / 111.195));
+        }
+        GeoPoint center = new GeoPoint(40.7128, -74.0060);
+
+        assertThat(ids(index.nearest(center, 10, 5))).containsExactly(1L, 21L, 2L, 22L, 3L);
+        assertThat(ids(index.nearest(center, 10, 1))).containsExactly(1L);
+        assertThat(index.nearest(center, 10, 100)).hasSize(40);
+        assertThat(index.nearest(center, 0.25, 100)).hasSize(6);
+    }
+
+    @Test
+    void movedAndRemovedShopsLeaveTheirCells() {
+        put(1, "40.7128, -74.0060");
+        put(2, "40.7130, -74.0062");
+
+        Shop moved = shop(1, "51.5074, -0.1278");
+        index.put(moved);
+        index.remove(2L);
+
+        assertThat(index.nearest(new GeoPoint(40.7128, -74.0060), 5, 10)).isEmpty();
+        assertThat(ids(index.nearest(new GeoPoint(51.5074, -0.1278), 5, 10))).containsExactly(1L);
+
+        // Clearing the address clears the coordinates, and the shop is no longer indexed
+        Shop unlocated = shop(1, "");
+        index.put(unlocated);
+        assertThat(index.nearest(new GeoPoint(51.5074, -0.1278), 5, 10)).isEmpty();
+    }
+
+    @Test
+    void rejectsInvalidCellSize() {
+        assertThatThrownBy(() -> new ShopGeoIndex(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ShopGeoIndex(91)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void put(long id, String address) {
+        Shop shop = shop(id, address);
+        shops.add(shop);
+        index.put(shop);
+    }
+
+    private Shop shop(long id, String address) {
+        Shop shop = new Shop("Shop " + id, address, null, null);
+        shop.setId(id);
+        geocoder.geocode(address).ifPresent(point -> {
+            shop.setLatitude(point.latitude());
+            shop.setLongitude(point.longitude());
+        });
+        return shop;
+    }
+
+    private List<ShopGeoIndex.Match> bruteForce(GeoPoint center, double radiusKm, int limit) {
+        List<ShopGeoIndex.Match> matches = new ArrayList<>();
+        for (Shop shop : shops) {
+            double distance = GeoPoint.distanceKm(center.latitude(), center.longitude(), shop.getLatitude(), shop.getLongitude());
+            if (distance <= radiusKm) {
+                matches.add(new ShopGeoIndex.Match(shop.getId(), distance));
+            }
+        }
+        matches.sort(Comparator.comparingDouble(ShopGeoIndex.Match::distanceKm).thenComparingLong(ShopGeoIndex.Match::id));
+        return matches.size() > limit ? matches.subList(0, limit) : matches;
+    }
+
+    private static List<Long> ids(List<ShopGeoIndex.Match> matches) {
+        return matches.stream().map(ShopGeoIndex.Match::id).toList();
+    }
+}
@@ -0,0 +1,149 @@
+package com.anup.shopapi.index;
+
+import com.anup.shopapi.entity.Shop;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShopSearchIndexTest {
+
+    private static final String[] WORDS = {
+            "coffee", "cozy", "corner", "tea", "teapot", "bakery", "bake", "main", "street", "avenue",
+            "market", "co", "mart", "cafe", "café", "Köln", "ÉCLAIR", "road", "1st", "42nd"
+    };
+
+    private final ShopSearchIndex index = new ShopSearchIndex(true);
+    private final Map<Long, Shop> shops = new HashMap<>();
+
+    @BeforeEach
+    void markReady() {
+        index.markReady();
+    }
+
+    @Test
+    void findsSameShopsAsSqlLike() {
+        Random random = new Random(42);
+        for (long id = 1; id <= 500; id++) {
+            put(id, phrase(random, 1 + random.nextInt(3)), random.nextInt(100) + " " + phrase(random, 2));
+        }
+        for (String term : new String[]{"cof", "coffee", "fee co", "tea", "teapot", "ake", "street", "mar",
+                "1st", "café", "köln", "éclair", "COFFEE", "et a", "nue m", "zzz", "cozy cozy"}) {
+            assertThat(index.search(term)).as("search for %s", term)
+                    .containsExactlyInAnyOrderElementsOf(like(term));
+        }
+    }
+
+    @Test
+    void intersectsPostingListsRatherThanMatchingAnyTrigram() {
+        // Each shop has every trigram of "abcdef" between them, but only one has the whole term
+        put(1, "abcd", "1 Road");
+        put(2, "cdef", "2 Road");
+        put(3, "abc def", "3 Road");
+        put(4, "xxabcdefxx", "4 Road");
+
+        assertThat(index.search("abcdef")).containsExactly(4L);
+        assertThat(index.search("abcdefg")).isEmpty();
+    }
+
+    @Test
+    void verifiesCandidatesAgainstTheText() {
+        // Both trigrams "aba" and "bab" occur, in the same order, without "ababab" occurring
+        put(1, "abab", "1 Road");
+        put(2, "babab", "2 Road");
+        put(3, "ababab", "3 Road");
+
+        assertThat(index.search("ababab")).containsExactly(3L);
+    }
+
+    @Test
+    void ranksNameHitsAboveAddressHitsAndWholeWordsAboveWordParts() {
+        put(1, "Ecocoffeeshop", "1 Road");
+        put(2, "Best Coffee", "2 Road");
+        put(3, "Coffee House", "3 Road");
+        put(4, "Coffeehouse", "4 Road");
+        put(5, "Bakery", "5 Coffee Street");
+        put(6, "Coffee", "6 Coffee Street");
+
+        // Whole name and address word, whole word starting the name, word prefix starting the name,
+        // whole word later in the name, part of a word in the name, then the address only
+        assertThat(index.search("coffee")).containsExactly(6L, 3L, 4L, 2L, 1L, 5L);
+    }
+
+    @Test
+    void equalScoresAreInIdOrder() {
+        put(3, "Tea Room", "1 Road");
+        put(1, "Tea Room", "2 Road");
+        put(2, "Tea Room", "3 Road");
+
+        assertThat(index.search("tea")).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void updatesAndRemovalsLeaveNoStalePostings() {
+        put(1, "Coffee Corner", "1 Road");
+        put(2, "Tea Corner", "2 Road");
+
+        put(1, "Bakery Corner", "1 Road");
+        assertThat(index.search("coffee")).isEmpty();
+        assertThat(index.search("bakery")).containsExactly(1L);
+
+        index.remove(2L);
+        assertThat(index.search("corner")).containsExactly(1L);
+        assertThat(index.search("tea")).isEmpty();
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void leavesShortTermsAndUnreadyOrDisabledIndexToTheDatabase() {
+        assertThat(index.supports("co")).isFalse();
+        assertThat(index.supports(" co")).isTrue();
+        assertThat(index.supports(null)).isFalse();
+
+        index.clear();
+        assertThat(index.supports("coffee")).isFalse();
+
+        ShopSearchIndex disabled = new ShopSearchIndex(false);
+        disabled.markReady();
+        assertThat(disabled.supports("coffee")).isFalse();
+    }
+
+    private void put(long id, String name, String address) {
+        Shop shop = new Shop(name, address, null, null);
+        shop.setId(id);
+        shops.put(id, shop);
+        index.put(shop);
+    }
+
+    // LOWER(name) LIKE '%term%' OR LOWER(address) LIKE '%term%', as ShopRepository.findByNameOrAddressContaining
+    private List<Long> like(String term) {
+        String needle = term.toLowerCase(Locale.ROOT);
+        List<Long> ids = new ArrayList<>();
+        shops.forEach((id, shop) -> {
+            if (shop.getName().toLowerCase(Locale.ROOT).contains(needle)
+                    || shop.getAddress().toLowerCase(Locale.ROOT).contains(needle)) {
+                ids.add(id);
+            }
+        });
+        return ids;
+    }
+
+    private static String phrase(Random random, int words) {
+        StringBuilder phrase = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                phrase.append(' ');
+            }
+            String word = WORDS[random.nextInt(WORDS.length)];
+            phrase.append(random.nextBoolean() ? word : word.substring(0, 1).toUpperCase(Locale.ROOT) + word.substring(1));
+        }
+        return phrase.toString();
+    }
+}
@@ -0,0 +1,63 @@
+package com.anup.shopapi.repository;
+
+import com.anup.shopapi.entity.Shop;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ShopRepositoryTest {
+
+    @Autowired
+    private ShopRepository shopRepository;
+
+    @BeforeEach
+    void createShops() {
+        if (shopRepository.findByEmail("cozy@suggest.example").isPresent()) {
+            return;
+        }
+        shopRepository.saveAll(List.of(
+                new Shop("Cozy Coffee Corner", "1 Suggest Street", "+1-555-8001", "cozy@suggest.example"),
+                new Shop("Coffeehouse Zed", "2 Suggest Street", "+1-555-8002", "zed@suggest.example"),
+                new Shop("Anna's Coffee-Bar", "3 Suggest Street", "+1-555-8003", "anna@suggest.example"),
+                new Shop("Tea-Coffee Hut", "4 Suggest Street", "+1-555-8004", "hut@suggest.example"),
+                new Shop("Discoffee", "5 Suggest Street", "+1-555-8005", "disco@suggest.example"),
+                new Shop("100% Coffee", "6 Suggest Street", "+1-555-8006", "percent@suggest.example")));
+    }
+
+    @Test
+    void suggestionFallbackMatchesStartOfAnyWordWithNameStartsFirst() {
+        List<String> names = names(shopRepository.findByNameWordStartingWith("coff", Limit.of(10)));
+
+        assertThat(names).containsExactly(
+                "Coffeehouse Zed",
+                "100% Coffee", "Anna's Coffee-Bar", "Cozy Coffee Corner", "Tea-Coffee Hut");
+    }
+
+    @Test
+    void suggestionFallbackIsCaseInsensitiveAndLimited() {
+        assertThat(names(shopRepository.findByNameWordStartingWith("COZY c", Limit.of(10))))
+                .containsExactly("Cozy Coffee Corner");
+        assertThat(shopRepository.findByNameWordStartingWith("coff", Limit.of(2))).hasSize(2);
+    }
+
+    @Test
+    void suggestionFallbackTreatsWildcardsLiterally() {
+        assertThat(names(shopRepository.findByNameWordStartingWith("100%", Limit.of(10))))
+                .containsExactly("100% Coffee");
+        assertThat(shopRepository.findByNameWordStartingWith("c_ffee", Limit.of(10))).isEmpty();
+        assertThat(shopRepository.findByNameWordStartingWith("%", Limit.of(10))).isEmpty();
+    }
+
+    private static List<String> names(List<Shop> shops) {
+        return shops.stream().map(Shop::getName).toList();
+    }
+}
@@ -0,0 +1,134 @@
+package com.anup.shopapi.service;
+
+import com.anup.shopapi.entity.Shop;
+import com.anup.shopapi.repository.ShopRepository;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Updates and patches against an embedded database, including rows changed
+ * behind the second-level cache's back as another instance would.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ShopServiceWriteTest {
+
+    private static final AtomicInteger shopNumber = new AtomicInteger();
+
+    @Autowired
+    private ShopService shopService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ShopRepository shopRepository;
+
+    @Test
+    void patchAtExpectedVersionUpdatesChangedFieldsAndVersion() {
+        Shop shop = newShop();
+
+        Shop patched = shopService.patchShop(shop.getId(), ShopPatch.from(Map.of("name", "Renamed Shop")), shop.getVersion()).orElseThrow();
+
+        assertThat(patched.getName()).isEqualTo("Renamed Shop");
+        assertThat(patched.getEmail()).isEqualTo(shop.getEmail());
+        assertThat(patched.getVersion()).isEqualTo(shop.getVersion() + 1);
+        assertThat(jdbcTemplate.queryForObject("SELECT name FROM shops WHERE id = ?", String.class, shop.getId()))
+                .isEqualTo("Renamed Shop");
+    }
+
+    @Test
+    void patchAtStaleVersionIsConflictWithCurrentVersion() {
+        Shop shop = newShop();
+        shopService.patchShop(shop.getId(), ShopPatch.from(Map.of("name", "First Change")), shop.getVersion());
+
+        assertThatThrownBy(() -> shopService.patchShop(shop.getId(), ShopPatch.from(Map.of("name", "Second Change")), shop.getVersion()))
+                .isInstanceOf(ShopVersionConflictException.class)
+                .extracting("currentVersion").isEqualTo(shop.getVersion() + 1);
+        assertThat(jdbcTemplate.queryForObject("SELECT name FROM shops WHERE id = ?", String.class, shop.getId()))
+                .isEqualTo("First Change");
+    }
+
+    @Test
+    void patchOfMissingShopIsEmpty() {
+        assertThat(shopService.patchShop(-1L, ShopPatch.from(Map.of("name", "Nobody")), 0L)).isEmpty();
+    }
+
+    @Test
+    void patchToAnotherShopsEmailIsDuplicate() {
+        Shop shop = newShop();
+        Shop other = newShop();
+
+        assertThatThrownBy(() -> shopService.patchShop(shop.getId(), ShopPatch.from(Map.of("email", other.getEmail())), shop.getVersion()))
+                .isInstanceOf(ShopDuplicateException.class);
+    }
+
+    @Test
+    void updateOverwritesShopChangedSinceItWasCached() {
+        Shop shop = newShop();
+        shopService.getShopById(shop.getId());
+        // Another instance writes the row; this instance's cached copy keeps the old version
+        jdbcTemplate.update("UPDATE shops SET name = 'Changed Elsewhere', version = version + 1 WHERE id = ?", shop.getId());
+
+        Shop details = new Shop("Last Write", shop.getAddress(), shop.getPhone(), shop.getEmail());
+        Optional<Shop> updated = shopService.updateShop(shop.getId(), details);
+
+        assertThat(updated).isPresent();
+        assertThat(updated.get().getVersion()).isEqualTo(shop.getVersion() + 2);
+        assertThat(jdbcTemplate.queryForObject("SELECT name FROM shops WHERE id = ?", String.class, shop.getId()))
+                .isEqualTo("Last Write");
+    }
+
+    @Test
+    void patchWithoutVersionOverwritesShopChangedSinceItWasCached() {
+        Shop shop = newShop();
+        shopService.getShopById(shop.getId());
+        jdbcTemplate.update("UPDATE shops SET name = 'Changed Elsewhere', version = version + 1 WHERE id = ?", shop.getId());
+
+        Shop patched = shopService.patchShop(shop.getId(), ShopPatch.from(Map.of("name", "Last Write")), null).orElseThrow();
+
+        assertThat(patched.getName()).isEqualTo("Last Write");
+        assertThat(patched.getVersion()).isEqualTo(shop.getVersion() + 2);
+    }
+
+    @Test
+    void deleteEvictsOnlyTheDeletedShop() {
+        Shop deleted = newShop();
+        Shop kept = newShop();
+        shopService.getShopById(deleted.getId());
+        shopService.getShopById(kept.getId());
+        long count = shopRepository.countAllShops();
+
+        assertThat(shopService.deleteShop(deleted.getId())).isTrue();
+
+        Cache cache = entityManagerFactory.getCache();
+        assertThat(cache.contains(Shop.class, deleted.getId())).isFalse();
+        assertThat(cache.contains(Shop.class, kept.getId())).isTrue();
+        assertThat(shopService.getShopById(deleted.getId())).isEmpty();
+        assertThat(shopRepository.countAllShops()).isEqualTo(count - 1);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM shop_tombstones WHERE shop_id = ?", Integer.class, deleted.getId()))
+                .isEqualTo(1);
+        assertThat(shopService.deleteShop(deleted.getId())).isFalse();
+    }
+
+    private Shop newShop() {
+        int n = shopNumber.incrementAndGet();
+        return shopService.createShop(new Shop("Write Test Shop " + n, n + " Test Street",
+                "+1-555-7" + String.format("%03d", n), "write" + n + "@example.com"));
+    }
+}